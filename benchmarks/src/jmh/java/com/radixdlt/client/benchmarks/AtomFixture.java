@@ -0,0 +1,121 @@
+package com.radixdlt.client.benchmarks;
+
+import com.radixdlt.client.application.objects.Data;
+import com.radixdlt.client.application.objects.Data.DataBuilder;
+import com.radixdlt.client.assets.Asset;
+import com.radixdlt.client.core.atoms.ApplicationPayloadAtom;
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.atoms.AtomBuilder;
+import com.radixdlt.client.core.atoms.Consumable;
+import com.radixdlt.client.core.atoms.TransactionAtom;
+import com.radixdlt.client.core.crypto.ECKeyPair;
+import com.radixdlt.client.core.crypto.ECKeyPairGenerator;
+import com.radixdlt.client.core.serialization.Dson;
+import com.radixdlt.client.core.serialization.RadixJson;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Realistic atoms to benchmark, built once per trial together with their DSON and JSON forms
+ */
+@State(Scope.Benchmark)
+public class AtomFixture {
+	/**
+	 * Size of the plain text of the encrypted payload, about 1 KB once encrypted
+	 */
+	private static final int PAYLOAD_SIZE = 900;
+
+	@Param({"smallTransfer", "largeTransaction", "encryptedPayload"})
+	private String fixture;
+
+	private Atom atom;
+	private byte[] dson;
+	private String json;
+
+	/**
+	 * A transfer spending one consumable into a payment and its change
+	 */
+	static Atom smallTransfer(ECKeyPair from, ECKeyPair to) {
+		final Consumable input = new Consumable(100, from, 1, Asset.TEST.getId());
+		return new AtomBuilder()
+			.type(TransactionAtom.class)
+			.addParticle(input.toConsumer())
+			.addParticle(new Consumable(60, to, 2, Asset.TEST.getId()))
+			.addParticle(new Consumable(40, from, 3, Asset.TEST.getId()))
+			.build()
+			.getRawAtom();
+	}
+
+	/**
+	 * A transaction of 50 particles, consolidating 25 consumables into 25 payments
+	 */
+	static Atom largeTransaction(ECKeyPair from, ECKeyPair to) {
+		final AtomBuilder atomBuilder = new AtomBuilder().type(TransactionAtom.class);
+		for (int i = 0; i < 25; i++) {
+			atomBuilder.addParticle(new Consumable(10, from, i, Asset.TEST.getId()).toConsumer());
+			atomBuilder.addParticle(new Consumable(10, to, 100 + i, Asset.TEST.getId()));
+		}
+		return atomBuilder.build().getRawAtom();
+	}
+
+	/**
+	 * A message encrypted for its sender and receiver
+	 */
+	static Atom encryptedPayload(ECKeyPair from, ECKeyPair to) {
+		final byte[] message = new byte[PAYLOAD_SIZE];
+		new Random(0).nextBytes(message);
+		final Data data = new DataBuilder()
+			.bytes(message)
+			.addReader(from.getPublicKey())
+			.addReader(to.getPublicKey())
+			.build();
+		return new AtomBuilder()
+			.type(ApplicationPayloadAtom.class)
+			.applicationId("benchmark")
+			.payload(data.getBytes())
+			.protectors(data.getProtectors())
+			.addDestination(from.getUID())
+			.addDestination(to.getUID())
+			.build()
+			.getRawAtom();
+	}
+
+	@Setup(Level.Trial)
+	public void setup() {
+		final ECKeyPair from = ECKeyPairGenerator.newInstance().generateKeyPair();
+		final ECKeyPair to = ECKeyPairGenerator.newInstance().generateKeyPair();
+
+		switch (fixture) {
+			case "smallTransfer":
+				atom = smallTransfer(from, to);
+				break;
+			case "largeTransaction":
+				atom = largeTransaction(from, to);
+				break;
+			case "encryptedPayload":
+				atom = encryptedPayload(from, to);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown fixture: " + fixture);
+		}
+
+		dson = Dson.getInstance().toDson(atom);
+		json = RadixJson.getGson().toJson(atom, Atom.class);
+	}
+
+	public Atom getAtom() {
+		return atom;
+	}
+
+	public byte[] getDson() {
+		return dson;
+	}
+
+	public String getJson() {
+		return json;
+	}
+}
@@ -0,0 +1,42 @@
+package com.radixdlt.client.benchmarks;
+
+import com.radixdlt.client.core.crypto.ECKeyPair;
+import com.radixdlt.client.core.crypto.ECKeyPairGenerator;
+import com.radixdlt.client.core.crypto.ECSignature;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Signing of atom hashes and verification of their signatures
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CryptoBenchmark {
+	private ECKeyPair keyPair;
+	private byte[] hash;
+	private ECSignature signature;
+
+	@Setup
+	public void setup(AtomFixture fixture) {
+		keyPair = ECKeyPairGenerator.newInstance().generateKeyPair();
+		hash = fixture.getAtom().getHash().toByteArray();
+		signature = keyPair.sign(hash);
+	}
+
+	@Benchmark
+	public ECSignature sign() {
+		return keyPair.sign(hash);
+	}
+
+	@Benchmark
+	public boolean verify() {
+		return keyPair.getPublicKey().verify(hash, signature);
+	}
+}
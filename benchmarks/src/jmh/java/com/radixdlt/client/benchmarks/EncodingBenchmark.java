@@ -0,0 +1,54 @@
+package com.radixdlt.client.benchmarks;
+
+import com.radixdlt.client.core.address.RadixAddress;
+import com.radixdlt.client.core.crypto.ECKeyPairGenerator;
+import com.radixdlt.client.core.util.Base58;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Base58 encoding and parsing of addresses
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class EncodingBenchmark {
+	private static final int MAGIC = 1;
+
+	private RadixAddress address;
+	private String base58;
+	private byte[] bytes;
+
+	@Setup
+	public void setup() {
+		address = new RadixAddress(MAGIC, ECKeyPairGenerator.newInstance().generateKeyPair().getPublicKey());
+		base58 = address.toString();
+		bytes = Base58.fromBase58(base58);
+	}
+
+	@Benchmark
+	public String toBase58() {
+		return Base58.toBase58(bytes);
+	}
+
+	@Benchmark
+	public byte[] fromBase58() {
+		return Base58.fromBase58(base58);
+	}
+
+	@Benchmark
+	public RadixAddress parseAddress() {
+		return RadixAddress.fromString(base58);
+	}
+
+	@Benchmark
+	public RadixAddress createAddress() {
+		return new RadixAddress(MAGIC, address.getPublicKey());
+	}
+}
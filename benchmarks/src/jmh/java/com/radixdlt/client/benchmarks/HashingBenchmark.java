@@ -0,0 +1,25 @@
+package com.radixdlt.client.benchmarks;
+
+import com.radixdlt.client.core.atoms.RadixHash;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/**
+ * Hashing of atoms, with and without their serialization to DSON
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HashingBenchmark {
+	@Benchmark
+	public RadixHash hashDson(AtomFixture fixture) {
+		return RadixHash.of(fixture.getDson());
+	}
+
+	@Benchmark
+	public RadixHash hashAtom(AtomFixture fixture) {
+		return fixture.getAtom().getHash();
+	}
+}
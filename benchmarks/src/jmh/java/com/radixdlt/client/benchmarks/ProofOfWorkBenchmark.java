@@ -0,0 +1,38 @@
+package com.radixdlt.client.benchmarks;
+
+import com.radixdlt.client.core.pow.ProofOfWork;
+import com.radixdlt.client.core.pow.ProofOfWorkBuilder;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Proof of work of atom fees, at the difficulties of the fixtures
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ProofOfWorkBenchmark {
+	private static final int MAGIC = 1;
+
+	private final ProofOfWorkBuilder builder = new ProofOfWorkBuilder();
+	private byte[] seed;
+	private int leading;
+
+	@Setup
+	public void setup(AtomFixture fixture) {
+		seed = fixture.getAtom().getHash().toByteArray();
+		// Same difficulty as AtomBuilder.buildWithPOWFee
+		leading = (int) Math.ceil(Math.log(fixture.getDson().length * 8.0));
+	}
+
+	@Benchmark
+	public ProofOfWork build() {
+		return builder.build(MAGIC, seed, leading);
+	}
+}
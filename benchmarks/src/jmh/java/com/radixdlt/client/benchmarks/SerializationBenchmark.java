@@ -0,0 +1,32 @@
+package com.radixdlt.client.benchmarks;
+
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.serialization.Dson;
+import com.radixdlt.client.core.serialization.RadixJson;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/**
+ * DSON and JSON (de)serialization of atoms
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+	@Benchmark
+	public byte[] toDson(AtomFixture fixture) {
+		return Dson.getInstance().toDson(fixture.getAtom());
+	}
+
+	@Benchmark
+	public String toJson(AtomFixture fixture) {
+		return RadixJson.getGson().toJson(fixture.getAtom(), Atom.class);
+	}
+
+	@Benchmark
+	public Atom fromJson(AtomFixture fixture) {
+		return RadixJson.getGson().fromJson(fixture.getJson(), Atom.class);
+	}
+}
@@ -0,0 +1,106 @@
+package com.radixdlt.client.benchmarks.ledger;
+
+import com.radixdlt.client.assets.Asset;
+import com.radixdlt.client.core.address.RadixAddress;
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.atoms.AtomBuilder;
+import com.radixdlt.client.core.atoms.Consumable;
+import com.radixdlt.client.core.atoms.TransactionAtom;
+import com.radixdlt.client.core.atoms.UnsignedAtom;
+import com.radixdlt.client.core.crypto.ECKeyPair;
+import com.radixdlt.client.core.crypto.ECKeyPairGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synthetic, validly signed transaction history of an address. Tokens are deposited
+ * from a faucet, and every few deposits the address consolidates all it owns into a
+ * single consumable, so the history exercises both sides of transaction validation.
+ */
+final class AtomHistory {
+	/**
+	 * Every this many atoms the address consolidates its consumables
+	 */
+	private static final int CONSOLIDATE_EVERY = 8;
+
+	private static final long DEPOSIT = 100;
+
+	private static final AtomicLong NONCES = new AtomicLong();
+
+	private final ECKeyPair faucet;
+	private final ECKeyPair key;
+	private final RadixAddress address;
+
+	/**
+	 * Atoms of the history, in order
+	 */
+	private final List<Atom> atoms = new ArrayList<>();
+
+	private final List<Consumable> unconsumed = new ArrayList<>();
+
+	private long balance;
+
+	AtomHistory(int magic, ECKeyPair faucet) {
+		this.faucet = faucet;
+		this.key = ECKeyPairGenerator.newInstance().generateKeyPair();
+		this.address = new RadixAddress(magic, key.getPublicKey());
+	}
+
+	private static Atom sign(AtomBuilder atomBuilder, ECKeyPair signer) {
+		final UnsignedAtom unsignedAtom = atomBuilder.build();
+		return unsignedAtom.sign(signer.sign(unsignedAtom.getHash().toByteArray()), signer.getUID());
+	}
+
+	private Atom consolidate() {
+		final AtomBuilder atomBuilder = new AtomBuilder().type(TransactionAtom.class);
+		for (Consumable consumable : unconsumed) {
+			atomBuilder.addParticle(consumable.toConsumer());
+		}
+		unconsumed.clear();
+
+		final Consumable output = new Consumable(balance, key, NONCES.incrementAndGet(), Asset.TEST.getId());
+		atomBuilder.addParticle(output);
+		unconsumed.add(output);
+		return sign(atomBuilder, key);
+	}
+
+	/**
+	 * Builds an atom depositing tokens from the faucet without adding it to the history
+	 *
+	 * @return the atom
+	 */
+	Atom deposit() {
+		balance += DEPOSIT;
+		final Consumable output = new Consumable(DEPOSIT, key, NONCES.incrementAndGet(), Asset.TEST.getId());
+		unconsumed.add(output);
+
+		final AtomBuilder atomBuilder = new AtomBuilder()
+			.type(TransactionAtom.class)
+			.addParticle(new Consumable(DEPOSIT, faucet, NONCES.incrementAndGet(), Asset.TEST.getId()).toConsumer())
+			.addParticle(output);
+		return sign(atomBuilder, faucet);
+	}
+
+	/**
+	 * Builds the next atom and appends it to the history
+	 */
+	void append() {
+		atoms.add(unconsumed.size() >= CONSOLIDATE_EVERY ? consolidate() : deposit());
+	}
+
+	RadixAddress getAddress() {
+		return address;
+	}
+
+	List<Atom> getAtoms() {
+		return atoms;
+	}
+
+	/**
+	 * @return balance in subunits once every atom built so far is applied
+	 */
+	long getBalance() {
+		return balance;
+	}
+}
@@ -0,0 +1,177 @@
+package com.radixdlt.client.benchmarks.ledger;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.radixdlt.client.application.BlockingRadixApplicationAPI;
+import com.radixdlt.client.application.RadixApplicationAPI;
+import com.radixdlt.client.application.identity.RadixIdentities;
+import com.radixdlt.client.application.objects.Data;
+import com.radixdlt.client.assets.Asset;
+import com.radixdlt.client.core.RadixUniverse;
+import com.radixdlt.client.core.address.RadixUniverseConfig;
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.crypto.ECKeyPair;
+import com.radixdlt.client.core.crypto.ECKeyPairGenerator;
+import com.radixdlt.client.simulator.NodeSimulator;
+import com.radixdlt.client.simulator.SimulatorConfig.SimulatorConfigBuilder;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the {@link BlockingRadixApplicationAPI} under many concurrent thread per request
+ * callers against an in-process {@link NodeSimulator}. All callers are released at once, each
+ * reading the balance of an address and fetching one of its atoms, with some also storing data.
+ * Callers run on virtual threads when the JDK has them, on platform threads otherwise.
+ * <p>
+ * Usage: {@code BlockingCallersBenchmark [callers] [addresses] [writers] [nodes]}. Results are
+ * printed and written as JSON to the file named by the {@code results} system property.
+ */
+public final class BlockingCallersBenchmark {
+	private static final long TIMEOUT_MINUTES = 30;
+
+	private static final int ATOMS_PER_ADDRESS = 10;
+
+	private BlockingCallersBenchmark() {
+	}
+
+	/**
+	 * Executor running each caller on a virtual thread if available
+	 */
+	private static ExecutorService callers() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	private static JsonObject percentiles(long[] nanos) {
+		final long[] completed = Arrays.stream(nanos).filter(n -> n > 0).sorted().toArray();
+		final JsonObject millis = new JsonObject();
+		if (completed.length > 0) {
+			millis.addProperty("p50", completed[(int) Math.ceil(completed.length * 0.50) - 1] / 1e6);
+			millis.addProperty("p99", completed[(int) Math.ceil(completed.length * 0.99) - 1] / 1e6);
+			millis.addProperty("max", completed[completed.length - 1] / 1e6);
+		}
+		return millis;
+	}
+
+	public static void main(String[] args) throws Exception {
+		final int callerCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		final int addressCount = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		final int writerCount = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+		final int nodeCount = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+		final File resultsFile = new File(System.getProperty("results", "build/reports/blocking/results.json"));
+
+		final NodeSimulator simulator = new NodeSimulator(
+			NodeSimulator.bundledUniverse("testuniverse.json"),
+			new SimulatorConfigBuilder().nodes(nodeCount).build()
+		);
+		final RadixUniverseConfig config = simulator.getUniverseConfig();
+		final ECKeyPair faucet = ECKeyPairGenerator.newInstance().generateKeyPair();
+		final List<AtomHistory> histories = new ArrayList<>(addressCount);
+		for (int i = 0; i < addressCount; i++) {
+			final AtomHistory history = new AtomHistory(config.getMagic(), faucet);
+			for (int j = 0; j < ATOMS_PER_ADDRESS; j++) {
+				history.append();
+			}
+			history.getAtoms().forEach(simulator::store);
+			histories.add(history);
+		}
+
+		simulator.start();
+		RadixUniverse.bootstrap(config, simulator.getPeerDiscovery());
+		final BlockingRadixApplicationAPI api = new BlockingRadixApplicationAPI(RadixApplicationAPI.create(RadixIdentities.createNew()));
+
+		final long[] balanceNanos = new long[callerCount];
+		final long[] atomNanos = new long[callerCount];
+		final long[] storeNanos = new long[callerCount];
+		final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(callerCount);
+		final ExecutorService executor = callers();
+
+		for (int i = 0; i < callerCount; i++) {
+			final int index = i;
+			final AtomHistory history = histories.get(i % addressCount);
+			final Atom atom = history.getAtoms().get(i % ATOMS_PER_ADDRESS);
+			executor.execute(() -> {
+				String operation = "start";
+				try {
+					start.await();
+
+					operation = "getBalance";
+					long begin = System.nanoTime();
+					api.getBalance(history.getAddress(), Asset.TEST);
+					balanceNanos[index] = System.nanoTime() - begin;
+
+					operation = "getAtom";
+					begin = System.nanoTime();
+					if (!api.getAtom(history.getAddress(), atom.getHid()).isPresent()) {
+						throw new IllegalStateException("Atom " + atom.getHid() + " not found");
+					}
+					atomNanos[index] = System.nanoTime() - begin;
+
+					if (index < writerCount) {
+						operation = "storeData";
+						begin = System.nanoTime();
+						api.storeData(new Data.DataBuilder()
+							.bytes(("caller " + index).getBytes(StandardCharsets.UTF_8))
+							.unencrypted()
+							.build());
+						storeNanos[index] = System.nanoTime() - begin;
+					}
+				} catch (Exception e) {
+					failures.computeIfAbsent(operation + " " + e.getClass().getSimpleName(), name -> new AtomicInteger())
+						.incrementAndGet();
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+
+		final long begin = System.nanoTime();
+		start.countDown();
+		if (!done.await(TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+			throw new IllegalStateException("Callers not done within " + TIMEOUT_MINUTES + " minutes");
+		}
+		final long elapsedNanos = System.nanoTime() - begin;
+		executor.shutdown();
+
+		final int calls = callerCount * 2 + Math.min(writerCount, callerCount);
+		final JsonObject results = new JsonObject();
+		results.addProperty("callers", callerCount);
+		results.addProperty("virtualThreads", !executor.getClass().getName().contains("ThreadPoolExecutor"));
+		results.addProperty("callsPerSecond", calls / (elapsedNanos / 1e9));
+		final JsonObject failed = new JsonObject();
+		failures.forEach((name, count) -> failed.addProperty(name, count.get()));
+		results.add("failures", failed);
+		results.add("getBalanceMillis", percentiles(balanceNanos));
+		results.add("getAtomMillis", percentiles(atomNanos));
+		results.add("storeDataMillis", percentiles(storeNanos));
+		results.addProperty("peakPlatformThreads", ManagementFactory.getThreadMXBean().getPeakThreadCount());
+
+		final String json = new GsonBuilder().setPrettyPrinting().create().toJson(results);
+		System.out.println(json);
+		if (resultsFile.getParentFile() != null) {
+			resultsFile.getParentFile().mkdirs();
+		}
+		Files.write(resultsFile.toPath(), json.getBytes(StandardCharsets.UTF_8));
+
+		RadixUniverse.getInstance().disconnect();
+		simulator.close();
+		System.exit(0);
+	}
+}
@@ -0,0 +1,183 @@
+package com.radixdlt.client.benchmarks.ledger;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.radixdlt.client.application.RadixApplicationAPI;
+import com.radixdlt.client.application.identity.RadixIdentities;
+import com.radixdlt.client.assets.Asset;
+import com.radixdlt.client.core.RadixUniverse;
+import com.radixdlt.client.core.address.RadixUniverseConfig;
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.crypto.ECKeyPair;
+import com.radixdlt.client.core.crypto.ECKeyPairGenerator;
+import com.radixdlt.client.simulator.NodeSimulator;
+import com.radixdlt.client.simulator.SimulatorConfig.SimulatorConfigBuilder;
+import io.reactivex.disposables.CompositeDisposable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Measures the whole ledger pipeline, from the websocket to balances, against an in-process
+ * {@link NodeSimulator} loaded with synthetic histories:
+ * <ul>
+ * <li>atoms ingested per second until every balance reflects its whole history</li>
+ * <li>time to the first balance of each address reflecting any of its atoms</li>
+ * <li>latency from a live atom leaving the node to the balance reflecting it</li>
+ * <li>heap growth from before pulling to once every history is ingested</li>
+ * </ul>
+ * Usage: {@code LedgerThroughputBenchmark [atoms] [addresses] [liveUpdates] [nodes]}. Results are
+ * printed and written as JSON to the file named by the {@code results} system property.
+ */
+public final class LedgerThroughputBenchmark {
+	private static final long TIMEOUT_MINUTES = 30;
+
+
+	/**
+	 * Live atom waiting for the balance of its address to reflect it
+	 */
+	private static final class Pending {
+		private final long balance;
+		private final long sentAt;
+		private final CountDownLatch reflected = new CountDownLatch(1);
+
+		private Pending(long balance, long sentAt) {
+			this.balance = balance;
+			this.sentAt = sentAt;
+		}
+	}
+
+	private LedgerThroughputBenchmark() {
+	}
+
+	private static long usedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static JsonObject percentiles(long[] nanos) {
+		Arrays.sort(nanos);
+		final JsonObject millis = new JsonObject();
+		if (nanos.length > 0) {
+			millis.addProperty("p50", nanos[(int) Math.ceil(nanos.length * 0.50) - 1] / 1e6);
+			millis.addProperty("p99", nanos[(int) Math.ceil(nanos.length * 0.99) - 1] / 1e6);
+			millis.addProperty("max", nanos[nanos.length - 1] / 1e6);
+		}
+		return millis;
+	}
+
+	public static void main(String[] args) throws Exception {
+		final int atomCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		final int addressCount = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+		final int liveUpdates = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+		final int nodeCount = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+		final File resultsFile = new File(System.getProperty("results", "build/reports/ledger/results.json"));
+
+		final NodeSimulator simulator = new NodeSimulator(
+			NodeSimulator.bundledUniverse("testuniverse.json"),
+			new SimulatorConfigBuilder().nodes(nodeCount).build()
+		);
+		final RadixUniverseConfig config = simulator.getUniverseConfig();
+		final ECKeyPair faucet = ECKeyPairGenerator.newInstance().generateKeyPair();
+		final List<AtomHistory> histories = new ArrayList<>(addressCount);
+		for (int i = 0; i < addressCount; i++) {
+			histories.add(new AtomHistory(config.getMagic(), faucet));
+		}
+		for (int i = 0; i < atomCount; i++) {
+			histories.get(i % addressCount).append();
+		}
+		for (AtomHistory history : histories) {
+			history.getAtoms().forEach(simulator::store);
+		}
+		System.out.println("Generated " + atomCount + " atoms for " + addressCount + " addresses on " + nodeCount + " nodes");
+
+		simulator.start();
+		RadixUniverse.bootstrap(config, simulator.getPeerDiscovery());
+		final RadixApplicationAPI api = RadixApplicationAPI.create(RadixIdentities.createNew());
+
+		final long heapBefore = usedHeap();
+		final CountDownLatch ingested = new CountDownLatch(addressCount);
+		final long[] firstBalance = new long[addressCount];
+		final boolean[] reached = new boolean[addressCount];
+		final AtomicReferenceArray<Pending> pending = new AtomicReferenceArray<>(addressCount);
+		final List<Long> latencies = new ArrayList<>(liveUpdates);
+		final CompositeDisposable balances = new CompositeDisposable();
+
+		final long start = System.nanoTime();
+		for (int i = 0; i < addressCount; i++) {
+			final int index = i;
+			final AtomHistory history = histories.get(i);
+			final long historyBalance = history.getBalance();
+			balances.add(api.getBalance(history.getAddress(), Asset.TEST).subscribe(amount -> {
+				final long balance = amount.getAmountInSubunits();
+				final long now = System.nanoTime();
+				if (balance > 0 && firstBalance[index] == 0) {
+					firstBalance[index] = now - start;
+				}
+				if (balance == historyBalance && !reached[index]) {
+					reached[index] = true;
+					ingested.countDown();
+				}
+				final Pending live = pending.get(index);
+				if (live != null && balance >= live.balance && live.reflected.getCount() > 0) {
+					synchronized (latencies) {
+						latencies.add(now - live.sentAt);
+					}
+					live.reflected.countDown();
+				}
+			}));
+		}
+
+		if (!ingested.await(TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+			throw new IllegalStateException("Histories not ingested within " + TIMEOUT_MINUTES + " minutes");
+		}
+		final long ingestNanos = System.nanoTime() - start;
+		final long heapGrowth = usedHeap() - heapBefore;
+
+		for (int i = 0; i < liveUpdates; i++) {
+			final int index = i % addressCount;
+			final AtomHistory history = histories.get(index);
+			final Atom atom = history.deposit();
+			final Pending live = new Pending(history.getBalance(), System.nanoTime());
+			pending.set(index, live);
+			simulator.store(atom);
+			if (!live.reflected.await(1, TimeUnit.MINUTES)) {
+				throw new IllegalStateException("Live atom " + i + " not reflected in balance");
+			}
+		}
+
+		final JsonObject results = new JsonObject();
+		results.addProperty("atoms", atomCount);
+		results.addProperty("addresses", addressCount);
+		results.addProperty("atomsPerSecond", atomCount / (ingestNanos / 1e9));
+		results.add("timeToFirstBalanceMillis", percentiles(firstBalance));
+		results.add("balanceUpdateLatencyMillis", percentiles(latencies.stream().mapToLong(Long::longValue).toArray()));
+		results.addProperty("heapGrowthBytes", heapGrowth);
+
+		final String json = new GsonBuilder().setPrettyPrinting().create().toJson(results);
+		System.out.println(json);
+		writeResults(resultsFile, json);
+
+		balances.dispose();
+		RadixUniverse.getInstance().disconnect();
+		simulator.close();
+		System.exit(0);
+	}
+
+	private static void writeResults(File resultsFile, String json) throws IOException {
+		if (resultsFile.getParentFile() != null) {
+			resultsFile.getParentFile().mkdirs();
+		}
+		Files.write(resultsFile.toPath(), json.getBytes(StandardCharsets.UTF_8));
+	}
+}
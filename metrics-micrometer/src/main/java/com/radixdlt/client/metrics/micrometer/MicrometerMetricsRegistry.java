@@ -0,0 +1,58 @@
+package com.radixdlt.client.metrics.micrometer;
+
+import com.radixdlt.client.core.metrics.Counter;
+import com.radixdlt.client.core.metrics.Metrics;
+import com.radixdlt.client.core.metrics.MetricsRegistry;
+import com.radixdlt.client.core.metrics.Timer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Records the metrics of the library in a Micrometer registry, and from there in any
+ * monitoring system Micrometer supports. Timers publish percentile histograms so that
+ * latency percentiles can be aggregated across clients, e.g. to track SLOs.
+ * <p>
+ * Install before bootstrapping a universe:
+ * <pre>
+ * MicrometerMetricsRegistry.install(meterRegistry);
+ * </pre>
+ */
+public final class MicrometerMetricsRegistry implements MetricsRegistry {
+	private final MeterRegistry registry;
+
+	public MicrometerMetricsRegistry(MeterRegistry registry) {
+		this.registry = Objects.requireNonNull(registry);
+	}
+
+	/**
+	 * Records every metric of the library in a Micrometer registry from now on
+	 *
+	 * @param registry Micrometer registry to record in
+	 * @return the binding installed
+	 */
+	public static MicrometerMetricsRegistry install(MeterRegistry registry) {
+		final MicrometerMetricsRegistry metricsRegistry = new MicrometerMetricsRegistry(registry);
+		Metrics.setRegistry(metricsRegistry);
+		return metricsRegistry;
+	}
+
+	@Override
+	public Counter counter(String name, String... tags) {
+		return registry.counter(name, tags)::increment;
+	}
+
+	@Override
+	public Timer timer(String name, String... tags) {
+		return io.micrometer.core.instrument.Timer.builder(name)
+			.tags(tags)
+			.publishPercentileHistogram()
+			.register(registry)::record;
+	}
+
+	@Override
+	public <T> void gauge(String name, T object, ToDoubleFunction<T> value, String... tags) {
+		registry.gauge(name, Tags.of(tags), object, value);
+	}
+}
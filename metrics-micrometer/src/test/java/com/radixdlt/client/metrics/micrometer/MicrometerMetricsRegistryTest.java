@@ -0,0 +1,34 @@
+package com.radixdlt.client.metrics.micrometer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.radixdlt.client.core.metrics.Metrics;
+import com.radixdlt.client.core.metrics.NoopMetricsRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class MicrometerMetricsRegistryTest {
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@After
+	public void resetRegistry() {
+		Metrics.setRegistry(NoopMetricsRegistry.getInstance());
+	}
+
+	@Test
+	public void recordsInMicrometer() {
+		MicrometerMetricsRegistry registry = MicrometerMetricsRegistry.install(meterRegistry);
+		AtomicInteger inFlight = new AtomicInteger(3);
+
+		Metrics.getRegistry().counter(Metrics.ATOMS_RECEIVED).increment(2);
+		Metrics.getRegistry().timer(Metrics.RPC_LATENCY, "node", "ws://localhost:8080/rpc").record(5, TimeUnit.MILLISECONDS);
+		registry.gauge(Metrics.RPC_IN_FLIGHT, inFlight, AtomicInteger::get, "node", "ws://localhost:8080/rpc");
+
+		assertThat(meterRegistry.find(Metrics.ATOMS_RECEIVED).counter().count()).isEqualTo(2.0);
+		assertThat(meterRegistry.find(Metrics.RPC_LATENCY).tags("node", "ws://localhost:8080/rpc").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.find(Metrics.RPC_IN_FLIGHT).gauge().value()).isEqualTo(3.0);
+	}
+}
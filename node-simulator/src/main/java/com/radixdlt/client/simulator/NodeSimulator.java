@@ -0,0 +1,259 @@
+package com.radixdlt.client.simulator;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.radixdlt.client.core.address.RadixUniverseConfig;
+import com.radixdlt.client.core.atoms.AbstractConsumable;
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.atoms.AtomValidationException;
+import com.radixdlt.client.core.atoms.RadixHash;
+import com.radixdlt.client.core.ledger.RadixAtomValidator;
+import com.radixdlt.client.core.network.AtomSubmissionUpdate.AtomSubmissionState;
+import com.radixdlt.client.core.network.PeerDiscovery;
+import com.radixdlt.client.core.network.SinglePeer;
+import com.radixdlt.client.core.serialization.RadixJson;
+import com.radixdlt.client.simulator.SimulatedLedger.StoredAtom;
+import io.reactivex.Observable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A local network of simulated Radix nodes for load, latency and fault injection testing.
+ * The shard space is split evenly between the nodes, each storing the atoms of its shards
+ * in memory. Atoms are either loaded up front or submitted by clients, in which case they
+ * are validated, checked for double spends and stored by every node serving their shards.
+ * <p>
+ * Run from the command line with {@code --name=value} arguments named after the
+ * {@link SimulatorConfig} properties: nodes, port, latency, jitter, drop, rpcErrors,
+ * submitFailures, maxQueuedBytes, slowConsumerTimeout, batch and seed, plus the universe
+ * file to serve.
+ */
+public final class NodeSimulator implements Closeable {
+	/**
+	 * Outcome of the submission of an atom
+	 */
+	static final class Submission {
+		private final AtomSubmissionState state;
+		private final String message;
+
+		private Submission(AtomSubmissionState state, String message) {
+			this.state = state;
+			this.message = message;
+		}
+
+		AtomSubmissionState getState() {
+			return state;
+		}
+
+		String getMessage() {
+			return message;
+		}
+	}
+
+	private final JsonElement universe;
+	private final SimulatorConfig config;
+	private final List<SimulatedNode> nodes;
+
+	/**
+	 * Hashes of the consumables consumed by stored atoms, to detect double spends
+	 */
+	private final Set<RadixHash> consumed = new HashSet<>();
+
+	/**
+	 * @param universe universe served by the nodes, as found in a universe file
+	 * @param config shape of the network and faults to inject
+	 */
+	public NodeSimulator(JsonElement universe, SimulatorConfig config) {
+		this.universe = universe;
+		this.config = config;
+
+		final BigInteger span = BigInteger.ONE.shiftLeft(64);
+		final BigInteger min = BigInteger.valueOf(Long.MIN_VALUE);
+		final List<SimulatedNode> created = new ArrayList<>(config.getNodes());
+		for (int i = 0; i < config.getNodes(); i++) {
+			final BigInteger count = BigInteger.valueOf(config.getNodes());
+			final long low = min.add(span.multiply(BigInteger.valueOf(i)).divide(count)).longValueExact();
+			final long high = min.add(span.multiply(BigInteger.valueOf(i + 1L)).divide(count)).subtract(BigInteger.ONE).longValueExact();
+			created.add(new SimulatedNode(this, config, i, low, high));
+		}
+		this.nodes = Collections.unmodifiableList(created);
+	}
+
+	/**
+	 * Reads a universe file, e.g. one of the universes bundled with the library
+	 *
+	 * @param inputStream stream of the universe file
+	 * @return the universe
+	 */
+	public static JsonElement readUniverse(InputStream inputStream) {
+		return new JsonParser().parse(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @return a universe bundled with the library, e.g. {@code testuniverse.json}
+	 */
+	public static JsonElement bundledUniverse(String name) {
+		return readUniverse(RadixUniverseConfig.class.getResourceAsStream("/universe/" + name));
+	}
+
+	public void start() throws IOException {
+		for (SimulatedNode node : nodes) {
+			node.start();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		for (SimulatedNode node : nodes) {
+			node.shutdown();
+		}
+	}
+
+	public List<SimulatedNode> getNodes() {
+		return nodes;
+	}
+
+	public RadixUniverseConfig getUniverseConfig() {
+		return RadixJson.getGson().fromJson(universe, RadixUniverseConfig.class);
+	}
+
+	JsonElement getUniverse() {
+		return universe;
+	}
+
+	JsonArray getLivePeers() {
+		final JsonArray peers = new JsonArray();
+		nodes.forEach(node -> peers.add(node.getSelf()));
+		return peers;
+	}
+
+	/**
+	 * Discovers every node of the simulated network
+	 *
+	 * @return the peer discovery to bootstrap a universe with
+	 */
+	public PeerDiscovery getPeerDiscovery() {
+		return () -> Observable.fromIterable(nodes)
+			.concatMap(node -> new SinglePeer(node.getHostName(), false, node.getPort()).findPeers().retry(3));
+	}
+
+	/**
+	 * Stores an atom on every node serving its shards without validating it, e.g. to load
+	 * histories before clients connect
+	 *
+	 * @param atom atom to store
+	 */
+	public void store(Atom atom) {
+		synchronized (consumed) {
+			consumed.addAll(consumedBy(atom));
+		}
+		store(new StoredAtom(atom));
+	}
+
+	private void store(StoredAtom atom) {
+		final Set<Long> shards = atom.getAtom().getShards();
+		for (SimulatedNode node : nodes) {
+			if (node.serves(shards)) {
+				node.store(atom);
+			}
+		}
+	}
+
+	private static List<RadixHash> consumedBy(Atom atom) {
+		if (!atom.isTransactionAtom()) {
+			return Collections.emptyList();
+		}
+		return atom.getAsTransactionAtom().getAbstractConsumables().stream()
+			.filter(AbstractConsumable::isConsumer)
+			.map(AbstractConsumable::getHash)
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * Validates and stores an atom submitted by a client
+	 */
+	Submission submit(Atom atom, Random random) {
+		if (random.nextDouble() < config.getSubmissionFailureRate()) {
+			return new Submission(AtomSubmissionState.FAILED, "Simulated failure");
+		}
+
+		try {
+			RadixAtomValidator.getInstance().validate(atom);
+		} catch (AtomValidationException e) {
+			return new Submission(AtomSubmissionState.VALIDATION_ERROR, e.getMessage());
+		}
+
+		final List<RadixHash> spends = consumedBy(atom);
+		synchronized (consumed) {
+			if (spends.stream().anyMatch(consumed::contains)) {
+				return new Submission(AtomSubmissionState.COLLISION, "Consumable already consumed");
+			}
+			consumed.addAll(spends);
+		}
+
+		store(new StoredAtom(atom));
+		return new Submission(AtomSubmissionState.STORED, null);
+	}
+
+	private static Map<String, String> parseArgs(String[] args) {
+		final Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("=")) {
+				throw new IllegalArgumentException("Expected --name=value but was " + arg);
+			}
+			options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+		}
+		return options;
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		final Map<String, String> options = parseArgs(args);
+		final SimulatorConfig config = new SimulatorConfig.SimulatorConfigBuilder()
+			.nodes(Integer.parseInt(options.getOrDefault("nodes", "1")))
+			.basePort(Integer.parseInt(options.getOrDefault("port", "8080")))
+			.latency(Long.parseLong(options.getOrDefault("latency", "0")), Long.parseLong(options.getOrDefault("jitter", "0")))
+			.dropRate(Double.parseDouble(options.getOrDefault("drop", "0")))
+			.rpcErrorRate(Double.parseDouble(options.getOrDefault("rpcErrors", "0")))
+			.submissionFailureRate(Double.parseDouble(options.getOrDefault("submitFailures", "0")))
+			.slowConsumers(
+				Long.parseLong(options.getOrDefault("maxQueuedBytes", "1048576")),
+				Long.parseLong(options.getOrDefault("slowConsumerTimeout", "0"))
+			)
+			.batchSize(Integer.parseInt(options.getOrDefault("batch", "100")))
+			.seed(Long.parseLong(options.getOrDefault("seed", "0")))
+			.build();
+
+		final NodeSimulator simulator = new NodeSimulator(
+			bundledUniverse(options.getOrDefault("universe", "testuniverse.json")),
+			config
+		);
+		simulator.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				simulator.close();
+			} catch (IOException e) {
+				// Exiting anyway
+			}
+		}));
+
+		for (SimulatedNode node : simulator.getNodes()) {
+			System.out.println("ws://" + node.getHostName() + ":" + node.getPort() + "/rpc serves shards ["
+				+ node.getLowShard() + ", " + node.getHighShard() + "]");
+		}
+		Thread.currentThread().join();
+	}
+}
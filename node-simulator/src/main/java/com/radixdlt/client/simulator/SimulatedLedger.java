@@ -0,0 +1,129 @@
+package com.radixdlt.client.simulator;
+
+import com.radixdlt.client.core.address.EUID;
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.serialization.RadixJson;
+import com.radixdlt.client.core.serialization.SerializedAtomType;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Atoms stored by a node, indexed by destination in the order clients page through them
+ */
+final class SimulatedLedger {
+	/**
+	 * An atom as stored by a node, serialized once for every client it is sent to
+	 */
+	static final class StoredAtom {
+		private final Atom atom;
+		private final String json;
+		private final long timestamp;
+		private final BigInteger hid;
+		private final long serializer;
+
+		StoredAtom(Atom atom) {
+			this.atom = atom;
+			this.json = RadixJson.getGson().toJson(atom, Atom.class);
+			this.timestamp = atom.getTimestamp();
+			this.hid = atom.getHid().bigInteger();
+			this.serializer = SerializedAtomType.valueOf(atom.getClass())
+				.orElseThrow(() -> new IllegalArgumentException("Unknown atom type " + atom.getClass()))
+				.getSerializer();
+		}
+
+		private StoredAtom(long timestamp, BigInteger hid) {
+			this.atom = null;
+			this.json = null;
+			this.timestamp = timestamp;
+			this.hid = hid;
+			this.serializer = 0;
+		}
+
+		Atom getAtom() {
+			return atom;
+		}
+
+		String getJson() {
+			return json;
+		}
+	}
+
+	private static final Comparator<StoredAtom> ORDER = Comparator
+		.<StoredAtom>comparingLong(atom -> atom.timestamp)
+		.thenComparing(atom -> atom.hid);
+
+	/**
+	 * Lowest possible hid, placing a cursor before every atom of its timestamp
+	 */
+	private static final BigInteger NO_HID = BigInteger.ONE.shiftLeft(128).negate();
+
+	private final Map<BigInteger, NavigableSet<StoredAtom>> atoms = new HashMap<>();
+	private final Map<BigInteger, StoredAtom> byHid = new HashMap<>();
+
+	/**
+	 * @param atom atom to store
+	 * @param destinations destinations to store the atom under
+	 * @return whether the atom was not already stored
+	 */
+	synchronized boolean store(StoredAtom atom, List<EUID> destinations) {
+		if (byHid.putIfAbsent(atom.hid, atom) != null) {
+			return false;
+		}
+		for (EUID destination : destinations) {
+			atoms.computeIfAbsent(destination.bigInteger(), d -> new TreeSet<>(ORDER)).add(atom);
+		}
+		return true;
+	}
+
+	synchronized StoredAtom get(BigInteger hid) {
+		return byHid.get(hid);
+	}
+
+	/**
+	 * Atoms of a destination after a cursor, in order
+	 *
+	 * @param destination destination of the atoms
+	 * @param fromTimestamp timestamp of the cursor, included unless a hid is given, null for no cursor
+	 * @param afterHid hid of the atom of the cursor, excluded, may be null
+	 * @param serializer serializer of the atoms, null for every type
+	 * @param limit maximum number of atoms, zero for no limit
+	 * @return the atoms
+	 */
+	synchronized List<StoredAtom> getAtoms(BigInteger destination, Long fromTimestamp, BigInteger afterHid, Long serializer, int limit) {
+		final NavigableSet<StoredAtom> stored = atoms.get(destination);
+		final List<StoredAtom> page = new ArrayList<>();
+		if (stored == null) {
+			return page;
+		}
+
+		final Iterable<StoredAtom> after;
+		if (fromTimestamp == null) {
+			after = stored;
+		} else if (afterHid == null) {
+			after = stored.tailSet(new StoredAtom(fromTimestamp, NO_HID), true);
+		} else {
+			after = stored.tailSet(new StoredAtom(fromTimestamp, afterHid), false);
+		}
+
+		for (StoredAtom atom : after) {
+			if (serializer != null && serializer != atom.serializer) {
+				continue;
+			}
+			page.add(atom);
+			if (page.size() == limit) {
+				break;
+			}
+		}
+		return page;
+	}
+
+	synchronized int size() {
+		return byHid.size();
+	}
+}
@@ -0,0 +1,459 @@
+package com.radixdlt.client.simulator;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.radixdlt.client.core.address.EUID;
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.network.AtomSubmissionUpdate.AtomSubmissionState;
+import com.radixdlt.client.core.serialization.RadixJson;
+import com.radixdlt.client.simulator.SimulatedLedger.StoredAtom;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A simulated Radix node serving a range of shards over a websocket. It stores the atoms
+ * of its shards, answers the JSON-RPC methods of the client and streams atoms to
+ * subscribers, injecting the latency, losses and failures of its configuration.
+ */
+public final class SimulatedNode {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SimulatedNode.class);
+
+	private final NodeSimulator simulator;
+	private final SimulatorConfig config;
+	private final int index;
+	private final long lowShard;
+	private final long highShard;
+	private final Random random;
+	private final SimulatedLedger ledger = new SimulatedLedger();
+
+	/**
+	 * Delivers messages once their latency has passed
+	 */
+	private final ScheduledExecutorService delivery = Executors.newSingleThreadScheduledExecutor();
+
+	/**
+	 * Subscriptions to the atoms of each destination, guarded by the ledger when modified
+	 */
+	private final Map<BigInteger, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+	private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+
+	private MockWebServer server;
+	private int port;
+
+	SimulatedNode(NodeSimulator simulator, SimulatorConfig config, int index, long lowShard, long highShard) {
+		this.simulator = simulator;
+		this.config = config;
+		this.index = index;
+		this.lowShard = lowShard;
+		this.highShard = highShard;
+		this.random = new Random(config.getSeed() + index);
+		this.port = config.getBasePort() == 0 ? 0 : config.getBasePort() + index;
+	}
+
+	/**
+	 * Starts accepting connections, on the same port as before if restarted
+	 */
+	public synchronized void start() throws IOException {
+		if (server != null) {
+			return;
+		}
+
+		server = new MockWebServer();
+		server.setDispatcher(new Dispatcher() {
+			@Override
+			public MockResponse dispatch(RecordedRequest request) {
+				return new MockResponse().withWebSocketUpgrade(new Connection());
+			}
+		});
+		server.start(port);
+		port = server.getPort();
+		LOGGER.info("Node {} serving shards [{}, {}] on port {}", index, lowShard, highShard, port);
+	}
+
+	/**
+	 * Crashes the node, dropping every connection without closing it. Stored atoms are kept
+	 * for when the node is started again.
+	 */
+	public synchronized void stop() throws IOException {
+		if (server == null) {
+			return;
+		}
+
+		for (Connection connection : connections) {
+			connection.close();
+		}
+		// Closes the sockets of every connection abruptly
+		server.shutdown();
+		server = null;
+	}
+
+	void shutdown() throws IOException {
+		stop();
+		delivery.shutdownNow();
+	}
+
+	public String getHostName() {
+		return "localhost";
+	}
+
+	public int getPort() {
+		return port;
+	}
+
+	public long getLowShard() {
+		return lowShard;
+	}
+
+	public long getHighShard() {
+		return highShard;
+	}
+
+	/**
+	 * @return number of atoms stored by this node
+	 */
+	public int getAtomCount() {
+		return ledger.size();
+	}
+
+	/**
+	 * @return number of clients connected to this node
+	 */
+	public int getConnectionCount() {
+		return connections.size();
+	}
+
+	boolean serves(Set<Long> shards) {
+		return shards.stream().anyMatch(shard -> shard >= lowShard && shard <= highShard);
+	}
+
+	/**
+	 * Stores an atom under its destinations served by this node, sending it to their subscribers
+	 */
+	void store(StoredAtom atom) {
+		final List<EUID> destinations = atom.getAtom().getDestinations().stream()
+			.filter(destination -> destination.getShard() >= lowShard && destination.getShard() <= highShard)
+			.collect(Collectors.toList());
+		if (destinations.isEmpty()) {
+			return;
+		}
+
+		synchronized (ledger) {
+			if (!ledger.store(atom, destinations)) {
+				return;
+			}
+			for (EUID destination : destinations) {
+				for (Subscription subscription : subscriptions.getOrDefault(destination.bigInteger(), Collections.emptyList())) {
+					subscription.connection.stream(() -> subscription.send(Collections.singletonList(atom)));
+				}
+			}
+		}
+	}
+
+	JsonObject getSelf() {
+		final JsonObject shards = new JsonObject();
+		shards.addProperty("low", lowShard);
+		shards.addProperty("high", highShard);
+		final JsonObject system = new JsonObject();
+		system.add("shards", shards);
+		final JsonObject host = new JsonObject();
+		host.addProperty("ip", getHostName());
+		final JsonObject self = new JsonObject();
+		self.add("host", host);
+		self.add("system", system);
+		return self;
+	}
+
+	private static String toJsonArray(List<StoredAtom> atoms) {
+		final StringBuilder array = new StringBuilder("[");
+		for (int i = 0; i < atoms.size(); i++) {
+			if (i > 0) {
+				array.append(',');
+			}
+			array.append(atoms.get(i).getJson());
+		}
+		return array.append(']').toString();
+	}
+
+	/**
+	 * Subscription of a client to the atoms of a destination
+	 */
+	private static final class Subscription {
+		private final Connection connection;
+		private final BigInteger destination;
+		private final String subscriberId;
+
+		private Subscription(Connection connection, BigInteger destination, String subscriberId) {
+			this.connection = connection;
+			this.destination = destination;
+			this.subscriberId = subscriberId;
+		}
+
+		private void send(List<StoredAtom> atoms) {
+			connection.send("{\"jsonrpc\":\"2.0\",\"method\":\"Atoms.subscribeUpdate\",\"params\":{\"subscriberId\":\""
+				+ subscriberId + "\",\"atoms\":" + toJsonArray(atoms) + "}}");
+		}
+	}
+
+	/**
+	 * A client connected to this node
+	 */
+	private final class Connection extends WebSocketListener {
+		private final JsonParser parser = new JsonParser();
+
+		/**
+		 * Streams atoms to the client in order, waiting for it when it falls behind
+		 */
+		private final ExecutorService streamer = Executors.newSingleThreadExecutor();
+
+		/**
+		 * Bytes waiting for their latency to pass
+		 */
+		private final AtomicLong delayedBytes = new AtomicLong();
+
+		private final Map<String, Subscription> subscribed = new ConcurrentHashMap<>();
+
+		private WebSocket webSocket;
+		private long lastDeadline;
+		private volatile boolean closed;
+
+		@Override
+		public void onOpen(WebSocket webSocket, Response response) {
+			this.webSocket = webSocket;
+			connections.add(this);
+		}
+
+		@Override
+		public void onClosing(WebSocket webSocket, int code, String reason) {
+			webSocket.close(1000, null);
+			close();
+		}
+
+		@Override
+		public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+			close();
+		}
+
+		private void close() {
+			closed = true;
+			connections.remove(this);
+			subscribed.values().forEach(this::cancel);
+			streamer.shutdownNow();
+		}
+
+		private void cancel(Subscription subscription) {
+			synchronized (ledger) {
+				subscribed.remove(subscription.subscriberId);
+				final List<Subscription> destinationSubscriptions = subscriptions.get(subscription.destination);
+				if (destinationSubscriptions != null) {
+					destinationSubscriptions.remove(subscription);
+				}
+			}
+		}
+
+		/**
+		 * Sends a message once its latency has passed, unless it is lost. Messages are
+		 * delivered in the order they were sent.
+		 */
+		private void send(String message) {
+			if (closed || random.nextDouble() < config.getDropRate()) {
+				return;
+			}
+
+			if (config.getLatencyMillis() == 0 && config.getJitterMillis() == 0) {
+				webSocket.send(message);
+				return;
+			}
+
+			final long delay;
+			synchronized (this) {
+				final long jitter = config.getJitterMillis() == 0 ? 0 : (long) (random.nextDouble() * config.getJitterMillis());
+				final long now = System.nanoTime();
+				lastDeadline = Math.max(lastDeadline, now + TimeUnit.MILLISECONDS.toNanos(config.getLatencyMillis() + jitter));
+				delay = lastDeadline - now;
+			}
+
+			delayedBytes.addAndGet(message.length());
+			delivery.schedule(() -> {
+				delayedBytes.addAndGet(-message.length());
+				if (!closed) {
+					webSocket.send(message);
+				}
+			}, delay, TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * Waits until the client has caught up with the messages queued for it, disconnecting
+		 * it if it stays behind for too long
+		 *
+		 * @return whether the client can be sent more messages
+		 */
+		private boolean awaitClient() throws InterruptedException {
+			long stalledSince = 0;
+			while (!closed && webSocket.queueSize() + delayedBytes.get() > config.getMaxQueuedBytes()) {
+				final long now = System.currentTimeMillis();
+				if (stalledSince == 0) {
+					stalledSince = now;
+				} else if (config.getSlowConsumerTimeoutMillis() > 0 && now - stalledSince > config.getSlowConsumerTimeoutMillis()) {
+					LOGGER.info("Node {} disconnecting slow consumer", index);
+					webSocket.close(1008, "Slow consumer");
+					close();
+					return false;
+				}
+				TimeUnit.MILLISECONDS.sleep(1);
+			}
+			return !closed;
+		}
+
+		private void stream(Runnable task) {
+			if (!closed) {
+				streamer.execute(task);
+			}
+		}
+
+		private void respond(JsonElement id, String result) {
+			send("{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"result\":" + result + "}");
+		}
+
+		private void error(JsonElement id, int code, String message) {
+			final JsonObject error = new JsonObject();
+			error.addProperty("code", code);
+			error.addProperty("message", message);
+			send("{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"error\":" + error + "}");
+		}
+
+		@Override
+		public void onMessage(WebSocket webSocket, String text) {
+			final JsonObject request = parser.parse(text).getAsJsonObject();
+			final JsonElement id = request.get("id");
+			final String method = request.get("method").getAsString();
+			final JsonObject params = request.has("params") ? request.getAsJsonObject("params") : new JsonObject();
+
+			if (random.nextDouble() < config.getRpcErrorRate()) {
+				error(id, -32000, "Simulated failure");
+				return;
+			}
+
+			switch (method) {
+				case "Network.getSelf":
+					respond(id, getSelf().toString());
+					break;
+				case "Network.getLivePeers":
+					respond(id, simulator.getLivePeers().toString());
+					break;
+				case "Universe.getUniverse":
+					respond(id, simulator.getUniverse().toString());
+					break;
+				case "Ledger.getAtoms":
+					getAtoms(id, params);
+					break;
+				case "Atoms.subscribe":
+					subscribe(id, params);
+					break;
+				case "Subscription.cancel":
+					final Subscription subscription = subscribed.get(params.get("subscriberId").getAsString());
+					if (subscription != null) {
+						cancel(subscription);
+					}
+					respond(id, "{\"success\":true}");
+					break;
+				case "Universe.submitAtomAndSubscribe":
+					submit(id, params);
+					break;
+				default:
+					error(id, -32601, "Method not found: " + method);
+			}
+		}
+
+		private List<StoredAtom> query(JsonObject query, int limit) {
+			return ledger.getAtoms(
+				query.get("destination").getAsBigInteger(),
+				query.has("fromTimestamp") ? query.get("fromTimestamp").getAsLong() : null,
+				query.has("afterHid") ? query.get("afterHid").getAsBigInteger() : null,
+				query.has("atomSerializer") ? query.get("atomSerializer").getAsLong() : null,
+				limit
+			);
+		}
+
+		private void getAtoms(JsonElement id, JsonObject params) {
+			if (params.has("hid")) {
+				final StoredAtom atom = ledger.get(params.get("hid").getAsBigInteger());
+				respond(id, toJsonArray(atom == null ? Collections.emptyList() : Collections.singletonList(atom)));
+				return;
+			}
+
+			final JsonObject query = params.getAsJsonObject("query");
+			respond(id, toJsonArray(query(query, query.has("limit") ? query.get("limit").getAsInt() : 0)));
+		}
+
+		private void subscribe(JsonElement id, JsonObject params) {
+			final JsonObject query = params.getAsJsonObject("query");
+			final Subscription subscription = new Subscription(
+				this,
+				query.get("destination").getAsBigInteger(),
+				params.get("subscriberId").getAsString()
+			);
+			respond(id, "{\"success\":true}");
+
+			// Registered along with reading the history so no atom falls in between
+			synchronized (ledger) {
+				final List<StoredAtom> history = query(query, 0);
+				subscribed.put(subscription.subscriberId, subscription);
+				subscriptions.computeIfAbsent(subscription.destination, d -> new CopyOnWriteArrayList<>()).add(subscription);
+				stream(() -> {
+					try {
+						for (int i = 0; i < history.size(); i += config.getBatchSize()) {
+							if (!awaitClient()) {
+								return;
+							}
+							subscription.send(history.subList(i, Math.min(i + config.getBatchSize(), history.size())));
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			}
+		}
+
+		private void submit(JsonElement id, JsonObject params) {
+			final String subscriberId = params.get("subscriberId").getAsString();
+			final Atom atom = RadixJson.getGson().fromJson(params.get("atom"), Atom.class);
+			respond(id, "{\"success\":true}");
+
+			final JsonObject update = new JsonObject();
+			update.addProperty("subscriberId", subscriberId);
+			if (!serves(atom.getRequiredFirstShard())) {
+				update.addProperty("value", AtomSubmissionState.UNSUITABLE_PEER.name());
+			} else {
+				final NodeSimulator.Submission submission = simulator.submit(atom, random);
+				update.addProperty("value", submission.getState().name());
+				if (submission.getMessage() != null) {
+					update.addProperty("message", submission.getMessage());
+				}
+			}
+			send("{\"jsonrpc\":\"2.0\",\"method\":\"AtomSubmissionState.onNext\",\"params\":" + update + "}");
+		}
+	}
+}
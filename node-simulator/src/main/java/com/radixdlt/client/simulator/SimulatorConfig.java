@@ -0,0 +1,188 @@
+package com.radixdlt.client.simulator;
+
+/**
+ * Shape of a simulated network and the faults it injects. Randomness is drawn from a
+ * seeded generator so that runs with the same configuration are reproducible.
+ */
+public final class SimulatorConfig {
+	public static class SimulatorConfigBuilder {
+		private int nodes = 1;
+		private int basePort = 0;
+		private long latencyMillis = 0;
+		private long jitterMillis = 0;
+		private double dropRate = 0;
+		private double rpcErrorRate = 0;
+		private double submissionFailureRate = 0;
+		private long maxQueuedBytes = 1024 * 1024;
+		private long slowConsumerTimeoutMillis = 0;
+		private int batchSize = 100;
+		private long seed = 0;
+
+		public SimulatorConfigBuilder() {
+		}
+
+		/**
+		 * @param nodes number of nodes, the shard space being split evenly between them
+		 */
+		public SimulatorConfigBuilder nodes(int nodes) {
+			this.nodes = nodes;
+			return this;
+		}
+
+		/**
+		 * @param basePort port of the first node, the others following it, zero for any free ports
+		 */
+		public SimulatorConfigBuilder basePort(int basePort) {
+			this.basePort = basePort;
+			return this;
+		}
+
+		/**
+		 * @param latencyMillis delay of every message sent by a node
+		 * @param jitterMillis maximum random delay added to the latency
+		 */
+		public SimulatorConfigBuilder latency(long latencyMillis, long jitterMillis) {
+			this.latencyMillis = latencyMillis;
+			this.jitterMillis = jitterMillis;
+			return this;
+		}
+
+		/**
+		 * @param dropRate probability of a message sent by a node being lost
+		 */
+		public SimulatorConfigBuilder dropRate(double dropRate) {
+			this.dropRate = dropRate;
+			return this;
+		}
+
+		/**
+		 * @param rpcErrorRate probability of a method call being answered with an error
+		 */
+		public SimulatorConfigBuilder rpcErrorRate(double rpcErrorRate) {
+			this.rpcErrorRate = rpcErrorRate;
+			return this;
+		}
+
+		/**
+		 * @param submissionFailureRate probability of a valid atom submission failing
+		 */
+		public SimulatorConfigBuilder submissionFailureRate(double submissionFailureRate) {
+			this.submissionFailureRate = submissionFailureRate;
+			return this;
+		}
+
+		/**
+		 * @param maxQueuedBytes bytes queued for a client above which a node stops streaming to it
+		 * @param slowConsumerTimeoutMillis time a client may stay above the limit before a node
+		 * disconnects it, zero to never disconnect
+		 */
+		public SimulatorConfigBuilder slowConsumers(long maxQueuedBytes, long slowConsumerTimeoutMillis) {
+			this.maxQueuedBytes = maxQueuedBytes;
+			this.slowConsumerTimeoutMillis = slowConsumerTimeoutMillis;
+			return this;
+		}
+
+		/**
+		 * @param batchSize number of atoms per subscription update
+		 */
+		public SimulatorConfigBuilder batchSize(int batchSize) {
+			this.batchSize = batchSize;
+			return this;
+		}
+
+		public SimulatorConfigBuilder seed(long seed) {
+			this.seed = seed;
+			return this;
+		}
+
+		public SimulatorConfig build() {
+			if (nodes < 1) {
+				throw new IllegalArgumentException("nodes must be positive but was " + nodes);
+			}
+			if (batchSize < 1) {
+				throw new IllegalArgumentException("batchSize must be positive but was " + batchSize);
+			}
+			checkRate("dropRate", dropRate);
+			checkRate("rpcErrorRate", rpcErrorRate);
+			checkRate("submissionFailureRate", submissionFailureRate);
+
+			return new SimulatorConfig(this);
+		}
+
+		private static void checkRate(String name, double rate) {
+			if (rate < 0 || rate > 1) {
+				throw new IllegalArgumentException(name + " must be between 0 and 1 but was " + rate);
+			}
+		}
+	}
+
+	private final int nodes;
+	private final int basePort;
+	private final long latencyMillis;
+	private final long jitterMillis;
+	private final double dropRate;
+	private final double rpcErrorRate;
+	private final double submissionFailureRate;
+	private final long maxQueuedBytes;
+	private final long slowConsumerTimeoutMillis;
+	private final int batchSize;
+	private final long seed;
+
+	private SimulatorConfig(SimulatorConfigBuilder builder) {
+		this.nodes = builder.nodes;
+		this.basePort = builder.basePort;
+		this.latencyMillis = builder.latencyMillis;
+		this.jitterMillis = builder.jitterMillis;
+		this.dropRate = builder.dropRate;
+		this.rpcErrorRate = builder.rpcErrorRate;
+		this.submissionFailureRate = builder.submissionFailureRate;
+		this.maxQueuedBytes = builder.maxQueuedBytes;
+		this.slowConsumerTimeoutMillis = builder.slowConsumerTimeoutMillis;
+		this.batchSize = builder.batchSize;
+		this.seed = builder.seed;
+	}
+
+	public int getNodes() {
+		return nodes;
+	}
+
+	public int getBasePort() {
+		return basePort;
+	}
+
+	public long getLatencyMillis() {
+		return latencyMillis;
+	}
+
+	public long getJitterMillis() {
+		return jitterMillis;
+	}
+
+	public double getDropRate() {
+		return dropRate;
+	}
+
+	public double getRpcErrorRate() {
+		return rpcErrorRate;
+	}
+
+	public double getSubmissionFailureRate() {
+		return submissionFailureRate;
+	}
+
+	public long getMaxQueuedBytes() {
+		return maxQueuedBytes;
+	}
+
+	public long getSlowConsumerTimeoutMillis() {
+		return slowConsumerTimeoutMillis;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+}
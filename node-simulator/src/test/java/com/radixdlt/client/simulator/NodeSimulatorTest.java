@@ -0,0 +1,87 @@
+package com.radixdlt.client.simulator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.radixdlt.client.assets.Asset;
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.atoms.AtomBuilder;
+import com.radixdlt.client.core.atoms.Consumable;
+import com.radixdlt.client.core.atoms.TransactionAtom;
+import com.radixdlt.client.core.atoms.UnsignedAtom;
+import com.radixdlt.client.core.crypto.ECKeyPair;
+import com.radixdlt.client.core.crypto.ECKeyPairGenerator;
+import com.radixdlt.client.core.network.AtomSubmissionUpdate.AtomSubmissionState;
+import com.radixdlt.client.simulator.SimulatedLedger.StoredAtom;
+import com.radixdlt.client.simulator.SimulatorConfig.SimulatorConfigBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class NodeSimulatorTest {
+	private final ECKeyPair key = ECKeyPairGenerator.newInstance().generateKeyPair();
+	private final NodeSimulator simulator = new NodeSimulator(
+		NodeSimulator.bundledUniverse("testuniverse.json"),
+		new SimulatorConfigBuilder().nodes(4).build()
+	);
+
+	private UnsignedAtom spend(Consumable input, long nonce) {
+		return new AtomBuilder()
+			.type(TransactionAtom.class)
+			.addParticle(input.toConsumer())
+			.addParticle(new Consumable(input.getQuantity(), key, nonce, Asset.TEST.getId()))
+			.build();
+	}
+
+	private Atom sign(UnsignedAtom unsignedAtom) {
+		return unsignedAtom.sign(key.sign(unsignedAtom.getHash().toByteArray()), key.getUID());
+	}
+
+	@Test
+	public void shardSpaceSplitEvenly() {
+		List<SimulatedNode> nodes = simulator.getNodes();
+		assertThat(nodes.get(0).getLowShard()).isEqualTo(Long.MIN_VALUE);
+		assertThat(nodes.get(3).getHighShard()).isEqualTo(Long.MAX_VALUE);
+		for (int i = 1; i < nodes.size(); i++) {
+			assertThat(nodes.get(i).getLowShard()).isEqualTo(nodes.get(i - 1).getHighShard() + 1);
+		}
+		assertThat(nodes.get(2).getLowShard()).isEqualTo(0);
+	}
+
+	@Test
+	public void doubleSpendCollides() {
+		Consumable input = new Consumable(10, key, 1, Asset.TEST.getId());
+		Random random = new Random(0);
+
+		assertThat(simulator.submit(sign(spend(input, 2)), random).getState()).isEqualTo(AtomSubmissionState.STORED);
+		assertThat(simulator.submit(sign(spend(input, 3)), random).getState()).isEqualTo(AtomSubmissionState.COLLISION);
+		assertThat(simulator.getNodes().stream().mapToInt(SimulatedNode::getAtomCount).sum()).isEqualTo(1);
+	}
+
+	@Test
+	public void unsignedAtomFailsValidation() {
+		Atom unsigned = spend(new Consumable(10, key, 1, Asset.TEST.getId()), 2).getRawAtom();
+
+		assertThat(simulator.submit(unsigned, new Random(0)).getState()).isEqualTo(AtomSubmissionState.VALIDATION_ERROR);
+	}
+
+	@Test
+	public void ledgerPagesAfterCursor() {
+		SimulatedLedger ledger = new SimulatedLedger();
+		List<StoredAtom> atoms = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			StoredAtom atom = new StoredAtom(sign(spend(new Consumable(10, key, i, Asset.TEST.getId()), 100 + i)));
+			ledger.store(atom, new ArrayList<>(atom.getAtom().getDestinations()));
+			atoms.add(atom);
+		}
+		atoms.sort((a, b) -> {
+			int byTimestamp = a.getAtom().getTimestamp().compareTo(b.getAtom().getTimestamp());
+			return byTimestamp != 0 ? byTimestamp : a.getAtom().getHid().bigInteger().compareTo(b.getAtom().getHid().bigInteger());
+		});
+
+		Atom first = atoms.get(0).getAtom();
+		assertThat(ledger.getAtoms(key.getUID().bigInteger(), null, null, null, 2)).containsExactly(atoms.get(0), atoms.get(1));
+		assertThat(ledger.getAtoms(key.getUID().bigInteger(), first.getTimestamp(), first.getHid().bigInteger(), null, 0))
+			.containsExactly(atoms.get(1), atoms.get(2));
+	}
+}
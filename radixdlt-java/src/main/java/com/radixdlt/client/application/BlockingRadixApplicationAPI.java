@@ -0,0 +1,156 @@
+package com.radixdlt.client.application;
+
+import com.radixdlt.client.application.objects.Data;
+import com.radixdlt.client.assets.Amount;
+import com.radixdlt.client.assets.Asset;
+import com.radixdlt.client.core.RadixSchedulers;
+import com.radixdlt.client.core.address.EUID;
+import com.radixdlt.client.core.address.RadixAddress;
+import com.radixdlt.client.core.atoms.Atom;
+import io.reactivex.Single;
+import io.reactivex.annotations.Nullable;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Synchronous facade of the {@link RadixApplicationAPI} for thread per request applications,
+ * e.g. running each request on a virtual thread. The calling thread parks until the result is
+ * in, without holding a monitor, while the work itself runs on the non blocking internals of
+ * the library. Every call is bounded by a timeout and releases everything it subscribed to
+ * when it returns, whether it succeeded, failed, timed out or was interrupted.
+ * <p>
+ * Calls must not be made from threads running work of the library, e.g. from within a
+ * callback of the {@link RadixApplicationAPI}, as blocking them could stall the very work
+ * being waited for. Such calls fail straight away, see {@link RadixSchedulers#isNonBlocking()}.
+ */
+public class BlockingRadixApplicationAPI {
+	/**
+	 * Default time a call waits for its result
+	 */
+	public static final long DEFAULT_TIMEOUT_MILLIS = 60_000;
+
+	private final RadixApplicationAPI api;
+	private final long timeoutMillis;
+
+	public BlockingRadixApplicationAPI(RadixApplicationAPI api) {
+		this(api, DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @param api api to run calls with
+	 * @param timeout time a call waits for its result
+	 * @param unit unit of the timeout
+	 */
+	public BlockingRadixApplicationAPI(RadixApplicationAPI api, long timeout, TimeUnit unit) {
+		if (timeout <= 0) {
+			throw new IllegalArgumentException("timeout must be positive but was " + timeout);
+		}
+
+		this.api = Objects.requireNonNull(api);
+		this.timeoutMillis = unit.toMillis(timeout);
+	}
+
+	/**
+	 * @return the asynchronous api calls are run with
+	 */
+	public RadixApplicationAPI getAsync() {
+		return api;
+	}
+
+	public RadixAddress getMyAddress() {
+		return api.getMyAddress();
+	}
+
+	/**
+	 * Waits for the result of a single, failing with the error of the single as is if unchecked.
+	 * Waits with RxJava's own blocking operator so that its threads are refused as well once
+	 * {@link io.reactivex.plugins.RxJavaPlugins#setFailOnNonBlockingScheduler(boolean)} is set.
+	 */
+	private <T> T await(Single<T> single) throws InterruptedException, TimeoutException {
+		if (RadixSchedulers.isNonBlocking()) {
+			throw new IllegalStateException("Blocking call on " + Thread.currentThread().getName() + " would stall the Radix client");
+		}
+
+		try {
+			return single.timeout(timeoutMillis, TimeUnit.MILLISECONDS).blockingGet();
+		} catch (RuntimeException e) {
+			// Checked exceptions are wrapped by the blocking operator
+			if (e.getCause() instanceof InterruptedException) {
+				throw (InterruptedException) e.getCause();
+			} else if (e.getCause() instanceof TimeoutException) {
+				throw (TimeoutException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private void await(RadixApplicationAPI.Result result) throws InterruptedException, TimeoutException {
+		await(result.toCompletable().toSingleDefault(Boolean.TRUE));
+	}
+
+	/**
+	 * Sends an amount of a token to an address, returning once the transaction is stored
+	 *
+	 * @param to the address to send tokens to
+	 * @param amount the amount and token type
+	 * @throws RuntimeException if the transaction could not be stored
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws TimeoutException if the transaction was not stored in time
+	 */
+	public void sendTokens(RadixAddress to, Amount amount) throws InterruptedException, TimeoutException {
+		await(api.sendTokens(to, amount));
+	}
+
+	public void sendTokens(RadixAddress to, Amount amount, @Nullable Data attachment) throws InterruptedException, TimeoutException {
+		await(api.sendTokens(to, amount, attachment));
+	}
+
+	/**
+	 * Stores data in the account of this api, returning once it is stored
+	 *
+	 * @param data data to store
+	 * @throws RuntimeException if the data could not be stored
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws TimeoutException if the data was not stored in time
+	 */
+	public void storeData(Data data) throws InterruptedException, TimeoutException {
+		await(api.storeData(data));
+	}
+
+	public void storeData(Data data, RadixAddress address) throws InterruptedException, TimeoutException {
+		await(api.storeData(data, address));
+	}
+
+	public Amount getMyBalance(Asset tokenClass) throws InterruptedException, TimeoutException {
+		return getBalance(api.getMyAddress(), tokenClass);
+	}
+
+	/**
+	 * Balance of an address as currently known to this client, the same balance a transfer
+	 * from the address would be built from
+	 *
+	 * @param address address to get the balance of
+	 * @param tokenClass token to get the balance of
+	 * @return the balance
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws TimeoutException if the balance was not known in time
+	 */
+	public Amount getBalance(RadixAddress address, Asset tokenClass) throws InterruptedException, TimeoutException {
+		return await(api.getBalance(address, tokenClass).firstOrError());
+	}
+
+	/**
+	 * Fetches an atom stored under an address from the network
+	 *
+	 * @param address address the atom is stored under
+	 * @param hid hash id of the atom
+	 * @return the atom, empty if no such valid atom is stored under the address
+	 * @throws InterruptedException if interrupted while waiting
+	 * @throws TimeoutException if the node did not answer in time
+	 */
+	public Optional<Atom> getAtom(RadixAddress address, EUID hid) throws InterruptedException, TimeoutException {
+		return await(api.getAtom(address, hid).map(Optional::of).toSingle(Optional.empty()));
+	}
+}
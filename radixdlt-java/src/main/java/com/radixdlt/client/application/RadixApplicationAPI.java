@@ -6,14 +6,15 @@ import com.radixdlt.client.application.actions.UniqueProperty;
 import com.radixdlt.client.application.objects.Data;
 import com.radixdlt.client.application.objects.TokenTransfer;
 import com.radixdlt.client.application.objects.UnencryptedData;
-import com.radixdlt.client.application.translate.AddressTokenState;
 import com.radixdlt.client.application.translate.DataStoreTranslator;
 import com.radixdlt.client.application.translate.TokenTransferTranslator;
 import com.radixdlt.client.application.translate.UniquePropertyTranslator;
 import com.radixdlt.client.assets.Amount;
 import com.radixdlt.client.assets.Asset;
+import com.radixdlt.client.core.RadixSchedulers;
 import com.radixdlt.client.core.RadixUniverse;
 import com.radixdlt.client.core.RadixUniverse.Ledger;
+import com.radixdlt.client.core.address.EUID;
 import com.radixdlt.client.core.address.RadixAddress;
 import com.radixdlt.client.core.atoms.Atom;
 import com.radixdlt.client.core.atoms.AtomBuilder;
@@ -22,8 +23,9 @@ import com.radixdlt.client.core.atoms.UnsignedAtom;
 import com.radixdlt.client.core.crypto.ECPublicKey;
 import com.radixdlt.client.core.network.AtomSubmissionUpdate;
 import com.radixdlt.client.core.network.AtomSubmissionUpdate.AtomSubmissionState;
-import com.radixdlt.client.application.translate.TransactionAtoms;
+import com.radixdlt.client.core.tracing.NoopTracer;
 import io.reactivex.Completable;
+import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.reactivex.annotations.Nullable;
@@ -43,9 +45,9 @@ public class RadixApplicationAPI {
 		private final Completable completable;
 
 		private Result(Observable<AtomSubmissionUpdate> updates) {
-			this.updates = updates;
+			this.updates = updates.observeOn(RadixSchedulers.callbacks());
 
-			this.completable = updates.filter(AtomSubmissionUpdate::isComplete)
+			this.completable = this.updates.filter(AtomSubmissionUpdate::isComplete)
 				.firstOrError()
 				.flatMapCompletable(update -> {
 					if (update.getState() == AtomSubmissionState.STORED) {
@@ -67,6 +69,7 @@ public class RadixApplicationAPI {
 
 	private final RadixIdentity identity;
 	private final RadixUniverse universe;
+	private final RadixAddress myAddress;
 
 	// TODO: Translators from application to particles
 	private final DataStoreTranslator dataStoreTranslator;
@@ -87,6 +90,7 @@ public class RadixApplicationAPI {
 	) {
 		this.identity = identity;
 		this.universe = universe;
+		this.myAddress = universe.getAddressFrom(identity.getPublicKey());
 		this.dataStoreTranslator = dataStoreTranslator;
 		this.tokenTransferTranslator = new TokenTransferTranslator(universe, ledger.getParticleStore());
 		this.uniquePropertyTranslator = new UniquePropertyTranslator();
@@ -111,6 +115,15 @@ public class RadixApplicationAPI {
 		return new RadixApplicationAPI(identity, universe, dataStoreTranslator, atomBuilderSupplier, universe.getLedger());
 	}
 
+	/**
+	 * Pulls atoms of an address for as long as an observable is subscribed to, observing
+	 * it on the callbacks scheduler
+	 */
+	private <T> Observable<T> whilePulling(RadixAddress address, Observable<T> observable) {
+		return Observable.using(() -> pull(address), pull -> observable, Disposable::dispose)
+			.observeOn(RadixSchedulers.callbacks());
+	}
+
 	/**
 	 * Idempotent method which prefetches atoms in user's account
 	 * TODO: what to do when no puller available
@@ -148,18 +161,30 @@ public class RadixApplicationAPI {
 	}
 
 	public RadixAddress getMyAddress() {
-		return universe.getAddressFrom(identity.getPublicKey());
+		return myAddress;
 	}
 
-	public Observable<Data> getData(RadixAddress address) {
+	/**
+	 * Fetches an atom stored under an address from the network
+	 *
+	 * @param address address the atom is stored under
+	 * @param hid hash id of the atom
+	 * @return the atom, empty if no such valid atom is stored under the address
+	 */
+	public Maybe<Atom> getAtom(RadixAddress address, EUID hid) {
 		Objects.requireNonNull(address);
+		Objects.requireNonNull(hid);
+
+		return ledger.getAtomFetcher().fetchAtom(address, hid).observeOn(RadixSchedulers.callbacks());
+	}
 
-		pull(address);
+	public Observable<Data> getData(RadixAddress address) {
+		Objects.requireNonNull(address);
 
-		return ledger.getAtomStore().getAtoms(address)
+		return whilePulling(address, ledger.getAtomStore().getAtoms(address)
 			.filter(Atom::isMessageAtom)
 			.map(Atom::getAsMessageAtom)
-			.map(dataStoreTranslator::fromAtom);
+			.map(dataStoreTranslator::fromAtom));
 	}
 
 	public Observable<UnencryptedData> getReadableData(RadixAddress address) {
@@ -174,11 +199,17 @@ public class RadixApplicationAPI {
 	public Result storeData(Data data, RadixAddress address) {
 		StoreDataAction storeDataAction = new StoreDataAction(data, address);
 
+		final SubmissionTrace trace = new SubmissionTrace("storeData");
 		AtomBuilder atomBuilder = atomBuilderSupplier.get();
-		ConnectableObservable<AtomSubmissionUpdate> updates = dataStoreTranslator.translate(storeDataAction, atomBuilder)
-			.andThen(Single.fromCallable(() -> atomBuilder.buildWithPOWFee(universe.getMagic(), address.getPublicKey())))
-			.flatMap(identity::sign)
-			.flatMapObservable(ledger.getAtomSubmitter()::submitAtom)
+		ConnectableObservable<AtomSubmissionUpdate> updates = trace
+			.trace("translate", dataStoreTranslator.translate(storeDataAction, atomBuilder))
+			.andThen(Single.fromCallable(
+				() -> trace.trace("build", () -> atomBuilder.buildWithPOWFee(universe.getMagic(), address.getPublicKey())))
+				.subscribeOn(RadixSchedulers.computation())
+			)
+			.flatMap(unsignedAtom -> sign(unsignedAtom, trace))
+			.flatMapObservable(atom -> trace.submit(atom, ledger.getAtomSubmitter()))
+			.compose(trace::finish)
 			.replay();
 
 		updates.connect();
@@ -189,11 +220,17 @@ public class RadixApplicationAPI {
 	public Result storeData(Data data, RadixAddress address0, RadixAddress address1) {
 		StoreDataAction storeDataAction = new StoreDataAction(data, address0, address1);
 
+		final SubmissionTrace trace = new SubmissionTrace("storeData");
 		AtomBuilder atomBuilder = atomBuilderSupplier.get();
-		ConnectableObservable<AtomSubmissionUpdate> updates = dataStoreTranslator.translate(storeDataAction, atomBuilder)
-			.andThen(Single.fromCallable(() -> atomBuilder.buildWithPOWFee(universe.getMagic(), address0.getPublicKey())))
-			.flatMap(identity::sign)
-			.flatMapObservable(ledger.getAtomSubmitter()::submitAtom)
+		ConnectableObservable<AtomSubmissionUpdate> updates = trace
+			.trace("translate", dataStoreTranslator.translate(storeDataAction, atomBuilder))
+			.andThen(Single.fromCallable(
+				() -> trace.trace("build", () -> atomBuilder.buildWithPOWFee(universe.getMagic(), address0.getPublicKey())))
+				.subscribeOn(RadixSchedulers.computation())
+			)
+			.flatMap(unsignedAtom -> sign(unsignedAtom, trace))
+			.flatMapObservable(atom -> trace.submit(atom, ledger.getAtomSubmitter()))
+			.compose(trace::finish)
 			.replay();
 
 		updates.connect();
@@ -209,19 +246,12 @@ public class RadixApplicationAPI {
 		Objects.requireNonNull(address);
 		Objects.requireNonNull(tokenClass);
 
-		pull(address);
-
-		return Observable.combineLatest(
-			Observable.fromCallable(() -> new TransactionAtoms(address, tokenClass.getId())),
-			ledger.getAtomStore().getAtoms(address)
-				.filter(Atom::isTransactionAtom)
-				.map(Atom::getAsTransactionAtom),
-			(transactionAtoms, atom) ->
-				transactionAtoms.accept(atom)
-					.getNewValidTransactions()
-		)
-		.flatMap(atoms -> atoms)
-		.flatMapSingle(atom -> tokenTransferTranslator.fromAtom(atom, identity));
+		// The atom store has already validated transactions of every asset once for all subscribers
+		return whilePulling(address, ledger.getAtomStore().getAtoms(address)
+			.filter(Atom::isTransactionAtom)
+			.map(Atom::getAsTransactionAtom)
+			.filter(atom -> atom.getAbstractConsumables().stream().anyMatch(p -> p.getAssetId().equals(tokenClass.getId())))
+			.flatMapSingle(atom -> tokenTransferTranslator.fromAtom(atom, tokenClass, identity)));
 	}
 
 	public Observable<Amount> getMyBalance(Asset tokenClass) {
@@ -232,9 +262,7 @@ public class RadixApplicationAPI {
 		Objects.requireNonNull(address);
 		Objects.requireNonNull(tokenClass);
 
-		pull(address);
-
-		return tokenTransferTranslator.getTokenState(address).map(AddressTokenState::getBalance);
+		return whilePulling(address, tokenTransferTranslator.getTokenState(address).map(state -> state.getBalance(tokenClass)));
 	}
 
 	/**
@@ -313,24 +341,55 @@ public class RadixApplicationAPI {
 	}
 
 	public Single<UnsignedAtom> mapToAtom(TransferTokensAction transferTokensAction, UniqueProperty uniqueProperty) {
-		pull();
+		return mapToAtom(transferTokensAction, uniqueProperty, new SubmissionTrace(NoopTracer.getInstance(), "mapToAtom"));
+	}
 
+	private Single<UnsignedAtom> mapToAtom(
+		TransferTokensAction transferTokensAction,
+		UniqueProperty uniqueProperty,
+		SubmissionTrace trace
+	) {
 		AtomBuilder atomBuilder = atomBuilderSupplier.get();
 
-		return uniquePropertyTranslator.translate(uniqueProperty, atomBuilder)
-			.andThen(tokenTransferTranslator.translate(transferTokensAction, atomBuilder))
-			.andThen(Single.fromCallable(
-				() -> atomBuilder.buildWithPOWFee(universe.getMagic(), transferTokensAction.getFrom().getPublicKey()))
-			);
+		return Single.using(
+			this::pull,
+			pull -> trace.trace("translate", uniquePropertyTranslator.translate(uniqueProperty, atomBuilder)
+					.andThen(tokenTransferTranslator.translate(transferTokensAction, atomBuilder)))
+				.andThen(Single.fromCallable(() -> trace.trace("build",
+					() -> atomBuilder.buildWithPOWFee(universe.getMagic(), transferTokensAction.getFrom().getPublicKey())))
+					.subscribeOn(RadixSchedulers.computation())
+				)
+				// Inputs reserved for an atom which won't be built may be spent by the next transfer
+				.doOnError(e -> tokenTransferTranslator.release(transferTokensAction.getFrom(), atomBuilder)),
+			Disposable::dispose
+		);
+	}
+
+	/**
+	 * Signs an atom on the computation scheduler
+	 */
+	private Single<Atom> sign(UnsignedAtom unsignedAtom, SubmissionTrace trace) {
+		return trace.trace("sign", identity.sign(unsignedAtom).subscribeOn(RadixSchedulers.computation()));
 	}
 
 	// TODO: make this more generic
 	private Result executeTransaction(TransferTokensAction transferTokensAction, @Nullable UniqueProperty uniqueProperty) {
 		Objects.requireNonNull(transferTokensAction);
 
-		ConnectableObservable<AtomSubmissionUpdate> updates = this.mapToAtom(transferTokensAction, uniqueProperty)
-			.flatMap(identity::sign)
-			.flatMapObservable(ledger.getAtomSubmitter()::submitAtom)
+		final RadixAddress from = transferTokensAction.getFrom();
+		final SubmissionTrace trace = new SubmissionTrace("transfer");
+		ConnectableObservable<AtomSubmissionUpdate> updates = this.mapToAtom(transferTokensAction, uniqueProperty, trace)
+			.flatMapObservable(unsignedAtom -> sign(unsignedAtom, trace)
+				.flatMapObservable(atom -> trace.submit(atom, ledger.getAtomSubmitter()))
+				// Inputs of a transfer which won't be stored may be spent by the next one
+				.doOnNext(update -> {
+					if (update.isComplete() && update.getState() != AtomSubmissionState.STORED) {
+						tokenTransferTranslator.release(from, unsignedAtom.getRawAtom());
+					}
+				})
+				.doOnError(e -> tokenTransferTranslator.release(from, unsignedAtom.getRawAtom()))
+			)
+			.compose(trace::finish)
 			.replay();
 
 		updates.connect();
@@ -0,0 +1,145 @@
+package com.radixdlt.client.application;
+
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.ledger.AtomSubmitter;
+import com.radixdlt.client.core.network.AtomSubmissionUpdate;
+import com.radixdlt.client.core.network.AtomSubmissionUpdate.AtomSubmissionState;
+import com.radixdlt.client.core.tracing.Span;
+import com.radixdlt.client.core.tracing.Tracer;
+import com.radixdlt.client.core.tracing.Tracing;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import java.util.function.Supplier;
+
+/**
+ * Trace of an atom submission, from translating actions into particles to the node storing
+ * the atom. Every stage is a span of the trace: translate, build (with proof of work nested),
+ * sign, select-node until the atom is being submitted, submit until the node accepted it and
+ * node-state for every state the node reports after that.
+ */
+final class SubmissionTrace {
+	private final Tracer tracer;
+
+	private final Span root;
+
+	/**
+	 * Stage waiting for the next submission update, guarded by this
+	 */
+	private Span awaiting;
+
+	SubmissionTrace(String operation) {
+		this(Tracing.getTracer(), operation);
+	}
+
+	SubmissionTrace(Tracer tracer, String operation) {
+		this.tracer = tracer;
+		this.root = tracer.startSpan("submission", null).setAttribute("operation", operation);
+	}
+
+	private Span stage(String name) {
+		return tracer.startSpan(name, root);
+	}
+
+	/**
+	 * Ends a stage before its outcome is passed on, so that it does not include the stages
+	 * following it synchronously
+	 */
+	private static void end(Span span, Throwable error) {
+		if (error != null) {
+			span.recordError(error);
+		}
+		span.end();
+	}
+
+	Completable trace(String name, Completable completable) {
+		return Completable.defer(() -> {
+			final Span span = stage(name);
+			return completable
+				.doOnEvent(error -> end(span, error))
+				.doOnDispose(span::end);
+		});
+	}
+
+	<T> Single<T> trace(String name, Single<T> single) {
+		return Single.defer(() -> {
+			final Span span = stage(name);
+			return single
+				.doOnEvent((result, error) -> end(span, error))
+				.doOnDispose(span::end);
+		});
+	}
+
+	/**
+	 * Runs a synchronous stage with its span current so that operations nested in it, such
+	 * as proof of work, show as its children
+	 */
+	<T> T trace(String name, Supplier<T> operation) {
+		final Span span = stage(name);
+		try {
+			return Tracing.withSpan(span, operation);
+		} catch (RuntimeException e) {
+			span.recordError(e);
+			throw e;
+		} finally {
+			span.end();
+		}
+	}
+
+	private synchronized void await(String name) {
+		awaiting = name == null ? null : stage(name);
+	}
+
+	private synchronized void endAwaiting(AtomSubmissionUpdate update, Throwable error) {
+		if (awaiting == null) {
+			return;
+		}
+
+		if (update != null) {
+			awaiting.setAttribute("state", update.getState().name());
+			if (update.getMessage() != null) {
+				awaiting.setAttribute("message", update.getMessage());
+			}
+		}
+		if (error != null) {
+			awaiting.recordError(error);
+		}
+		awaiting.end();
+		awaiting = null;
+	}
+
+	private void onUpdate(AtomSubmissionUpdate update) {
+		endAwaiting(update, null);
+		if (update.isComplete()) {
+			root.setAttribute("state", update.getState().name());
+		} else {
+			await(update.getState() == AtomSubmissionState.SUBMITTING ? "submit" : "node-state");
+		}
+	}
+
+	/**
+	 * Submits a signed atom, tracing its states
+	 */
+	Observable<AtomSubmissionUpdate> submit(Atom atom, AtomSubmitter submitter) {
+		return Observable.defer(() -> {
+			root.setAttribute("atom.hid", String.valueOf(atom.getHid()));
+			await("select-node");
+			return submitter.submitAtom(atom).doOnNext(this::onUpdate);
+		});
+	}
+
+	/**
+	 * Ends the trace once a submission is over
+	 */
+	Observable<AtomSubmissionUpdate> finish(Observable<AtomSubmissionUpdate> updates) {
+		return updates
+			.doOnError(e -> {
+				endAwaiting(null, e);
+				root.recordError(e);
+			})
+			.doFinally(() -> {
+				endAwaiting(null, null);
+				root.end();
+			});
+	}
+}
@@ -1,7 +1,6 @@
 package com.radixdlt.client.application.translate;
 
-import com.radixdlt.client.assets.Amount;
-import com.radixdlt.client.assets.Asset;
+import com.radixdlt.client.core.address.EUID;
 import com.radixdlt.client.core.address.RadixAddress;
 import com.radixdlt.client.core.atoms.AbstractConsumable;
 import com.radixdlt.client.core.atoms.AtomFeeConsumable;
@@ -9,35 +8,157 @@ import com.radixdlt.client.core.atoms.Consumable;
 import com.radixdlt.client.core.atoms.RadixHash;
 import com.radixdlt.client.core.ledger.ParticleStore;
 import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 public class AddressTokenReducer {
 
+	/**
+	 * Default time over which particle updates are coalesced into a single state
+	 */
+	public static final long DEFAULT_WINDOW_MILLIS = 100;
+
+	/**
+	 * Default time without new particles after which the history of an address is taken
+	 * to have arrived and its first state is emitted
+	 */
+	public static final long DEFAULT_SETTLE_MILLIS = 1000;
+
+	/**
+	 * Default time the state keeps being reduced after its last subscriber is gone
+	 */
+	public static final long DEFAULT_GRACE_MILLIS = 30_000;
+
+	/**
+	 * Unspent consumables and balance of a single asset, updated in place
+	 */
+	private static class AssetUtxos {
+		private final LinkedHashMap<RadixHash, Consumable> unconsumed = new LinkedHashMap<>();
+
+		private long balance;
+
+		/**
+		 * State last handed to readers, rebuilt only once this asset changes
+		 */
+		private AddressTokenState.AssetState snapshot;
+	}
+
+	/**
+	 * Unspent consumables and balances of an address for every asset, updated in place as each particle arrives
+	 */
+	private static class Utxos {
+		/**
+		 * Latest particle for each particle hash. A consumer hashes the same as the consumable
+		 * it consumes so it replaces that consumable.
+		 */
+		private final HashMap<RadixHash, AbstractConsumable> particles = new HashMap<>();
+
+		private final HashMap<EUID, AssetUtxos> assets = new HashMap<>();
+
+		synchronized Utxos accept(AbstractConsumable particle) {
+			final RadixHash hash = particle.getHash();
+			final AbstractConsumable previous = particles.put(hash, particle);
+			if (previous != null && previous.isConsumable()) {
+				final AssetUtxos utxos = assets.get(previous.getAssetId());
+				utxos.unconsumed.remove(hash);
+				utxos.balance -= previous.getSignedQuantity();
+				utxos.snapshot = null;
+			}
+			if (particle.isConsumable()) {
+				final AssetUtxos utxos = assets.computeIfAbsent(particle.getAssetId(), id -> new AssetUtxos());
+				utxos.unconsumed.put(hash, particle.getAsConsumable());
+				utxos.balance += particle.getSignedQuantity();
+				utxos.snapshot = null;
+			}
+			return this;
+		}
+
+		synchronized AddressTokenState snapshot() {
+			final Map<EUID, AddressTokenState.AssetState> states = new HashMap<>(assets.size() * 2);
+			assets.forEach((id, utxos) -> {
+				if (utxos.snapshot == null) {
+					utxos.snapshot = new AddressTokenState.AssetState(utxos.balance, new ArrayList<>(utxos.unconsumed.values()));
+				}
+				states.put(id, utxos.snapshot);
+			});
+			return new AddressTokenState(states);
+		}
+	}
+
 	private final Observable<AddressTokenState> state;
 
 	public AddressTokenReducer(RadixAddress address, ParticleStore particleStore) {
-		this.state = particleStore.getConsumables(address)
-			.filter(p -> !(p instanceof AtomFeeConsumable))
-			.scanWith(HashMap<RadixHash, AbstractConsumable>::new, (map, p) -> {
-				HashMap<RadixHash, AbstractConsumable> newMap = new HashMap<>(map);
-				newMap.put(p.getHash(), p);
-				return newMap;
-			})
-			.map(map -> map.values().stream()
-				.filter(AbstractConsumable::isConsumable)
-				.map(AbstractConsumable::getAsConsumable)
-				.collect(Collectors.toList())
-			)
-			.debounce(1000, TimeUnit.MILLISECONDS)
-			.map(consumables -> {
-				long balanceInSubUnits = consumables.stream().mapToLong(Consumable::getSignedQuantity).sum();
-				Amount balance = Amount.subUnitsOf(balanceInSubUnits, Asset.TEST);
-				return new AddressTokenState(balance, consumables);
-			})
+		this(address, particleStore, DEFAULT_WINDOW_MILLIS, Schedulers.computation());
+	}
+
+	/**
+	 * @param address address to reduce the state of every asset of
+	 * @param particleStore store of the particles of the address
+	 * @param windowMillis time over which particle updates are coalesced, zero to emit on every particle
+	 * @param scheduler scheduler to coalesce updates on
+	 */
+	public AddressTokenReducer(RadixAddress address, ParticleStore particleStore, long windowMillis, Scheduler scheduler) {
+		this(address, particleStore, windowMillis, DEFAULT_SETTLE_MILLIS, DEFAULT_GRACE_MILLIS, scheduler, reducer -> { });
+	}
+
+	/**
+	 * @param address address to reduce the state of every asset of
+	 * @param particleStore store of the particles of the address
+	 * @param windowMillis time over which particle updates are coalesced, zero to emit on every particle
+	 * @param settleMillis time without new particles before the first state is emitted, so that it
+	 * isn't a partial state built before the history of the address arrived
+	 * @param graceMillis time the state keeps being reduced after its last subscriber is gone
+	 * @param scheduler scheduler to coalesce updates and time the grace period on
+	 * @param onDisconnect called once the state stops being reduced, until subscribed to again
+	 */
+	public AddressTokenReducer(
+		RadixAddress address,
+		ParticleStore particleStore,
+		long windowMillis,
+		long settleMillis,
+		long graceMillis,
+		Scheduler scheduler,
+		Consumer<AddressTokenReducer> onDisconnect
+	) {
+		if (windowMillis < 0) {
+			throw new IllegalArgumentException("windowMillis must not be negative but was " + windowMillis);
+		}
+		if (settleMillis < 0) {
+			throw new IllegalArgumentException("settleMillis must not be negative but was " + settleMillis);
+		}
+		if (graceMillis < 0) {
+			throw new IllegalArgumentException("graceMillis must not be negative but was " + graceMillis);
+		}
+
+		final Observable<Utxos> updates = Observable.defer(() -> {
+			final Utxos utxos = new Utxos();
+			return particleStore.getConsumables(address)
+				.filter(p -> !(p instanceof AtomFeeConsumable))
+				.map(utxos::accept)
+				.publish(particles -> {
+					// Emitted once settled even if the address has no particles at all
+					final Observable<Utxos> settled = particles.startWith(utxos)
+						.debounce(settleMillis, TimeUnit.MILLISECONDS, scheduler)
+						.take(1);
+					// Copy the state of changed assets once per window rather than once per particle
+					final Observable<Utxos> live = windowMillis == 0
+						? particles
+						: particles.sample(windowMillis, TimeUnit.MILLISECONDS, scheduler, true);
+					return settled.concatWith(live);
+				});
+		});
+
+		this.state = updates
+			.map(Utxos::snapshot)
+			.doFinally(() -> onDisconnect.accept(this))
 			.replay(1)
-			.autoConnect();
+			.refCount(graceMillis, TimeUnit.MILLISECONDS, scheduler);
 	}
 
 	public Observable<AddressTokenState> getState() {
@@ -1,23 +1,76 @@
 package com.radixdlt.client.application.translate;
 
 import com.radixdlt.client.assets.Amount;
+import com.radixdlt.client.assets.Asset;
+import com.radixdlt.client.core.address.EUID;
 import com.radixdlt.client.core.atoms.Consumable;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class AddressTokenState {
-	private final Amount balance;
-	private final List<Consumable> unconsumedConsumables;
+	/**
+	 * Balance and unconsumed consumables of a single asset
+	 */
+	static class AssetState {
+		private final long balance;
+		private final List<Consumable> unconsumedConsumables;
+
+		AssetState(long balance, List<Consumable> unconsumedConsumables) {
+			this.balance = balance;
+			this.unconsumedConsumables = Collections.unmodifiableList(unconsumedConsumables);
+		}
+	}
+
+	private final Map<EUID, AssetState> assets;
 
 	public AddressTokenState(Amount balance, List<Consumable> unconsumedConsumables) {
-		this.balance = balance;
-		this.unconsumedConsumables = unconsumedConsumables;
+		this(Collections.singletonMap(
+			balance.getTokenClass().getId(),
+			new AssetState(balance.getAmountInSubunits(), unconsumedConsumables)
+		));
+	}
+
+	/**
+	 * @param assets state of each asset held, by asset id, which must not be modified afterwards
+	 */
+	AddressTokenState(Map<EUID, AssetState> assets) {
+		this.assets = Collections.unmodifiableMap(assets);
+	}
+
+	/**
+	 * @param tokenClass asset to get the balance of
+	 * @return balance of the asset, zero if none is held
+	 */
+	public Amount getBalance(Asset tokenClass) {
+		final AssetState state = assets.get(tokenClass.getId());
+		return Amount.subUnitsOf(state == null ? 0L : state.balance, tokenClass);
+	}
+
+	/**
+	 * @param tokenClass asset to get the unconsumed consumables of
+	 * @return unconsumed consumables of the asset in order of arrival
+	 */
+	public List<Consumable> getUnconsumedConsumables(Asset tokenClass) {
+		final AssetState state = assets.get(tokenClass.getId());
+		return state == null ? Collections.emptyList() : state.unconsumedConsumables;
+	}
+
+	/**
+	 * @return balance in subunits of every asset ever held, by asset id
+	 */
+	public Map<EUID, Long> getBalances() {
+		final Map<EUID, Long> balances = new HashMap<>(assets.size() * 2);
+		assets.forEach((id, state) -> balances.put(id, state.balance));
+		return balances;
 	}
 
 	public Amount getBalance() {
-		return balance;
+		return getBalance(Asset.TEST);
 	}
 
 	public List<Consumable> getUnconsumedConsumables() {
-		return unconsumedConsumables;
+		return getUnconsumedConsumables(Asset.TEST);
 	}
 }
@@ -0,0 +1,90 @@
+package com.radixdlt.client.application.translate;
+
+import com.radixdlt.client.core.atoms.Consumable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Searches for a set of consumables adding up to exactly the amount, so that no change
+ * consumable is created, by a depth first search over the consumables from largest to
+ * smallest, pruning branches which overshoot or can no longer reach the amount. If no
+ * exact match is found within a bounded number of steps a fallback selector is used.
+ */
+public class BranchAndBoundCoinSelector implements CoinSelector {
+	/**
+	 * Default maximum number of search steps before giving up on an exact match
+	 */
+	public static final int DEFAULT_MAX_TRIES = 100_000;
+
+	private final CoinSelector fallback;
+
+	private final int maxTries;
+
+	public BranchAndBoundCoinSelector(CoinSelector fallback) {
+		this(fallback, DEFAULT_MAX_TRIES);
+	}
+
+	public BranchAndBoundCoinSelector(CoinSelector fallback, int maxTries) {
+		this.fallback = fallback;
+		this.maxTries = maxTries;
+	}
+
+	@Override
+	public List<Consumable> select(List<Consumable> available, long amount) {
+		final List<Consumable> sorted = new ArrayList<>(available);
+		sorted.sort(Comparator.comparingLong(Consumable::getQuantity).reversed());
+
+		final int size = sorted.size();
+		final long[] quantities = new long[size];
+		// remaining[i] is the total of the consumables from i onwards
+		final long[] remaining = new long[size + 1];
+		for (int i = size - 1; i >= 0; i--) {
+			quantities[i] = sorted.get(i).getQuantity();
+			remaining[i] = remaining[i + 1] + quantities[i];
+		}
+		if (remaining[0] < amount) {
+			return fallback.select(available, amount);
+		}
+
+		final boolean[] included = new boolean[size];
+		int depth = 0;
+		long total = 0;
+		boolean backtrack = false;
+		for (int tries = 0; tries < maxTries; tries++) {
+			if (!backtrack) {
+				if (total == amount) {
+					final List<Consumable> selected = new ArrayList<>();
+					for (int i = 0; i < depth; i++) {
+						if (included[i]) {
+							selected.add(sorted.get(i));
+						}
+					}
+					return selected;
+				}
+				backtrack = depth == size || total > amount || total + remaining[depth] < amount;
+			}
+
+			if (backtrack) {
+				// Undo the deepest inclusion and try excluding it instead
+				while (depth > 0 && !included[depth - 1]) {
+					depth--;
+				}
+				if (depth == 0) {
+					break;
+				}
+				depth--;
+				included[depth] = false;
+				total -= quantities[depth];
+				depth++;
+				backtrack = false;
+			} else {
+				included[depth] = true;
+				total += quantities[depth];
+				depth++;
+			}
+		}
+
+		return fallback.select(available, amount);
+	}
+}
@@ -0,0 +1,32 @@
+package com.radixdlt.client.application.translate;
+
+import com.radixdlt.client.core.atoms.Consumable;
+import java.util.List;
+
+/**
+ * Strategy choosing which unconsumed consumables of an address to spend in a transfer
+ */
+public interface CoinSelector {
+	/**
+	 * Chooses consumables whose quantities add up to at least an amount
+	 *
+	 * @param available unconsumed consumables which may be spent, in order of arrival
+	 * @param amount amount in subunits to cover, greater than zero
+	 * @return the consumables to spend, empty if the available ones can't cover the amount
+	 */
+	List<Consumable> select(List<Consumable> available, long amount);
+
+	/**
+	 * Sums the quantities of consumables
+	 *
+	 * @param consumables consumables to sum
+	 * @return total quantity in subunits
+	 */
+	static long total(List<Consumable> consumables) {
+		long total = 0;
+		for (Consumable consumable : consumables) {
+			total += consumable.getQuantity();
+		}
+		return total;
+	}
+}
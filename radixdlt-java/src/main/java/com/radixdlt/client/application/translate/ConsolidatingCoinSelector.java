@@ -0,0 +1,52 @@
+package com.radixdlt.client.application.translate;
+
+import com.radixdlt.client.core.atoms.Consumable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Spends the smallest consumables first and keeps adding small ones beyond the amount,
+ * up to a maximum number of inputs, so that dust is merged into the change of each
+ * transfer rather than accumulating. Falls back to largest first, whatever the number of
+ * inputs, if the smallest consumables can't cover the amount.
+ */
+public class ConsolidatingCoinSelector implements CoinSelector {
+	/**
+	 * Default maximum number of small consumables spent by a single transfer
+	 */
+	public static final int DEFAULT_MAX_INPUTS = 20;
+
+	private final int maxInputs;
+
+	private final CoinSelector fallback = new LargestFirstCoinSelector();
+
+	public ConsolidatingCoinSelector() {
+		this(DEFAULT_MAX_INPUTS);
+	}
+
+	public ConsolidatingCoinSelector(int maxInputs) {
+		if (maxInputs < 1) {
+			throw new IllegalArgumentException("maxInputs must be positive but was " + maxInputs);
+		}
+		this.maxInputs = maxInputs;
+	}
+
+	@Override
+	public List<Consumable> select(List<Consumable> available, long amount) {
+		final List<Consumable> sorted = new ArrayList<>(available);
+		sorted.sort(Comparator.comparingLong(Consumable::getQuantity));
+
+		final List<Consumable> selected = new ArrayList<>();
+		long total = 0;
+		for (Consumable consumable : sorted) {
+			if (selected.size() == maxInputs) {
+				break;
+			}
+			selected.add(consumable);
+			total += consumable.getQuantity();
+		}
+
+		return total >= amount ? selected : fallback.select(available, amount);
+	}
+}
@@ -0,0 +1,105 @@
+package com.radixdlt.client.application.translate;
+
+import com.radixdlt.client.core.address.EUID;
+import com.radixdlt.client.core.atoms.AbstractConsumable;
+import com.radixdlt.client.core.atoms.Consumable;
+import com.radixdlt.client.core.atoms.RadixHash;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Consumables of an address which have been spent by transfers still in flight, so that
+ * transfers built concurrently from the same state never pick overlapping inputs. A
+ * reservation lasts until the consumable is seen consumed or the transfer is released.
+ */
+final class ConsumableReservations {
+	/**
+	 * Hashes of reserved consumables, by asset id. A consumer has the same hash as
+	 * the consumable it consumes.
+	 */
+	private final Map<EUID, Set<RadixHash>> reserved = new HashMap<>();
+
+	/**
+	 * Selects and reserves consumables covering an amount
+	 *
+	 * @param assetId asset of the consumables
+	 * @param unconsumed every unconsumed consumable of the asset, reserved or not
+	 * @param amount amount to cover in subunits
+	 * @param selector strategy to select with
+	 * @return the reserved consumables, or empty with the quantity available if the amount can't be covered
+	 */
+	synchronized Selection reserve(EUID assetId, List<Consumable> unconsumed, long amount, CoinSelector selector) {
+		final Set<RadixHash> assetReserved = reserved.computeIfAbsent(assetId, id -> new HashSet<>());
+		final Set<RadixHash> stillUnconsumed = new HashSet<>(unconsumed.size() * 2);
+		final List<Consumable> available = new ArrayList<>(unconsumed.size());
+		final Map<Consumable, RadixHash> hashes = new IdentityHashMap<>(unconsumed.size());
+		for (Consumable consumable : unconsumed) {
+			// Hashing a particle serializes it so only do it once per consumable
+			final RadixHash hash = consumable.getHash();
+			stillUnconsumed.add(hash);
+			if (!assetReserved.contains(hash)) {
+				available.add(consumable);
+				hashes.put(consumable, hash);
+			}
+		}
+		// Reservations of consumables since consumed are no longer needed
+		assetReserved.retainAll(stillUnconsumed);
+
+		final List<Consumable> selected = selector.select(available, amount);
+		if (selected.isEmpty()) {
+			return new Selection(Collections.emptyList(), CoinSelector.total(available));
+		}
+
+		for (Consumable consumable : selected) {
+			final RadixHash hash = hashes.get(consumable);
+			assetReserved.add(hash != null ? hash : consumable.getHash());
+		}
+		return new Selection(selected, CoinSelector.total(selected));
+	}
+
+	/**
+	 * Releases the reservations of consumables, e.g. once the transfer spending them failed
+	 *
+	 * @param particles consumables or the consumers spending them
+	 */
+	synchronized void release(Collection<? extends AbstractConsumable> particles) {
+		for (AbstractConsumable particle : particles) {
+			final Set<RadixHash> assetReserved = reserved.get(particle.getAssetId());
+			if (assetReserved != null) {
+				assetReserved.remove(particle.getHash());
+			}
+		}
+	}
+
+	synchronized int size() {
+		return reserved.values().stream().mapToInt(Set::size).sum();
+	}
+
+	static final class Selection {
+		private final List<Consumable> consumables;
+		private final long total;
+
+		private Selection(List<Consumable> consumables, long total) {
+			this.consumables = consumables;
+			this.total = total;
+		}
+
+		List<Consumable> getConsumables() {
+			return consumables;
+		}
+
+		/**
+		 * @return total of the consumables selected, or of those available if none were
+		 */
+		long getTotal() {
+			return total;
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package com.radixdlt.client.application.translate;
+
+import com.radixdlt.client.core.atoms.Consumable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Spends the largest consumables first, using as few inputs as possible
+ */
+public class LargestFirstCoinSelector implements CoinSelector {
+	@Override
+	public List<Consumable> select(List<Consumable> available, long amount) {
+		final List<Consumable> sorted = new ArrayList<>(available);
+		sorted.sort(Comparator.comparingLong(Consumable::getQuantity).reversed());
+
+		final List<Consumable> selected = new ArrayList<>();
+		long total = 0;
+		for (Consumable consumable : sorted) {
+			if (total >= amount) {
+				break;
+			}
+			selected.add(consumable);
+			total += consumable.getQuantity();
+		}
+		return total >= amount ? selected : Collections.emptyList();
+	}
+}
@@ -0,0 +1,43 @@
+package com.radixdlt.client.application.translate;
+
+import com.radixdlt.client.core.atoms.Consumable;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Spends consumables in random order so that transfers built from the same state,
+ * e.g. by other clients of the same address, are unlikely to pick the same inputs
+ */
+public class RandomCoinSelector implements CoinSelector {
+	private final Random random;
+
+	public RandomCoinSelector() {
+		this(new SecureRandom());
+	}
+
+	public RandomCoinSelector(Random random) {
+		this.random = random;
+	}
+
+	@Override
+	public List<Consumable> select(List<Consumable> available, long amount) {
+		final List<Consumable> shuffled = new ArrayList<>(available);
+		synchronized (random) {
+			Collections.shuffle(shuffled, random);
+		}
+
+		final List<Consumable> selected = new ArrayList<>();
+		long total = 0;
+		for (Consumable consumable : shuffled) {
+			if (total >= amount) {
+				break;
+			}
+			selected.add(consumable);
+			total += consumable.getQuantity();
+		}
+		return total >= amount ? selected : Collections.emptyList();
+	}
+}
@@ -6,10 +6,13 @@ import com.radixdlt.client.application.objects.Data;
 import com.radixdlt.client.application.objects.TokenTransfer;
 import com.radixdlt.client.assets.Asset;
 import com.radixdlt.client.core.RadixUniverse;
+import com.radixdlt.client.core.address.EUID;
 import com.radixdlt.client.core.address.RadixAddress;
+import com.radixdlt.client.core.atoms.Atom;
 import com.radixdlt.client.core.atoms.AtomBuilder;
 import com.radixdlt.client.core.atoms.Consumable;
 import com.radixdlt.client.core.atoms.Consumer;
+import com.radixdlt.client.core.atoms.Particle;
 import com.radixdlt.client.core.atoms.TransactionAtom;
 import com.radixdlt.client.core.crypto.CryptoException;
 import com.radixdlt.client.core.crypto.ECKeyPair;
@@ -19,10 +22,11 @@ import com.radixdlt.client.core.ledger.ParticleStore;
 import io.reactivex.Completable;
 import io.reactivex.Observable;
 import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
 import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -33,18 +37,45 @@ public class TokenTransferTranslator {
 	private final RadixUniverse universe;
 	private final ParticleStore particleStore;
 	private final ConcurrentHashMap<RadixAddress, AddressTokenReducer> cache = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<RadixAddress, ConsumableReservations> reservations = new ConcurrentHashMap<>();
+	private final CoinSelector coinSelector;
 
 	public TokenTransferTranslator(RadixUniverse universe, ParticleStore particleStore) {
+		this(universe, particleStore, new BranchAndBoundCoinSelector(new RandomCoinSelector()));
+	}
+
+	/**
+	 * @param universe universe to resolve addresses in
+	 * @param particleStore store of the particles of addresses
+	 * @param coinSelector strategy choosing which consumables a transfer spends
+	 */
+	public TokenTransferTranslator(RadixUniverse universe, ParticleStore particleStore, CoinSelector coinSelector) {
 		this.universe = universe;
 		this.particleStore = particleStore;
+		this.coinSelector = coinSelector;
 	}
 
 	public Single<TokenTransfer> fromAtom(TransactionAtom transactionAtom, RadixIdentity identity) {
-		List<SimpleImmutableEntry<ECPublicKey, Long>> summary =
-			transactionAtom.summary().entrySet().stream()
-				.filter(entry -> entry.getValue().containsKey(Asset.TEST.getId()))
-				.map(entry -> new SimpleImmutableEntry<>(entry.getKey().iterator().next(), entry.getValue().get(Asset.TEST.getId())))
-				.collect(Collectors.toList());
+		return fromAtom(transactionAtom, Asset.TEST, identity);
+	}
+
+	/**
+	 * Translates the movement of one asset in a transaction into a transfer
+	 *
+	 * @param transactionAtom transaction to translate
+	 * @param tokenClass asset transferred, which the transaction must involve
+	 * @param identity identity to decrypt the attachment with
+	 * @return the transfer
+	 */
+	public Single<TokenTransfer> fromAtom(TransactionAtom transactionAtom, Asset tokenClass, RadixIdentity identity) {
+		final EUID assetId = tokenClass.getId();
+		final List<SimpleImmutableEntry<ECPublicKey, Long>> summary = new ArrayList<>(2);
+		for (Map.Entry<Set<ECPublicKey>, Map<EUID, Long>> entry : transactionAtom.summary().entrySet()) {
+			final Long quantity = entry.getValue().get(assetId);
+			if (quantity != null) {
+				summary.add(new SimpleImmutableEntry<>(entry.getKey().iterator().next(), quantity));
+			}
+		}
 
 		if (summary.size() > 2) {
 			throw new IllegalStateException("More than two participants in token transfer. Unable to handle: " + summary);
@@ -83,11 +114,11 @@ public class TokenTransferTranslator {
 			final long timestamp = transactionAtom.getTimestamp();
 			return Single.just(attachment)
 				.flatMap(identity::decrypt)
-				.map(unencrypted -> new TokenTransfer(from, to, Asset.TEST, subUnitAmount, unencrypted, timestamp))
+				.map(unencrypted -> new TokenTransfer(from, to, tokenClass, subUnitAmount, unencrypted, timestamp))
 				.onErrorResumeNext(e -> {
 					if (e instanceof CryptoException) {
 						return Single.just(
-							new TokenTransfer(from, to, Asset.TEST, subUnitAmount, null, timestamp)
+							new TokenTransfer(from, to, tokenClass, subUnitAmount, null, timestamp)
 						);
 					} else {
 						return Single.error(e);
@@ -95,20 +126,75 @@ public class TokenTransferTranslator {
 				});
 		} else {
 			return Single.just(
-				new TokenTransfer(from, to, Asset.TEST, subUnitAmount, null, transactionAtom.getTimestamp())
+				new TokenTransfer(from, to, tokenClass, subUnitAmount, null, transactionAtom.getTimestamp())
 			);
 		}
 	}
 
 	public Observable<AddressTokenState> getTokenState(RadixAddress address) {
-		return cache.computeIfAbsent(address, addr -> new AddressTokenReducer(addr, particleStore)).getState();
+		// Looked up on subscription as reducers no longer reduced are evicted
+		return Observable.defer(() -> cache.computeIfAbsent(address, this::createReducer).getState());
+	}
+
+	private AddressTokenReducer createReducer(RadixAddress address) {
+		return new AddressTokenReducer(
+			address,
+			particleStore,
+			AddressTokenReducer.DEFAULT_WINDOW_MILLIS,
+			AddressTokenReducer.DEFAULT_SETTLE_MILLIS,
+			AddressTokenReducer.DEFAULT_GRACE_MILLIS,
+			Schedulers.computation(),
+			reducer -> cache.remove(address, reducer)
+		);
+	}
+
+	/**
+	 * Releases the consumables reserved by a transfer which won't be stored, making them
+	 * available to later transfers again
+	 *
+	 * @param from address the transfer was from
+	 * @param atom atom built by the transfer
+	 */
+	public void release(RadixAddress from, Atom atom) {
+		release(from, atom.getParticles());
+	}
+
+	/**
+	 * Releases the consumables reserved by a transfer which failed before its atom was built
+	 *
+	 * @param from address the transfer was from
+	 * @param atomBuilder builder the transfer was translated into
+	 */
+	public void release(RadixAddress from, AtomBuilder atomBuilder) {
+		release(from, atomBuilder.getParticles());
+	}
+
+	private void release(RadixAddress from, List<Particle> particles) {
+		final ConsumableReservations addressReservations = reservations.get(from);
+		if (addressReservations != null) {
+			addressReservations.release(
+				particles.stream()
+					.filter(Particle::isConsumer)
+					.map(Particle::getAsConsumer)
+					.collect(Collectors.toList())
+			);
+		}
+	}
+
+	/**
+	 * @param from address to count the reservations of
+	 * @return number of consumables of an address reserved by transfers in flight
+	 */
+	public int getReservedCount(RadixAddress from) {
+		final ConsumableReservations addressReservations = reservations.get(from);
+		return addressReservations == null ? 0 : addressReservations.size();
 	}
 
 	public Completable translate(TransferTokensAction transferTokensAction, AtomBuilder atomBuilder) {
 		atomBuilder.type(TransactionAtom.class);
 
 		return getTokenState(transferTokensAction.getFrom())
-			.map(AddressTokenState::getUnconsumedConsumables)
+			.map(state -> state.getUnconsumedConsumables(transferTokensAction.getTokenClass()))
 			.firstOrError()
 			.flatMapCompletable(unconsumedConsumables -> {
 
@@ -119,38 +205,54 @@ public class TokenTransferTranslator {
 					}
 				}
 
-				long consumerTotal = 0;
-				Iterator<Consumable> iterator = unconsumedConsumables.iterator();
-				Map<Set<ECKeyPair>, Long> consumerQuantities = new HashMap<>();
-
-				// HACK for now
-				// TODO: remove this, create a ConsumersCreator
-				// TODO: randomize this to decrease probability of collision
-				while (consumerTotal < transferTokensAction.getSubUnitAmount() && iterator.hasNext()) {
-					final long left = transferTokensAction.getSubUnitAmount() - consumerTotal;
-
-					Consumer newConsumer = iterator.next().toConsumer();
-					consumerTotal += newConsumer.getQuantity();
+				final EUID assetId = transferTokensAction.getTokenClass().getId();
+				final long subUnitAmount = transferTokensAction.getSubUnitAmount();
+				final ConsumableReservations addressReservations =
+					reservations.computeIfAbsent(transferTokensAction.getFrom(), addr -> new ConsumableReservations());
+				final ConsumableReservations.Selection selection =
+					addressReservations.reserve(assetId, unconsumedConsumables, subUnitAmount, coinSelector);
 
-					final long amount = Math.min(left, newConsumer.getQuantity());
-					newConsumer.addConsumerQuantities(amount, Collections.singleton(transferTokensAction.getTo().toECKeyPair()),
-						consumerQuantities);
-
-					atomBuilder.addParticle(newConsumer);
-				}
-
-				if (consumerTotal < transferTokensAction.getSubUnitAmount()) {
+				if (selection.getConsumables().isEmpty()) {
 					return Completable.error(new InsufficientFundsException(
-						transferTokensAction.getTokenClass(), consumerTotal, transferTokensAction.getSubUnitAmount()
+						transferTokensAction.getTokenClass(), selection.getTotal(), subUnitAmount
 					));
 				}
 
-				List<Consumable> consumables = consumerQuantities.entrySet().stream()
-					.map(entry -> new Consumable(entry.getValue(), entry.getKey(), System.nanoTime(), Asset.TEST.getId()))
-					.collect(Collectors.toList());
-				atomBuilder.addParticles(consumables);
+				try {
+					addParticles(transferTokensAction, selection.getConsumables(), atomBuilder);
+				} catch (RuntimeException e) {
+					addressReservations.release(selection.getConsumables());
+					throw e;
+				}
 
 				return Completable.complete();
 			});
 	}
+
+	/**
+	 * Spends consumables in a transfer, adding the consumers and the resulting consumables
+	 */
+	private static void addParticles(TransferTokensAction transferTokensAction, List<Consumable> selected, AtomBuilder atomBuilder) {
+		final EUID assetId = transferTokensAction.getTokenClass().getId();
+		final long subUnitAmount = transferTokensAction.getSubUnitAmount();
+		long consumerTotal = 0;
+		Map<Set<ECKeyPair>, Long> consumerQuantities = new HashMap<>();
+		for (Consumable consumable : selected) {
+			final long left = Math.max(0, subUnitAmount - consumerTotal);
+
+			Consumer newConsumer = consumable.toConsumer();
+			consumerTotal += newConsumer.getQuantity();
+
+			final long amount = Math.min(left, newConsumer.getQuantity());
+			newConsumer.addConsumerQuantities(amount, Collections.singleton(transferTokensAction.getTo().toECKeyPair()),
+				consumerQuantities);
+
+			atomBuilder.addParticle(newConsumer);
+		}
+
+		List<Consumable> consumables = consumerQuantities.entrySet().stream()
+			.map(entry -> new Consumable(entry.getValue(), entry.getKey(), System.nanoTime(), assetId))
+			.collect(Collectors.toList());
+		atomBuilder.addParticles(consumables);
+	}
 }
@@ -4,17 +4,31 @@ import com.radixdlt.client.core.address.EUID;
 import com.radixdlt.client.core.address.RadixAddress;
 import com.radixdlt.client.core.atoms.AbstractConsumable;
 import com.radixdlt.client.core.atoms.Consumable;
-import com.radixdlt.client.core.atoms.Particle;
+import com.radixdlt.client.core.atoms.RadixHash;
 import com.radixdlt.client.core.atoms.TransactionAtom;
-import io.reactivex.ObservableEmitter;
-import io.reactivex.observables.ConnectableObservable;
-import java.nio.ByteBuffer;
+import io.reactivex.subjects.ReplaySubject;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Validates the transactions of an address against each other, releasing a transaction
+ * once every consumable it consumes has been produced by an earlier valid transaction.
+ * Transactions may be accepted from any thread. They are queued and handled one at a
+ * time by whichever thread finds the queue idle, so the state is only ever touched by
+ * a single writer and needs no lock.
+ */
 public class TransactionAtoms {
 	private static final Logger LOGGER = LoggerFactory.getLogger(TransactionAtoms.class);
 
@@ -29,89 +43,237 @@ public class TransactionAtoms {
 			return newValidTransactions;
 		}
 
+		/**
+		 * @return the unconsumed consumables as of subscription, if the transaction made any valid
+		 */
 		public io.reactivex.Maybe<Collection<Consumable>> getUnconsumedConsumables() {
-			return newValidTransactions.lastElement().map(lastTx -> unconsumedConsumables.values());
+			return newValidTransactions.lastElement().flatMap(lastTx -> snapshot());
+		}
+	}
+
+	/**
+	 * A particle of a transaction relevant to this address, hashed once
+	 */
+	private static final class Tracked {
+		private final AbstractConsumable particle;
+		private final RadixHash hash;
+
+		private Tracked(AbstractConsumable particle, RadixHash hash) {
+			this.particle = particle;
+			this.hash = hash;
+		}
+	}
+
+	/**
+	 * A transaction waiting for consumables
+	 */
+	private static final class Waiting {
+		private final TransactionAtom atom;
+		private final List<Tracked> particles;
+		private final Consumer<TransactionAtom> onValid;
+
+		/**
+		 * Number of consumables consumed by the transaction not yet produced
+		 */
+		private int missing;
+
+		private Waiting(TransactionAtom atom, List<Tracked> particles, Consumer<TransactionAtom> onValid) {
+			this.atom = atom;
+			this.particles = particles;
+			this.onValid = onValid;
+		}
+	}
+
+	/**
+	 * A transaction to add, or only a task to run on the draining thread if the atom is null
+	 */
+	private static final class Event {
+		private final TransactionAtom atom;
+		private final Consumer<TransactionAtom> onValid;
+		private final Runnable onHandled;
+
+		private Event(TransactionAtom atom, Consumer<TransactionAtom> onValid, Runnable onHandled) {
+			this.atom = atom;
+			this.onValid = onValid;
+			this.onHandled = onHandled;
 		}
 	}
 
 	private final RadixAddress address;
+
+	/**
+	 * Asset whose transactions are validated, null for every asset
+	 */
 	private final EUID assetId;
-	private final ConcurrentHashMap<ByteBuffer, Consumable> unconsumedConsumables = new ConcurrentHashMap<>();
-	private final ConcurrentHashMap<ByteBuffer, TransactionAtom> missingConsumable = new ConcurrentHashMap<>();
+
+	private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Number of events queued and not yet handled, the thread taking it from zero drains the queue
+	 */
+	private final AtomicInteger wip = new AtomicInteger();
+
+	// State below is only touched by the thread draining the queue
+
+	private final Map<RadixHash, Consumable> unconsumedConsumables = new LinkedHashMap<>();
+
+	/**
+	 * Transactions waiting for each consumable not yet produced
+	 */
+	private final Map<RadixHash, List<Waiting>> waitingOn = new HashMap<>();
+
+	/**
+	 * Copy of the unconsumed consumables last handed out, copied again only once they changed
+	 */
+	private Collection<Consumable> snapshot = Collections.emptyList();
+
+	private boolean snapshotStale;
+
+	/**
+	 * Validates the transactions of an address in every asset at once. Consumables
+	 * are keyed by their hash, which includes the asset, so assets don't collide.
+	 *
+	 * @param address address to validate the transactions of
+	 */
+	public TransactionAtoms(RadixAddress address) {
+		this(address, null);
+	}
 
 	public TransactionAtoms(RadixAddress address, EUID assetId) {
 		this.address = address;
 		this.assetId = assetId;
 	}
 
-	private void addConsumables(TransactionAtom transactionAtom, ObservableEmitter<TransactionAtom> emitter) {
-		transactionAtom.getParticles().stream()
-			.filter(Particle::isAbstractConsumable)
-			.map(Particle::getAsAbstractConsumable)
-			.filter(particle -> particle.getOwnersPublicKeys().stream().allMatch(address::ownsKey))
-			.filter(particle -> particle.getAssetId().equals(assetId))
-			.forEach(particle -> {
-				ByteBuffer dson = ByteBuffer.wrap(particle.getDson());
-				if (particle.isConsumable()) {
-					unconsumedConsumables.compute(dson, (thisHash, current) -> {
-						if (current == null) {
-							return particle.getAsConsumable();
-						} else {
-							throw new IllegalStateException();
-						}
-					});
+	private boolean isTracked(AbstractConsumable particle) {
+		return (assetId == null || particle.getAssetId().equals(assetId))
+			&& particle.getOwnersPublicKeys().stream().allMatch(address::ownsKey);
+	}
 
-					TransactionAtom reanalyzeAtom = missingConsumable.remove(dson);
-					if (reanalyzeAtom != null) {
-						checkConsumers(reanalyzeAtom, emitter);
-					}
-				} else {
-					Consumable consumable = unconsumedConsumables.remove(dson);
-					if (consumable == null) {
-						throw new IllegalStateException();
-					}
-				}
-			});
+	private List<Tracked> track(TransactionAtom transactionAtom) {
+		final List<Tracked> tracked = new ArrayList<>();
+		for (AbstractConsumable particle : transactionAtom.getAbstractConsumables()) {
+			if (isTracked(particle)) {
+				tracked.add(new Tracked(particle, particle.getHash()));
+			}
+		}
+		return tracked;
 	}
 
-	private void checkConsumers(TransactionAtom transactionAtom, ObservableEmitter<TransactionAtom> emitter) {
-		Optional<ByteBuffer> missing = transactionAtom.getParticles().stream()
-			.filter(Particle::isAbstractConsumable)
-			.map(Particle::getAsAbstractConsumable)
-			.filter(particle -> particle.getOwnersPublicKeys().stream().allMatch(address::ownsKey))
-			.filter(particle -> particle.getAssetId().equals(assetId))
-			.filter(AbstractConsumable::isConsumer)
-			.map(AbstractConsumable::getDson)
-			.map(ByteBuffer::wrap)
-			.filter(dson -> !unconsumedConsumables.containsKey(dson))
-			.findFirst();
-
-		if (missing.isPresent()) {
-			LOGGER.info("Missing consumable for atom: " + transactionAtom);
-			missingConsumable.compute(missing.get(), (thisHash, current) -> {
-				if (current == null) {
-					return transactionAtom;
+	/**
+	 * Counts the consumables a transaction consumes which are not unconsumed, registering
+	 * it as waiting for each of them
+	 */
+	private int register(Waiting waiting) {
+		int missing = 0;
+		for (Tracked tracked : waiting.particles) {
+			if (tracked.particle.isConsumer() && !unconsumedConsumables.containsKey(tracked.hash)) {
+				waitingOn.computeIfAbsent(tracked.hash, hash -> new ArrayList<>(1)).add(waiting);
+				missing++;
+			}
+		}
+		waiting.missing = missing;
+		return missing;
+	}
+
+	private void handle(Waiting first) {
+		final ArrayDeque<Waiting> ready = new ArrayDeque<>();
+		ready.add(first);
+		while (!ready.isEmpty()) {
+			final Waiting waiting = ready.poll();
+			// Consumables may have been consumed by another transaction since it was woken
+			if (register(waiting) > 0) {
+				LOGGER.info("Missing {} consumables for atom: {}", waiting.missing, waiting.atom.getHid());
+				continue;
+			}
+
+			waiting.onValid.accept(waiting.atom);
+
+			for (Tracked tracked : waiting.particles) {
+				snapshotStale = true;
+				if (tracked.particle.isConsumable()) {
+					if (unconsumedConsumables.putIfAbsent(tracked.hash, tracked.particle.getAsConsumable()) != null) {
+						LOGGER.warn("Consumable produced twice: {}", tracked.hash);
+					}
+					final List<Waiting> woken = waitingOn.remove(tracked.hash);
+					if (woken != null) {
+						for (Waiting waiter : woken) {
+							if (--waiter.missing == 0) {
+								ready.add(waiter);
+							}
+						}
+					}
 				} else {
-					throw new IllegalStateException();
+					unconsumedConsumables.remove(tracked.hash);
 				}
-			});
-		} else {
-			emitter.onNext(transactionAtom);
-			addConsumables(transactionAtom, emitter);
+			}
 		}
 	}
 
-	public TransactionAtomsUpdate accept(TransactionAtom transactionAtom) {
-		ConnectableObservable<TransactionAtom> observable =
-			io.reactivex.Observable.<TransactionAtom>create(emitter -> {
-				synchronized (TransactionAtoms.this) {
-					checkConsumers(transactionAtom, emitter);
+	private void drain() {
+		if (wip.getAndIncrement() != 0) {
+			return;
+		}
+
+		int missed = 1;
+		do {
+			Event event;
+			while ((event = queue.poll()) != null) {
+				if (event.atom != null) {
+					try {
+						handle(new Waiting(event.atom, track(event.atom), event.onValid));
+					} catch (RuntimeException e) {
+						LOGGER.error("Unable to validate atom " + event.atom.getHid(), e);
+					}
+				}
+				if (event.onHandled != null) {
+					try {
+						event.onHandled.run();
+					} catch (RuntimeException e) {
+						LOGGER.error("Unable to complete handling of an event", e);
+					}
 				}
-				emitter.onComplete();
-			}).replay();
+			}
+			missed = wip.addAndGet(-missed);
+		} while (missed != 0);
+	}
+
+	/**
+	 * Adds a transaction, calling back with it and any waiting transaction it made valid, in
+	 * order of validation. The callback may run on another thread accepting concurrently,
+	 * after this method has returned.
+	 *
+	 * @param transactionAtom transaction to add
+	 * @param onValid called with each transaction becoming valid
+	 */
+	public void accept(TransactionAtom transactionAtom, Consumer<TransactionAtom> onValid) {
+		queue.offer(new Event(transactionAtom, onValid, null));
+		drain();
+	}
 
-		observable.connect();
+	private io.reactivex.Maybe<Collection<Consumable>> snapshot() {
+		return io.reactivex.Maybe.create(emitter -> {
+			queue.offer(new Event(null, null, () -> {
+				if (snapshotStale) {
+					snapshot = Collections.unmodifiableList(new ArrayList<>(unconsumedConsumables.values()));
+					snapshotStale = false;
+				}
+				emitter.onSuccess(snapshot);
+			}));
+			drain();
+		});
+	}
 
-		return new TransactionAtomsUpdate(observable);
+	/**
+	 * Adds a transaction without blocking. The update completes once the transaction has been
+	 * handled, straight away unless another thread, or a callback of this one, is draining.
+	 *
+	 * @param transactionAtom transaction to add
+	 * @return the transactions made valid by this one
+	 */
+	public TransactionAtomsUpdate accept(TransactionAtom transactionAtom) {
+		final ReplaySubject<TransactionAtom> newValidTransactions = ReplaySubject.create();
+		queue.offer(new Event(transactionAtom, newValidTransactions::onNext, newValidTransactions::onComplete));
+		drain();
+		return new TransactionAtomsUpdate(newValidTransactions);
 	}
 }
@@ -0,0 +1,188 @@
+package com.radixdlt.client.core;
+
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Schedulers the library runs its work on. Network I/O runs on OkHttp's threads, which
+ * only read frames and hand them over to the decode scheduler through a bounded queue.
+ * Decoding and routing of messages runs on the decode scheduler, after which validation,
+ * proof of work and signing run on the computation scheduler. Values are finally passed
+ * to the application on the callbacks scheduler, e.g. the main thread of a UI.
+ * <p>
+ * Schedulers must be set before bootstrapping a universe to apply to all of its work.
+ * Work of the library is marked as such whatever thread it runs on, see {@link #isNonBlocking()}.
+ */
+public final class RadixSchedulers {
+	/**
+	 * Default number of threads decoding messages
+	 */
+	public static final int DEFAULT_DECODE_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+
+	/**
+	 * Threads of the schedulers created by {@link #fixed(String, int)}
+	 */
+	private static final class RadixThread extends Thread {
+		private RadixThread(Runnable runnable, String name) {
+			super(runnable, name);
+		}
+	}
+
+	/**
+	 * Whether the current thread runs work of the library on a thread it does not own
+	 */
+	private static final ThreadLocal<Boolean> NON_BLOCKING = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+	/**
+	 * Scheduler marking the work it runs as work of the library
+	 */
+	private static final class NonBlockingScheduler extends Scheduler {
+		private final Scheduler actual;
+
+		private NonBlockingScheduler(Scheduler actual) {
+			this.actual = actual;
+		}
+
+		@Override
+		public Worker createWorker() {
+			final Worker worker = actual.createWorker();
+			return new Worker() {
+				@Override
+				public Disposable schedule(Runnable run, long delay, TimeUnit unit) {
+					return worker.schedule(() -> runNonBlocking(run), delay, unit);
+				}
+
+				@Override
+				public long now(TimeUnit unit) {
+					return worker.now(unit);
+				}
+
+				@Override
+				public void dispose() {
+					worker.dispose();
+				}
+
+				@Override
+				public boolean isDisposed() {
+					return worker.isDisposed();
+				}
+			};
+		}
+
+		@Override
+		public Disposable scheduleDirect(Runnable run, long delay, TimeUnit unit) {
+			return actual.scheduleDirect(() -> runNonBlocking(run), delay, unit);
+		}
+
+		@Override
+		public long now(TimeUnit unit) {
+			return actual.now(unit);
+		}
+	}
+
+	private static volatile Scheduler decode;
+
+	private static volatile Scheduler computation = new NonBlockingScheduler(Schedulers.computation());
+
+	private static volatile Scheduler callbacks = Schedulers.trampoline();
+
+	private RadixSchedulers() {
+	}
+
+	/**
+	 * Creates a scheduler backed by a fixed number of daemon threads
+	 *
+	 * @param name prefix of the names of the threads
+	 * @param threads number of threads
+	 * @return the scheduler
+	 */
+	public static Scheduler fixed(String name, int threads) {
+		final AtomicInteger count = new AtomicInteger();
+		return Schedulers.from(Executors.newFixedThreadPool(threads, runnable -> {
+			final Thread thread = new RadixThread(runnable, name + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}));
+	}
+
+	/**
+	 * Runs work of the library on the current thread, marking it as work which must not block,
+	 * e.g. a callback of OkHttp
+	 *
+	 * @param work work to run
+	 */
+	public static void runNonBlocking(Runnable work) {
+		if (NON_BLOCKING.get()) {
+			work.run();
+			return;
+		}
+
+		NON_BLOCKING.set(Boolean.TRUE);
+		try {
+			work.run();
+		} finally {
+			NON_BLOCKING.set(Boolean.FALSE);
+		}
+	}
+
+	/**
+	 * Whether the current thread is one of the library or runs its work, e.g. a callback of
+	 * the library on the decode or computation scheduler or on a thread of OkHttp. Blocking it
+	 * while waiting for the library may stall the very work waited for. Other RxJava threads
+	 * are refused by RxJava's blocking operators once
+	 * {@link io.reactivex.plugins.RxJavaPlugins#setFailOnNonBlockingScheduler(boolean)} is set.
+	 *
+	 * @return true if the current thread must not block
+	 */
+	public static boolean isNonBlocking() {
+		return Thread.currentThread() instanceof RadixThread || NON_BLOCKING.get();
+	}
+
+	/**
+	 * @return scheduler decoding and routing messages received from nodes, by default
+	 * {@link #DEFAULT_DECODE_THREADS} dedicated threads
+	 */
+	public static Scheduler decode() {
+		if (decode == null) {
+			synchronized (RadixSchedulers.class) {
+				if (decode == null) {
+					decode = new NonBlockingScheduler(fixed("radix-decode", DEFAULT_DECODE_THREADS));
+				}
+			}
+		}
+		return decode;
+	}
+
+	/**
+	 * @return scheduler running CPU bound work such as validation, proof of work and signing,
+	 * by default {@link Schedulers#computation()}
+	 */
+	public static Scheduler computation() {
+		return computation;
+	}
+
+	/**
+	 * @return scheduler values are passed to the application on, by default the thread
+	 * producing them
+	 */
+	public static Scheduler callbacks() {
+		return callbacks;
+	}
+
+	public static void setDecode(Scheduler scheduler) {
+		decode = new NonBlockingScheduler(Objects.requireNonNull(scheduler));
+	}
+
+	public static void setComputation(Scheduler scheduler) {
+		computation = new NonBlockingScheduler(Objects.requireNonNull(scheduler));
+	}
+
+	public static void setCallbacks(Scheduler scheduler) {
+		callbacks = Objects.requireNonNull(scheduler);
+	}
+}
@@ -2,6 +2,7 @@ package com.radixdlt.client.core;
 
 import com.radixdlt.client.core.ledger.ConsumableDataSource;
 import com.radixdlt.client.core.address.RadixAddress;
+import com.radixdlt.client.core.atoms.Atom;
 import com.radixdlt.client.core.address.RadixUniverseConfig;
 import com.radixdlt.client.core.crypto.ECPublicKey;
 import com.radixdlt.client.core.ledger.AtomFetcher;
@@ -9,12 +10,17 @@ import com.radixdlt.client.core.ledger.AtomPuller;
 import com.radixdlt.client.core.ledger.AtomStore;
 import com.radixdlt.client.core.ledger.AtomSubmitter;
 import com.radixdlt.client.core.ledger.ParticleStore;
+import com.radixdlt.client.core.ledger.PendingAtomStore;
 import com.radixdlt.client.core.ledger.RadixAtomPuller;
 import com.radixdlt.client.core.ledger.RadixAtomSubmitter;
 import com.radixdlt.client.core.ledger.ClientSelector;
 import com.radixdlt.client.core.ledger.InMemoryAtomStore;
+import com.radixdlt.client.core.ledger.WritableAtomStore;
+import com.radixdlt.client.core.network.AtomCursor;
 import com.radixdlt.client.core.network.PeerDiscovery;
 import com.radixdlt.client.core.network.RadixNetwork;
+import com.radixdlt.client.core.util.LruCache;
+import io.reactivex.Observable;
 
 /**
  * A RadixUniverse represents the interface through which a client can interact
@@ -41,8 +47,15 @@ public final class RadixUniverse {
 		AtomStore getAtomStore();
 
 		AtomSubmitter getAtomSubmitter();
+
+		AtomFetcher getAtomFetcher();
 	}
 
+	/**
+	 * Number of addresses derived from public keys which are kept
+	 */
+	public static final int MAX_CACHED_ADDRESSES = 10_000;
+
 	/**
 	 * Lock to protect default Radix Universe instance
 	 */
@@ -64,6 +77,23 @@ public final class RadixUniverse {
 	public static RadixUniverse bootstrap(
 		RadixUniverseConfig config,
 		PeerDiscovery peerDiscovery
+	) {
+		return bootstrap(config, peerDiscovery, new InMemoryAtomStore());
+	}
+
+	/**
+	 * Initializes the default universe with a Peer Discovery mechanism and a store
+	 * for the atoms fetched from the network, e.g. a {@link com.radixdlt.client.core.ledger.FileAtomStore} to keep
+	 * atoms across restarts. Should only be called once at the start of the program.
+	 *
+	 * @param peerDiscovery The peer discovery mechanism
+	 * @param atomStore The store to keep atoms in
+	 * @return The default universe created, can also be retrieved with RadixUniverse.getInstance()
+	 */
+	public static RadixUniverse bootstrap(
+		RadixUniverseConfig config,
+		PeerDiscovery peerDiscovery,
+		WritableAtomStore atomStore
 	) {
 		synchronized (lock) {
 			if (defaultUniverse != null) {
@@ -72,7 +102,7 @@ public final class RadixUniverse {
 
 			RadixNetwork network = new RadixNetwork(peerDiscovery);
 
-			defaultUniverse = new RadixUniverse(config, network);
+			defaultUniverse = new RadixUniverse(config, network, atomStore);
 
 			return defaultUniverse;
 		}
@@ -107,7 +137,12 @@ public final class RadixUniverse {
 
 	private final Ledger ledger;
 
-	private RadixUniverse(RadixUniverseConfig config, RadixNetwork network) {
+	/**
+	 * Addresses of the most recently used public keys
+	 */
+	private final LruCache<ECPublicKey, RadixAddress> addresses = new LruCache<>(MAX_CACHED_ADDRESSES, address -> 1L);
+
+	private RadixUniverse(RadixUniverseConfig config, RadixNetwork network, WritableAtomStore atomStore) {
 		this.config = config;
 		this.network = network;
 
@@ -115,15 +150,46 @@ public final class RadixUniverse {
 		// TODO: cleanup
 		this.ledger = new Ledger() {
 			private final ClientSelector clientSelector = new ClientSelector(config, network);
-			private final AtomFetcher atomFetcher = new AtomFetcher(clientSelector::getRadixClient);
-			private final InMemoryAtomStore inMemoryAtomStore = new InMemoryAtomStore();
-			private final AtomPuller atomPuller = new RadixAtomPuller(atomFetcher::fetchAtoms, inMemoryAtomStore::store);
-			private final AtomSubmitter atomSubmitter = new RadixAtomSubmitter(clientSelector::getRadixClient);
+			private final AtomFetcher atomFetcher = new AtomFetcher(clientSelector::getRadixClient, 0, RadixSchedulers.computation());
 			/**
-			* The Particle Data Store
+			* The Particle Data Store, overlaid with the atoms this client submitted
 			* TODO: actually change it into the particle data store
 			*/
-			private final ConsumableDataSource particleStore = new ConsumableDataSource(inMemoryAtomStore);
+			private final PendingAtomStore pendingAtomStore = new PendingAtomStore(
+				new ConsumableDataSource(atomStore),
+				new RadixAtomSubmitter(clientSelector::getRadixClient),
+				// Atoms whose submission lost its connection are looked up in a shard they were submitted to
+				atom -> atomFetcher.fetchAtom(atom.getRequiredFirstShard().iterator().next(), atom.getHid())
+			);
+			private final RadixAtomPuller atomPuller = new RadixAtomPuller(this::fetchAtoms, (address, atom) -> {
+				atomStore.store(address, atom);
+				pendingAtomStore.reconcile(atom);
+			});
+
+			{
+				// Evicted addresses have to be fetched again from the start, so those still pulled
+				// are kept as fetching them again would only fill the store up again
+				if (atomStore instanceof InMemoryAtomStore) {
+					((InMemoryAtomStore) atomStore).setRetained(atomPuller::isPulling);
+					((InMemoryAtomStore) atomStore).addEvictionListener(address -> {
+						// Cursor first as the puller restarts the fetch of addresses pulled since
+						atomFetcher.resetCursor(address);
+						atomPuller.reset(address);
+					});
+				}
+			}
+
+			/**
+			 * Fetches atoms of an address after those already stored, e.g. in a previous run
+			 */
+			private Observable<Atom> fetchAtoms(RadixAddress address) {
+				return Observable.defer(() -> {
+					atomStore.getLastAtom(address)
+						.filter(atom -> atom.getTimestamp() != null)
+						.ifPresent(atom -> atomFetcher.seedCursor(address, AtomCursor.of(atom)));
+					return atomFetcher.fetchAtoms(address);
+				});
+			}
 
 			@Override
 			public AtomPuller getAtomPuller() {
@@ -131,18 +197,23 @@ public final class RadixUniverse {
 			}
 
 			@Override
-			public ConsumableDataSource getParticleStore() {
-				return particleStore;
+			public PendingAtomStore getParticleStore() {
+				return pendingAtomStore;
 			}
 
 			@Override
 			public AtomStore getAtomStore() {
-				return inMemoryAtomStore;
+				return atomStore;
+			}
+
+			@Override
+			public PendingAtomStore getAtomSubmitter() {
+				return pendingAtomStore;
 			}
 
 			@Override
-			public AtomSubmitter getAtomSubmitter() {
-				return atomSubmitter;
+			public AtomFetcher getAtomFetcher() {
+				return atomFetcher;
 			}
 		};
 	}
@@ -176,7 +247,15 @@ public final class RadixUniverse {
 	 * @return the corresponding address to the key for this universe
 	 */
 	public RadixAddress getAddressFrom(ECPublicKey publicKey) {
-		return new RadixAddress(config, publicKey);
+		// Deriving an address hashes and Base58 encodes, done once for the most used keys
+		final RadixAddress cached = addresses.get(publicKey);
+		if (cached != null) {
+			return cached;
+		}
+
+		final RadixAddress address = new RadixAddress(config, publicKey);
+		addresses.put(publicKey, address);
+		return address;
 	}
 
 	/**
@@ -19,6 +19,16 @@ public abstract class Atom {
 	private final Map<String, ECSignature> signatures;
 	private transient Map<String, Long> debug = new HashMap<>();
 
+	/**
+	 * Hash of the DSON form, computed once as atoms are immutable
+	 */
+	private transient volatile RadixHash hash;
+
+	/**
+	 * Size in bytes of the DSON form, set before the hash
+	 */
+	private transient int dsonSize;
+
 	Atom() {
 		this.destinations = Collections.emptySet();
 		this.timestamps = null;
@@ -125,7 +135,22 @@ public abstract class Atom {
 	}
 
 	public RadixHash getHash() {
-		return RadixHash.of(Dson.getInstance().toDson(this));
+		RadixHash result = hash;
+		if (result == null) {
+			final byte[] dson = toDson();
+			dsonSize = dson.length;
+			result = RadixHash.of(dson);
+			hash = result;
+		}
+		return result;
+	}
+
+	/**
+	 * @return size in bytes of the DSON form of this atom
+	 */
+	public int getDsonSize() {
+		getHash();
+		return dsonSize;
 	}
 
 	public EUID getHid() {
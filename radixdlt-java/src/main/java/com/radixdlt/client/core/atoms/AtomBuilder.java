@@ -7,7 +7,10 @@ import com.radixdlt.client.core.crypto.ECPublicKey;
 import com.radixdlt.client.core.crypto.ECSignature;
 import com.radixdlt.client.core.crypto.EncryptedPrivateKey;
 import com.radixdlt.client.core.crypto.Encryptor;
+import com.radixdlt.client.core.tracing.Span;
+import com.radixdlt.client.core.tracing.Tracing;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -72,6 +75,13 @@ public class AtomBuilder {
 		return this;
 	}
 
+	/**
+	 * @return particles added so far
+	 */
+	public List<Particle> getParticles() {
+		return Collections.unmodifiableList(particles);
+	}
+
 	public <T extends Atom> AtomBuilder type(Class<T> atomClass) {
 		this.atomClass = atomClass;
 		return this;
@@ -82,11 +92,17 @@ public class AtomBuilder {
 		UnsignedAtom unsignedAtom = this.build();
 		int size = unsignedAtom.getRawAtom().toDson().length;
 
-		AtomFeeConsumable fee = new AtomFeeConsumableBuilder()
-			.atom(unsignedAtom)
-			.owner(owner)
-			.pow(magic, (int) Math.ceil(Math.log(size * 8.0)))
-			.build();
+		final Span pow = Tracing.startSpan("pow");
+		final AtomFeeConsumable fee;
+		try {
+			fee = new AtomFeeConsumableBuilder()
+				.atom(unsignedAtom)
+				.owner(owner)
+				.pow(magic, (int) Math.ceil(Math.log(size * 8.0)))
+				.build();
+		} finally {
+			pow.end();
+		}
 
 		this.addParticle(fee);
 
@@ -20,6 +20,10 @@ public class Consumer extends AbstractConsumable {
 		return -getQuantity();
 	}
 
+	public Consumable toConsumable() {
+		return new Consumable(getQuantity(), getOwners(), getNonce(), getAssetId());
+	}
+
 	public void addConsumerQuantities(long amount, Set<ECKeyPair> newOwners, Map<Set<ECKeyPair>, Long> consumerQuantities) {
 		if (amount > getQuantity()) {
 			throw new IllegalArgumentException(
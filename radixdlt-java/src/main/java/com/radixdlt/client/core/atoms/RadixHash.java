@@ -4,7 +4,6 @@ import com.radixdlt.client.core.address.EUID;
 import com.radixdlt.client.core.crypto.ECPublicKey;
 import com.radixdlt.client.core.crypto.ECSignature;
 import com.radixdlt.client.core.util.Hash;
-import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import org.bouncycastle.util.encoders.Base64;
@@ -65,7 +64,8 @@ public class RadixHash {
 
 	@Override
 	public int hashCode() {
-		return new BigInteger(hash).hashCode();
+		// Leading bytes of a digest are already uniformly distributed
+		return ByteBuffer.wrap(hash).getInt();
 	}
 
 	@Override
@@ -4,6 +4,7 @@ import com.radixdlt.client.core.address.EUID;
 import com.radixdlt.client.core.crypto.ECPublicKey;
 import com.radixdlt.client.core.crypto.ECSignature;
 import com.radixdlt.client.core.crypto.Encryptor;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -59,16 +60,17 @@ public class TransactionAtom extends PayloadAtom {
 
 
 	public Map<Set<ECPublicKey>, Map<EUID, Long>> summary() {
-		return getParticles().stream()
-			.filter(Particle::isAbstractConsumable)
-			.map(Particle::getAsAbstractConsumable)
-			.collect(Collectors.groupingBy(
-				AbstractConsumable::getOwnersPublicKeys,
-				Collectors.groupingBy(
-					AbstractConsumable::getAssetId,
-					Collectors.summingLong(AbstractConsumable::getSignedQuantity)
-				)
-			));
+		// Single pass with plain maps, this is called for every transaction of every address
+		final Map<Set<ECPublicKey>, Map<EUID, Long>> summary = new HashMap<>();
+		for (Particle particle : getParticles()) {
+			if (!particle.isAbstractConsumable()) {
+				continue;
+			}
+			final AbstractConsumable consumable = particle.getAsAbstractConsumable();
+			summary.computeIfAbsent(consumable.getOwnersPublicKeys(), owners -> new HashMap<>())
+				.merge(consumable.getAssetId(), consumable.getSignedQuantity(), Long::sum);
+		}
+		return summary;
 	}
 
 	public Map<Set<ECPublicKey>, Map<EUID, List<Long>>> consumableSummary() {
@@ -3,6 +3,7 @@ package com.radixdlt.client.core.crypto;
 import com.google.gson.annotations.SerializedName;
 import com.radixdlt.client.core.address.EUID;
 import com.radixdlt.client.core.atoms.RadixHash;
+import com.radixdlt.client.core.metrics.Metrics;
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
@@ -105,12 +106,13 @@ public class ECKeyPair {
 
 
 	public ECSignature sign(byte[] data) {
-		ECDomainParameters domain = ECKeyPairGenerator.getDomain((getPublicKey().length() - 1) * 8);
-		ECDSASigner signer = new ECDSASigner();
-		signer.init(true, new ECPrivateKeyParameters(new BigInteger(1, getPrivateKey()), domain));
-		BigInteger[] components = signer.generateSignature(data);
-		ECSignature signature = new ECSignature(components[0], components[1]);
-		return signature;
+		return Metrics.getRegistry().timer(Metrics.SIGN).record(() -> {
+			ECDomainParameters domain = ECKeyPairGenerator.getDomain((getPublicKey().length() - 1) * 8);
+			ECDSASigner signer = new ECDSASigner();
+			signer.init(true, new ECPrivateKeyParameters(new BigInteger(1, getPrivateKey()), domain));
+			BigInteger[] components = signer.generateSignature(data);
+			return new ECSignature(components[0], components[1]);
+		});
 	}
 
 	public byte[] decrypt(byte[] data, EncryptedPrivateKey sharedKey) throws CryptoException {
@@ -2,6 +2,7 @@ package com.radixdlt.client.core.crypto;
 
 import com.radixdlt.client.core.address.EUID;
 import com.radixdlt.client.core.atoms.RadixHash;
+import com.radixdlt.client.core.metrics.Metrics;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -62,18 +63,19 @@ public class ECPublicKey implements Base64Encoded {
 	}
 
 	public boolean verify(byte[] data, ECSignature signature) {
-		ECDomainParameters domain = ECKeyPairGenerator.getDomain((this.length() - 1) * 8);
+		return Metrics.getRegistry().timer(Metrics.VERIFY).record(() -> {
+			ECDomainParameters domain = ECKeyPairGenerator.getDomain((this.length() - 1) * 8);
 
-		ECDSASigner verifier = new ECDSASigner();
-		verifier.init(false, new ECPublicKeyParameters(domain.getCurve().decodePoint(publicKey), domain));
+			ECDSASigner verifier = new ECDSASigner();
+			verifier.init(false, new ECPublicKeyParameters(domain.getCurve().decodePoint(publicKey), domain));
 
-		return verifier.verifySignature(data, signature.getR(), signature.getS());
+			return verifier.verifySignature(data, signature.getR(), signature.getS());
+		});
 	}
 
 	@Override
 	public int hashCode() {
-		// Slow but works for now
-		return base64().hashCode();
+		return Arrays.hashCode(publicKey);
 	}
 
 	@Override
@@ -82,10 +84,8 @@ public class ECPublicKey implements Base64Encoded {
 			return false;
 		}
 
-		ECPublicKey publicKey = (ECPublicKey) o;
-
-		// Slow but works for now
-		return publicKey.base64().equals(this.base64());
+		ECPublicKey other = (ECPublicKey) o;
+		return Arrays.equals(other.publicKey, this.publicKey);
 	}
 
 	@Override
@@ -1,51 +1,189 @@
 package com.radixdlt.client.core.ledger;
 
+import com.radixdlt.client.core.address.EUID;
 import com.radixdlt.client.core.address.RadixAddress;
 import com.radixdlt.client.core.atoms.Atom;
 import com.radixdlt.client.core.atoms.AtomValidationException;
+import com.radixdlt.client.core.metrics.Metrics;
+import com.radixdlt.client.core.network.AtomCursor;
 import com.radixdlt.client.core.network.AtomQuery;
 import com.radixdlt.client.core.network.IncreasingRetryTimer;
 import com.radixdlt.client.core.network.RadixJsonRpcClient;
+import com.radixdlt.client.core.util.BoundedHandoff;
+import io.reactivex.Maybe;
 import io.reactivex.Observable;
+import io.reactivex.Scheduler;
 import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Module responsible for selecting a node and fetching atoms and retrying if necessary.
+ * The position of the last atom fetched is kept for each address so that refetching,
+ * whether on retry or on a later pull, resumes from there rather than from the beginning.
  */
 public class AtomFetcher {
 	private static final Logger LOGGER = LoggerFactory.getLogger(AtomFetcher.class);
 
+	/**
+	 * Default number of atoms received but not yet validated before receiving stops
+	 */
+	public static final int DEFAULT_MAX_QUEUED_ATOMS = 1024;
+
 	/**
 	 * Mechanism by which to get a valid client to connect to.
 	 */
 	private final Function<Long, Single<RadixJsonRpcClient>> clientSelector;
 
+	/**
+	 * Number of atoms per page when fetching history, zero to fetch history and
+	 * live atoms in a single subscription
+	 */
+	private final int pageSize;
+
+	/**
+	 * Position of the last atom fetched for each address, in the order the node sent them
+	 */
+	private final ConcurrentHashMap<RadixAddress, AtomCursor> cursors = new ConcurrentHashMap<>();
+
+	/**
+	 * Scheduler atoms are validated and passed on with
+	 */
+	private final Scheduler validationScheduler;
+
 	public AtomFetcher(Function<Long, Single<RadixJsonRpcClient>> clientSelector) {
+		this(clientSelector, 0);
+	}
+
+	public AtomFetcher(Function<Long, Single<RadixJsonRpcClient>> clientSelector, int pageSize) {
+		this(clientSelector, pageSize, Schedulers.trampoline());
+	}
+
+	/**
+	 * @param clientSelector mechanism by which to get a valid client to connect to
+	 * @param pageSize number of atoms per page when fetching history, zero for a single subscription
+	 * @param validationScheduler scheduler atoms are validated and passed on with, trampoline
+	 * to do so on the thread receiving them. Receiving blocks while
+	 * {@link #DEFAULT_MAX_QUEUED_ATOMS} atoms are waiting to be validated.
+	 */
+	public AtomFetcher(Function<Long, Single<RadixJsonRpcClient>> clientSelector, int pageSize, Scheduler validationScheduler) {
+		if (pageSize < 0) {
+			throw new IllegalArgumentException("pageSize must not be negative but was " + pageSize);
+		}
+
 		this.clientSelector = clientSelector;
+		this.pageSize = pageSize;
+		this.validationScheduler = validationScheduler;
+	}
+
+	/**
+	 * Position of the last atom fetched for an address
+	 *
+	 * @param address address to get position of
+	 * @return the position, empty if nothing has been fetched yet
+	 */
+	public Optional<AtomCursor> getCursor(RadixAddress address) {
+		return Optional.ofNullable(cursors.get(address));
+	}
+
+	/**
+	 * Sets the position an address is fetched from unless something has been fetched for it
+	 * already, e.g. the position of the atoms kept from a previous run
+	 *
+	 * @param address address to set the position of
+	 * @param cursor position to fetch from
+	 */
+	public void seedCursor(RadixAddress address, AtomCursor cursor) {
+		cursors.putIfAbsent(address, cursor);
+	}
+
+	/**
+	 * Forgets the position of an address so that its next fetch starts from the
+	 * beginning. Required whenever the atoms previously fetched are no longer stored.
+	 *
+	 * @param address address to reset
+	 */
+	public void resetCursor(RadixAddress address) {
+		cursors.remove(address);
+	}
+
+	private Observable<Atom> fetchHistory(RadixJsonRpcClient client, AtomQuery<Atom> pageQuery) {
+		return client.getAtomsPage(pageQuery)
+			.flatMapObservable(page -> {
+				final Observable<Atom> atoms = Observable.fromIterable(page);
+				if (page.size() < pageSize) {
+					return atoms;
+				}
+
+				// Pages come in atom order so the next page starts after the last atom
+				final AtomCursor next = AtomCursor.of(page.get(page.size() - 1));
+				return atoms.concatWith(Observable.defer(() -> fetchHistory(client, pageQuery.withCursor(next))));
+			});
+	}
+
+	private static boolean isValid(Atom atom) {
+		try {
+			RadixAtomValidator.getInstance().validate(atom);
+			Metrics.getRegistry().counter(Metrics.ATOMS_VALIDATED).increment();
+			return true;
+		} catch (AtomValidationException e) {
+			// TODO: Stop stream and mark client as untrustable
+			LOGGER.error(e.toString());
+			Metrics.getRegistry().counter(Metrics.ATOMS_REJECTED).increment();
+			return false;
+		}
+	}
+
+	/**
+	 * Fetches a single atom stored under an address from a node serving the address
+	 *
+	 * @param address address the atom is stored under
+	 * @param hid hash id of the atom
+	 * @return the atom, empty if the node does not have it or it is invalid
+	 */
+	public Maybe<Atom> fetchAtom(RadixAddress address, EUID hid) {
+		return fetchAtom(address.getUID().getShard(), hid);
+	}
+
+	/**
+	 * Fetches a single atom from a node serving a shard the atom is stored in
+	 *
+	 * @param shard shard the atom is stored in
+	 * @param hid hash id of the atom
+	 * @return the atom, empty if the node does not have it or it is invalid
+	 */
+	public Maybe<Atom> fetchAtom(long shard, EUID hid) {
+		return Single.defer(() -> clientSelector.apply(shard))
+			.flatMapMaybe(client -> client.getAtom(hid))
+			.doOnSuccess(atom -> Metrics.getRegistry().counter(Metrics.ATOMS_RECEIVED).increment())
+			.observeOn(validationScheduler)
+			.filter(AtomFetcher::isValid);
 	}
 
 	public Observable<Atom> fetchAtoms(RadixAddress address) {
-		final AtomQuery<Atom> atomQuery = new AtomQuery<>(address.getUID(), Atom.class);
 		return Observable.fromCallable(() -> clientSelector.apply(address.getUID().getShard()))
 			.flatMapSingle(c -> c)
-			.flatMap(client -> client.getAtoms(atomQuery))
+			.flatMap(client -> {
+				final AtomQuery<Atom> atomQuery = new AtomQuery<>(address.getUID(), Atom.class, cursors.get(address), 0);
+				if (pageSize == 0) {
+					return client.getAtoms(atomQuery);
+				}
+
+				return fetchHistory(client, atomQuery.withLimit(pageSize))
+					.concatWith(Observable.defer(() -> client.getAtoms(atomQuery.withCursor(cursors.get(address)))));
+			})
 			.doOnError(throwable -> {
 				LOGGER.warn("Error on getAllAtoms: {}", address);
 			})
 			.retryWhen(new IncreasingRetryTimer())
-			.filter(atom -> {
-				try {
-					RadixAtomValidator.getInstance().validate(atom);
-					return true;
-				} catch (AtomValidationException e) {
-					// TODO: Stop stream and mark client as untrustable
-					LOGGER.error(e.toString());
-					return false;
-				}
-			})
-			.doOnSubscribe(atoms -> LOGGER.info("Atom Query Subscribe: address({})", address));
+			.compose(BoundedHandoff.observeOn(validationScheduler, DEFAULT_MAX_QUEUED_ATOMS))
+			.doOnNext(atom -> Metrics.getRegistry().counter(Metrics.ATOMS_RECEIVED).increment())
+			.filter(AtomFetcher::isValid)
+			.doOnNext(atom -> cursors.compute(address, (a, cursor) -> AtomCursor.advance(cursor, atom)))
+			.doOnSubscribe(atoms -> LOGGER.info("Atom Query Subscribe: address({}) from({})", address, cursors.get(address)));
 	}
 }
@@ -1,8 +1,25 @@
 package com.radixdlt.client.core.ledger;
 
 import com.radixdlt.client.core.address.RadixAddress;
+import io.reactivex.disposables.CompositeDisposable;
 import io.reactivex.disposables.Disposable;
+import java.util.Collection;
 
 public interface AtomPuller {
 	Disposable pull(RadixAddress address);
+
+	/**
+	 * Pulls atoms for many addresses at once. Each address still gets its own
+	 * subscription but they share connections with other addresses of the same shards.
+	 *
+	 * @param addresses addresses to pull atoms for
+	 * @return disposable which stops pulling all of the addresses
+	 */
+	default Disposable pull(Collection<RadixAddress> addresses) {
+		final CompositeDisposable disposables = new CompositeDisposable();
+		for (RadixAddress address : addresses) {
+			disposables.add(pull(address));
+		}
+		return disposables;
+	}
 }
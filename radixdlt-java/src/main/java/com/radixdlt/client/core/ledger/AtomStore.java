@@ -2,8 +2,23 @@ package com.radixdlt.client.core.ledger;
 
 import com.radixdlt.client.core.address.RadixAddress;
 import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.util.Backpressure;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 
 public interface AtomStore {
 	Observable<Atom> getAtoms(RadixAddress address);
+
+	/**
+	 * Atoms stored under an address, at the pace of the subscriber. Stores which keep
+	 * their atoms replay them on demand, others handle atoms the subscriber is not
+	 * ready for with the given strategy.
+	 *
+	 * @param address address to get atoms of
+	 * @param backpressure what to do with atoms the subscriber is not ready for
+	 * @return a Flowable of atoms
+	 */
+	default Flowable<Atom> getAtoms(RadixAddress address, Backpressure backpressure) {
+		return backpressure.apply(getAtoms(address));
+	}
 }
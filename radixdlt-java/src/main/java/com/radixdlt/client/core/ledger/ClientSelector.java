@@ -33,10 +33,25 @@ public class ClientSelector {
 	 */
 	private final RadixNetwork radixNetwork;
 
+	/**
+	 * Maximum number of subscriptions to open on a single connection before
+	 * moving on to another node serving the same shards
+	 */
+	private final int maxSubscriptionsPerClient;
+
 	public ClientSelector(RadixUniverseConfig config, RadixNetwork radixNetwork) {
+		this(config, radixNetwork, Integer.MAX_VALUE);
+	}
+
+	public ClientSelector(RadixUniverseConfig config, RadixNetwork radixNetwork, int maxSubscriptionsPerClient) {
+		if (maxSubscriptionsPerClient < 1) {
+			throw new IllegalArgumentException("maxSubscriptionsPerClient must be positive but was " + maxSubscriptionsPerClient);
+		}
+
 		this.config = config;
 		this.radixNetwork = radixNetwork;
 		this.delaySecs = 3;
+		this.maxSubscriptionsPerClient = maxSubscriptionsPerClient;
 	}
 
 	/**
@@ -53,22 +68,27 @@ public class ClientSelector {
 	/**
 	 * Returns a cold observable of the first peer found which supports
 	 * a set short shards which intersects with a given set of shards.
+	 * Peers which already carry the maximum number of subscriptions are skipped
+	 * so that subscriptions for many addresses spread over the peers of each shard.
 	 *
 	 * @param shards set of shards to find an intersection with
 	 * @return a cold observable of the first matching Radix client
 	 */
 	public Single<RadixJsonRpcClient> getRadixClient(Set<Long> shards) {
 		return this.radixNetwork.getRadixClients(shards)
+			.filter(client -> client.getSubscriptionCount() < maxSubscriptionsPerClient)
 			.flatMapMaybe(client ->
 				client.getStatus()
 					.filter(status -> !status.equals(RadixClientStatus.FAILURE)
-						&& !status.equals(RadixClientStatus.CLOSING))
+						&& !status.equals(RadixClientStatus.CLOSING)
+						&& !status.equals(RadixClientStatus.RECONNECTING))
 					.map(status -> client)
 					.firstOrError()
 					.toMaybe()
 					.onErrorComplete()
 			)
-			.zipWith(Observable.interval(delaySecs, TimeUnit.SECONDS), (c, t) -> c)
+			// First candidate right away, later ones paced
+			.zipWith(Observable.interval(0, delaySecs, TimeUnit.SECONDS), (c, t) -> c)
 			.flatMapMaybe(client ->
 				client.getUniverse()
 					.doOnSuccess(cliUniverse -> {
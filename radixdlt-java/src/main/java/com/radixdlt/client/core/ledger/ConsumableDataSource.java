@@ -3,28 +3,147 @@ package com.radixdlt.client.core.ledger;
 import com.radixdlt.client.core.address.RadixAddress;
 import com.radixdlt.client.core.atoms.AbstractConsumable;
 import com.radixdlt.client.core.atoms.Atom;
-import com.radixdlt.client.core.atoms.TransactionAtom;
+import com.radixdlt.client.core.crypto.ECKeyPair;
+import com.radixdlt.client.core.util.Backpressure;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
-import java.util.concurrent.ConcurrentHashMap;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.processors.ReplayProcessor;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Particles owned by addresses, read from the atom store. The particles of an address are
+ * extracted once and shared by all its subscribers, and everything held for the address,
+ * including the subscription to the atom store, is released when its last subscriber leaves.
+ */
 public class ConsumableDataSource implements ParticleStore {
+	/**
+	 * Particles of an address shared by its current subscribers
+	 */
+	private final class Entry {
+		private final RadixAddress address;
+		private final ReplayProcessor<AbstractConsumable> particles = ReplayProcessor.create();
+
+		/**
+		 * Number of subscribers, guarded by entries
+		 */
+		private int subscribers;
+
+		/**
+		 * Subscription to the atom store, guarded by this
+		 */
+		private Disposable upstream;
+		private boolean released;
+
+		private Entry(RadixAddress address) {
+			this.address = address;
+		}
+
+		private void accept(Atom atom) {
+			if (!atom.isTransactionAtom()) {
+				return;
+			}
+			for (AbstractConsumable particle : atom.getAsTransactionAtom().getAbstractConsumables()) {
+				if (isOwnedBy(particle, address)) {
+					particles.onNext(particle);
+				}
+			}
+		}
+
+		private synchronized void connect() {
+			if (!released) {
+				upstream = atomStore.getAtoms(address).subscribe(this::accept, particles::onError);
+			}
+		}
+
+		private synchronized void release() {
+			released = true;
+			if (upstream != null) {
+				upstream.dispose();
+			}
+		}
+	}
+
 	private final AtomStore atomStore;
-	private final ConcurrentHashMap<RadixAddress, Observable<AbstractConsumable>> cache = new ConcurrentHashMap<>();
+
+	private final Map<RadixAddress, Entry> entries = new HashMap<>();
 
 	public ConsumableDataSource(AtomStore atomStore) {
 		this.atomStore = atomStore;
 	}
 
+	/**
+	 * Whether every owner of a particle is an address, compared key by key without
+	 * building the set of owner public keys
+	 */
+	private static boolean isOwnedBy(AbstractConsumable particle, RadixAddress address) {
+		final Set<ECKeyPair> owners = particle.getOwners();
+		if (owners == null) {
+			return true;
+		}
+		for (ECKeyPair owner : owners) {
+			if (!address.ownsKey(owner)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return number of addresses whose particles are currently held
+	 */
+	public int getActiveAddressCount() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
 	public Observable<AbstractConsumable> getConsumables(RadixAddress address) {
-		// TODO: use https://github.com/JakeWharton/RxReplayingShare to disconnect when unsubscribed
-		return cache.computeIfAbsent(address, addr -> atomStore.getAtoms(address)
-			.filter(Atom::isTransactionAtom)
-			.map(Atom::getAsTransactionAtom)
-			.flatMapIterable(TransactionAtom::getAbstractConsumables)
-			.filter(particle -> particle.getOwnersPublicKeys().stream().allMatch(address::ownsKey))
-			.cache()
-			//.replay(1)
-			//.autoConnect()
-		);
+		return particles(address).toObservable();
+	}
+
+	/**
+	 * Particles of an address replayed as fast as the subscriber asks for them. As all
+	 * particles are held anyway none are ever buffered or dropped on behalf of a slow
+	 * subscriber, whatever the strategy.
+	 *
+	 * @param address address to get the particles of
+	 * @param backpressure unused
+	 * @return a Flowable of particles
+	 */
+	@Override
+	public Flowable<AbstractConsumable> getConsumables(RadixAddress address, Backpressure backpressure) {
+		return particles(address);
+	}
+
+	private Flowable<AbstractConsumable> particles(RadixAddress address) {
+		return Flowable.defer(() -> {
+			final Entry entry;
+			final boolean first;
+			synchronized (entries) {
+				entry = entries.computeIfAbsent(address, Entry::new);
+				first = entry.subscribers++ == 0;
+			}
+
+			if (first) {
+				entry.connect();
+			}
+
+			return entry.particles.doFinally(() -> {
+				final boolean last;
+				synchronized (entries) {
+					last = --entry.subscribers == 0;
+					if (last) {
+						entries.remove(address);
+					}
+				}
+
+				if (last) {
+					entry.release();
+				}
+			});
+		});
 	}
 }
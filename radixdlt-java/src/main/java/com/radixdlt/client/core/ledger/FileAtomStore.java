@@ -0,0 +1,408 @@
+package com.radixdlt.client.core.ledger;
+
+import com.radixdlt.client.core.address.EUID;
+import com.radixdlt.client.core.address.RadixAddress;
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.serialization.RadixJson;
+import com.radixdlt.client.core.util.Backpressure;
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent implementation of a data store for atoms. Atoms are appended once to
+ * memory-mapped segment files however many addresses they are stored under, and an
+ * append-only index file records for each address the location of its atoms.
+ * Opening a store only scans the index, so atoms fetched in previous runs are available
+ * without going back to the network.
+ */
+public class FileAtomStore implements WritableAtomStore, Closeable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(FileAtomStore.class);
+
+	/**
+	 * Default size of a segment file
+	 */
+	public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+	private static final String INDEX_FILE = "atoms.idx";
+
+	/**
+	 * Atoms stored under an address
+	 */
+	private static class AddressAtoms {
+		/**
+		 * Location of each atom in order of storage
+		 */
+		private final List<Long> locations = new ArrayList<>();
+
+		/**
+		 * Hash ids of the atoms, to drop duplicates
+		 */
+		private final Set<EUID> hids = new HashSet<>();
+
+		/**
+		 * Validated atoms, built from disk on first subscribe and dropped after the last
+		 * unsubscribe, guarded by this
+		 */
+		private ValidatedAtomStream validated;
+
+		/**
+		 * Number of subscribers sharing the validated atoms, guarded by this
+		 */
+		private int subscribers;
+	}
+
+	private final File directory;
+
+	private final long segmentSize;
+
+	/**
+	 * Guards every structure below except for reads of already written segments.
+	 * May be taken while holding the lock of an address but not the other way round.
+	 */
+	private final Object lock = new Object();
+
+	private final List<FileChannel> channels = new ArrayList<>();
+
+	/**
+	 * Mapped segments, appended to under lock but read without it
+	 */
+	private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+
+	private final DataOutputStream index;
+
+	/**
+	 * Location of every atom stored, by hash id
+	 */
+	private final Map<EUID, Long> locations = new HashMap<>();
+
+	private final Map<RadixAddress, AddressAtoms> addresses = new HashMap<>();
+
+	/**
+	 * Position in the last segment at which the next atom will be written
+	 */
+	private int writePosition;
+
+	public FileAtomStore(File directory) throws IOException {
+		this(directory, DEFAULT_SEGMENT_SIZE);
+	}
+
+	public FileAtomStore(File directory, long segmentSize) throws IOException {
+		if (segmentSize <= 4 || segmentSize > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Invalid segment size: " + segmentSize);
+		}
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Unable to create directory " + directory);
+		}
+
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+
+		for (int i = 0; segmentFile(i).isFile(); i++) {
+			mapSegment(i, segmentFile(i).length());
+		}
+
+		final long start = System.currentTimeMillis();
+		final File indexFile = new File(directory, INDEX_FILE);
+		final long validLength = indexFile.isFile() ? loadIndex(indexFile) : 0;
+		if (indexFile.isFile() && validLength < indexFile.length()) {
+			// Drop a partly written entry left by a crash
+			try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.WRITE)) {
+				channel.truncate(validLength);
+			}
+		}
+		this.index = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile, true)));
+
+		LOGGER.info("Loaded {} atoms for {} addresses from {} in {}ms",
+			locations.size(), addresses.size(), directory, System.currentTimeMillis() - start);
+	}
+
+	private File segmentFile(int segment) {
+		return new File(directory, String.format("atoms-%05d.seg", segment));
+	}
+
+	private void mapSegment(int segment, long size) throws IOException {
+		final FileChannel channel = FileChannel.open(
+			segmentFile(segment).toPath(),
+			StandardOpenOption.CREATE,
+			StandardOpenOption.READ,
+			StandardOpenOption.WRITE
+		);
+		channels.add(channel);
+		segments.add(channel.map(MapMode.READ_WRITE, 0, size));
+	}
+
+	private static long location(int segment, int offset) {
+		return ((long) segment << 32) | (offset & 0xFFFFFFFFL);
+	}
+
+	private static int segmentOf(long location) {
+		return (int) (location >>> 32);
+	}
+
+	private static int offsetOf(long location) {
+		return (int) location;
+	}
+
+	/**
+	 * Scans the index file, rebuilding the in memory indexes
+	 *
+	 * @return length of the index up to the last complete entry
+	 */
+	private long loadIndex(File indexFile) throws IOException {
+		final Map<String, RadixAddress> parsedAddresses = new HashMap<>();
+		long validLength = 0;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+			while (true) {
+				final String base58 = in.readUTF();
+				final byte[] hidBytes = new byte[in.readUnsignedByte()];
+				in.readFully(hidBytes);
+				final int segment = in.readInt();
+				final int offset = in.readInt();
+				validLength += 2 + base58.length() + 1 + hidBytes.length + 8;
+
+				if (segment >= segments.size()) {
+					LOGGER.warn("Index refers to missing segment {}", segment);
+					continue;
+				}
+
+				final RadixAddress address = parsedAddresses.computeIfAbsent(base58, RadixAddress::new);
+				final EUID hid = new EUID(new BigInteger(hidBytes));
+				final long location = location(segment, offset);
+				locations.put(hid, location);
+				final AddressAtoms atoms = addresses.computeIfAbsent(address, a -> new AddressAtoms());
+				if (atoms.hids.add(hid)) {
+					atoms.locations.add(location);
+				}
+
+				if (segment == segments.size() - 1) {
+					final int end = offset + 4 + segments.get(segment).getInt(offset);
+					writePosition = Math.max(writePosition, end);
+				}
+			}
+		} catch (EOFException e) {
+			return validLength;
+		}
+	}
+
+	private long append(byte[] bytes) throws IOException {
+		final int needed = 4 + bytes.length;
+		if (segments.isEmpty() || writePosition + needed > segments.get(segments.size() - 1).capacity()) {
+			mapSegment(segments.size(), Math.max(segmentSize, needed));
+			writePosition = 0;
+		}
+
+		final int segment = segments.size() - 1;
+		final ByteBuffer buffer = segments.get(segment).duplicate();
+		buffer.position(writePosition);
+		buffer.putInt(bytes.length);
+		buffer.put(bytes);
+
+		final long location = location(segment, writePosition);
+		writePosition += needed;
+		return location;
+	}
+
+	private void writeIndex(RadixAddress address, EUID hid, long location) throws IOException {
+		final byte[] hidBytes = hid.bigInteger().toByteArray();
+		index.writeUTF(address.toString());
+		index.writeByte(hidBytes.length);
+		index.write(hidBytes);
+		index.writeInt(segmentOf(location));
+		index.writeInt(offsetOf(location));
+		index.flush();
+	}
+
+	private Atom read(long location) {
+		final ByteBuffer buffer = segments.get(segmentOf(location)).duplicate();
+		final int offset = offsetOf(location);
+		final byte[] bytes = new byte[buffer.getInt(offset)];
+		buffer.position(offset + 4);
+		buffer.get(bytes);
+		return RadixJson.getGson().fromJson(new String(bytes, StandardCharsets.UTF_8), Atom.class);
+	}
+
+	private AddressAtoms addressAtoms(RadixAddress address) {
+		synchronized (lock) {
+			return addresses.computeIfAbsent(address, a -> new AddressAtoms());
+		}
+	}
+
+	/**
+	 * Store an atom under a given destination. Atoms already stored under the
+	 * destination are ignored.
+	 *
+	 * @param address address to store under
+	 * @param atom the atom to store
+	 */
+	@Override
+	public void store(RadixAddress address, Atom atom) {
+		final EUID hid = atom.getHid();
+		final AddressAtoms atoms = addressAtoms(address);
+		synchronized (atoms) {
+			synchronized (lock) {
+				if (atoms.hids.contains(hid)) {
+					return;
+				}
+
+				try {
+					Long location = locations.get(hid);
+					if (location == null) {
+						// Wire format rather than DSON as DSON omits signatures and can't be decoded
+						final String json = RadixJson.getGson().toJson(atom, Atom.class);
+						location = append(json.getBytes(StandardCharsets.UTF_8));
+						locations.put(hid, location);
+					}
+					writeIndex(address, hid, location);
+					atoms.hids.add(hid);
+					atoms.locations.add(location);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+
+			if (atoms.validated != null) {
+				atoms.validated.accept(atom);
+			}
+		}
+	}
+
+	/**
+	 * Number of atoms stored under an address
+	 *
+	 * @param address address to count atoms of
+	 * @return number of atoms
+	 */
+	public int getAtomCount(RadixAddress address) {
+		synchronized (lock) {
+			final AddressAtoms atoms = addresses.get(address);
+			return atoms == null ? 0 : atoms.locations.size();
+		}
+	}
+
+	@Override
+	public Optional<Atom> getLastAtom(RadixAddress address) {
+		final long location;
+		synchronized (lock) {
+			final AddressAtoms atoms = addresses.get(address);
+			if (atoms == null || atoms.locations.isEmpty()) {
+				return Optional.empty();
+			}
+			location = atoms.locations.get(atoms.locations.size() - 1);
+		}
+		return Optional.of(read(location));
+	}
+
+	/**
+	 * Returns an unending stream of validated atoms which are stored at a particular destination,
+	 * starting with those already on disk. Atoms on disk are read and validated on the first
+	 * subscribe to the destination, then shared with the other subscribers until the last one
+	 * leaves, so the history of addresses no longer watched is not held in memory.
+	 *
+	 * @param address address (which determines shard) to query atoms for
+	 * @return an Atom Observable
+	 */
+	@Override
+	public Observable<Atom> getAtoms(RadixAddress address) {
+		return atoms(address).toObservable();
+	}
+
+	/**
+	 * Returns an unending stream of validated atoms which are stored at a particular destination,
+	 * replayed as fast as the subscriber asks for them. As all atoms are held anyway none are
+	 * ever buffered or dropped on behalf of a slow subscriber, whatever the strategy.
+	 *
+	 * @param address address (which determines shard) to query atoms for
+	 * @param backpressure unused
+	 * @return an Atom Flowable
+	 */
+	@Override
+	public Flowable<Atom> getAtoms(RadixAddress address, Backpressure backpressure) {
+		return atoms(address);
+	}
+
+	private Flowable<Atom> atoms(RadixAddress address) {
+		Objects.requireNonNull(address);
+		return Flowable.defer(() -> {
+			final AddressAtoms atoms = addressAtoms(address);
+			return acquire(address, atoms).getFlowable()
+				.doFinally(() -> {
+					synchronized (atoms) {
+						if (--atoms.subscribers == 0) {
+							atoms.validated = null;
+						}
+					}
+				});
+		});
+	}
+
+	/**
+	 * Whether the validated atoms of an address are currently held in memory
+	 */
+	boolean isValidated(RadixAddress address) {
+		final AddressAtoms atoms = addressAtoms(address);
+		synchronized (atoms) {
+			return atoms.validated != null;
+		}
+	}
+
+	private ValidatedAtomStream acquire(RadixAddress address, AddressAtoms atoms) {
+		synchronized (atoms) {
+			if (atoms.validated == null) {
+				final List<Long> stored;
+				synchronized (lock) {
+					stored = new ArrayList<>(atoms.locations);
+				}
+
+				final ValidatedAtomStream validated = new ValidatedAtomStream(address);
+				for (long location : stored) {
+					validated.accept(read(location));
+				}
+				atoms.validated = validated;
+			}
+			atoms.subscribers++;
+			return atoms.validated;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (lock) {
+			index.close();
+			for (MappedByteBuffer segment : segments) {
+				segment.force();
+			}
+			for (FileChannel channel : channels) {
+				channel.close();
+			}
+		}
+	}
+}
@@ -1,54 +1,281 @@
 package com.radixdlt.client.core.ledger;
 
-import com.radixdlt.client.application.translate.TransactionAtoms;
-import com.radixdlt.client.assets.Asset;
 import com.radixdlt.client.core.address.RadixAddress;
 import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.metrics.Metrics;
+import com.radixdlt.client.core.util.Backpressure;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
-import io.reactivex.subjects.ReplaySubject;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 
 /**
- * Implementation of a data store for all atoms in a shard
+ * Implementation of a data store for all atoms in a shard. Atoms of addresses
+ * which are subscribed to or retained are always kept. Other addresses are
+ * evicted, least recently used first, once the atoms held exceed a budget and
+ * are rebuilt from the network on the next subscribe.
  */
-public class InMemoryAtomStore implements AtomStore {
+public class InMemoryAtomStore implements WritableAtomStore {
 
 	/**
-	 * The In Memory Atom Data Store
+	 * Atoms stored under an address
 	 */
-	private final ConcurrentHashMap<RadixAddress, ReplaySubject<Atom>> cache = new ConcurrentHashMap<>();
+	private static class Entry {
+		private final ValidatedAtomStream atoms;
+
+		/**
+		 * Atoms stored so far, to drop duplicates
+		 */
+		private final Set<Atom> stored = new HashSet<>();
+
+		/**
+		 * Atom stored last
+		 */
+		private Atom last;
+
+		/**
+		 * Weight of the atoms stored so far
+		 */
+		private long weight;
+
+		/**
+		 * Number of subscribers currently reading these atoms
+		 */
+		private int subscribers;
+
+		private Entry(RadixAddress address) {
+			this.atoms = new ValidatedAtomStream(address);
+		}
+	}
+
+	/**
+	 * The In Memory Atom Data Store, in order of least recent access
+	 */
+	private final LinkedHashMap<RadixAddress, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Total weight of atoms which may be kept before evicting idle addresses
+	 */
+	private final long maxWeight;
+
+	/**
+	 * Weight of a single atom, e.g. 1 to budget by atom count
+	 */
+	private final ToLongFunction<Atom> weigher;
+
+	/**
+	 * Total weight of all atoms stored, guarded by cache
+	 */
+	private long totalWeight;
+
+	private final List<Consumer<RadixAddress>> evictionListeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Addresses which are never evicted, even without subscribers
+	 */
+	private volatile Predicate<RadixAddress> retained = address -> false;
+
+	public InMemoryAtomStore() {
+		this(Long.MAX_VALUE);
+	}
+
+	/**
+	 * @param maxAtoms maximum number of atoms to keep for addresses without subscribers
+	 */
+	public InMemoryAtomStore(long maxAtoms) {
+		this(maxAtoms, atom -> 1L);
+	}
+
+	public InMemoryAtomStore(long maxWeight, ToLongFunction<Atom> weigher) {
+		if (maxWeight < 0) {
+			throw new IllegalArgumentException("maxWeight must not be negative but was " + maxWeight);
+		}
+
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+
+		// Store wide rather than per address, which would grow without bound and outlive evictions
+		Metrics.getRegistry().gauge(Metrics.STORE_ATOMS, this, InMemoryAtomStore::getResidentWeight);
+	}
+
+	/**
+	 * Registers a listener to be told when an address is evicted. Whatever fed the store with
+	 * the atoms of that address must start over from the beginning to rebuild it.
+	 *
+	 * @param listener listener called with the evicted address
+	 */
+	public void addEvictionListener(Consumer<RadixAddress> listener) {
+		evictionListeners.add(listener);
+	}
+
+	/**
+	 * Keeps the atoms of addresses matching a predicate, e.g. addresses still being fetched
+	 * which would otherwise be evicted and fetched again over and over. The predicate is
+	 * called with the lock of this store held and must not call back into it.
+	 *
+	 * @param retained predicate matching addresses to keep
+	 */
+	public void setRetained(Predicate<RadixAddress> retained) {
+		this.retained = Objects.requireNonNull(retained);
+	}
+
+	private Entry entry(RadixAddress address) {
+		return cache.computeIfAbsent(address, Entry::new);
+	}
+
+	/**
+	 * Evicts least recently used addresses without subscribers which are not retained
+	 * until within budget.
+	 * Must be called with the lock held.
+	 *
+	 * @return the addresses evicted
+	 */
+	private List<RadixAddress> evict() {
+		if (totalWeight <= maxWeight) {
+			return null;
+		}
+
+		final List<RadixAddress> evicted = new ArrayList<>();
+		final Iterator<Map.Entry<RadixAddress, Entry>> iterator = cache.entrySet().iterator();
+		while (totalWeight > maxWeight && iterator.hasNext()) {
+			final Map.Entry<RadixAddress, Entry> next = iterator.next();
+			if (next.getValue().subscribers == 0 && !retained.test(next.getKey())) {
+				iterator.remove();
+				totalWeight -= next.getValue().weight;
+				evicted.add(next.getKey());
+			}
+		}
+		return evicted;
+	}
+
+	private void notifyEvicted(List<RadixAddress> evicted) {
+		if (evicted != null) {
+			evicted.forEach(address -> evictionListeners.forEach(listener -> listener.accept(address)));
+		}
+	}
 
 	/**
 	 * Store an atom under a given destination
-	 * TODO: add synchronization if needed
 	 *
 	 * @param address address to store under
 	 * @param atom the atom to store
 	 */
+	@Override
 	public void store(RadixAddress address, Atom atom) {
-		cache.computeIfAbsent(address, euid -> ReplaySubject.create()).onNext(atom);
+		final long weight = weigher.applyAsLong(atom);
+		final ValidatedAtomStream atoms;
+		final List<RadixAddress> evicted;
+		synchronized (cache) {
+			final Entry entry = entry(address);
+			if (!entry.stored.add(atom)) {
+				return;
+			}
+			entry.last = atom;
+			entry.weight += weight;
+			totalWeight += weight;
+			atoms = entry.atoms;
+			evicted = evict();
+		}
+
+		notifyEvicted(evicted);
+		// Validation must not run concurrently but only hold the lock of this address
+		synchronized (atoms) {
+			atoms.accept(atom);
+		}
+	}
+
+	@Override
+	public Optional<Atom> getLastAtom(RadixAddress address) {
+		synchronized (cache) {
+			final Entry entry = cache.get(address);
+			return Optional.ofNullable(entry == null ? null : entry.last);
+		}
+	}
+
+	/**
+	 * @return number of addresses currently held
+	 */
+	public int getResidentAddressCount() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	/**
+	 * @return total weight of the atoms currently held, the number of atoms by default
+	 */
+	public long getResidentWeight() {
+		synchronized (cache) {
+			return totalWeight;
+		}
+	}
+
+	/**
+	 * @param address address to get the weight of
+	 * @return weight of the atoms held for an address, zero if not held
+	 */
+	public long getResidentWeight(RadixAddress address) {
+		synchronized (cache) {
+			final Entry entry = cache.get(address);
+			return entry == null ? 0 : entry.weight;
+		}
 	}
 
 	/**
 	 * Returns an unending stream of validated atoms which are stored at a particular destination.
+	 * The atoms are validated once, as they are stored, whatever the number of subscribers.
 	 *
 	 * @param address address (which determines shard) to query atoms for
 	 * @return an Atom Observable
 	 */
+	@Override
 	public Observable<Atom> getAtoms(RadixAddress address) {
+		return atoms(address).toObservable();
+	}
+
+	/**
+	 * Returns an unending stream of validated atoms which are stored at a particular destination,
+	 * replayed as fast as the subscriber asks for them. As all atoms are held anyway none are
+	 * ever buffered or dropped on behalf of a slow subscriber, whatever the strategy.
+	 *
+	 * @param address address (which determines shard) to query atoms for
+	 * @param backpressure unused
+	 * @return an Atom Flowable
+	 */
+	@Override
+	public Flowable<Atom> getAtoms(RadixAddress address, Backpressure backpressure) {
+		return atoms(address);
+	}
+
+	private Flowable<Atom> atoms(RadixAddress address) {
 		Objects.requireNonNull(address);
-		return Observable.just(new TransactionAtoms(address, Asset.TEST.getId()))
-			.flatMap(txAtoms ->
-				cache.computeIfAbsent(address, euid -> ReplaySubject.create())
-					.distinct()
-					.flatMap(atom -> {
-						if (atom.isTransactionAtom()) {
-							return txAtoms.accept(atom.getAsTransactionAtom()).getNewValidTransactions();
-						} else {
-							return Observable.just(atom);
-						}
-					})
-			);
+		return Flowable.defer(() -> {
+			final Entry entry;
+			synchronized (cache) {
+				entry = entry(address);
+				entry.subscribers++;
+			}
+
+			return entry.atoms.getFlowable()
+				.doFinally(() -> {
+					final List<RadixAddress> evicted;
+					synchronized (cache) {
+						entry.subscribers--;
+						evicted = evict();
+					}
+					notifyEvicted(evicted);
+				});
+		});
 	}
 }
@@ -2,8 +2,21 @@ package com.radixdlt.client.core.ledger;
 
 import com.radixdlt.client.core.address.RadixAddress;
 import com.radixdlt.client.core.atoms.AbstractConsumable;
+import com.radixdlt.client.core.util.Backpressure;
+import io.reactivex.Flowable;
 import io.reactivex.Observable;
 
 public interface ParticleStore {
 	Observable<AbstractConsumable> getConsumables(RadixAddress address);
+
+	/**
+	 * Consumables of an address, at the pace of the subscriber
+	 *
+	 * @param address address to get consumables of
+	 * @param backpressure what to do with consumables the subscriber is not ready for
+	 * @return a Flowable of consumables
+	 */
+	default Flowable<AbstractConsumable> getConsumables(RadixAddress address, Backpressure backpressure) {
+		return backpressure.apply(getConsumables(address));
+	}
 }
@@ -0,0 +1,267 @@
+package com.radixdlt.client.core.ledger;
+
+import com.radixdlt.client.core.address.EUID;
+import com.radixdlt.client.core.address.RadixAddress;
+import com.radixdlt.client.core.atoms.AbstractConsumable;
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.atoms.AtomFeeConsumable;
+import com.radixdlt.client.core.atoms.RadixHash;
+import com.radixdlt.client.core.network.AtomSubmissionUpdate;
+import com.radixdlt.client.core.network.AtomSubmissionUpdate.AtomSubmissionState;
+import com.radixdlt.client.core.network.IncreasingRetryTimer;
+import com.radixdlt.client.core.util.Backpressure;
+import io.reactivex.Flowable;
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.observables.ConnectableObservable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Optimistic overlay of the atoms this client submitted over the particles known from the
+ * network. The particles of a submitted transaction are applied to the particle state as soon
+ * as it is submitted, so that balances reflect it and later transfers don't spend the same
+ * consumables. They are rolled back if the submission ends in any state but stored, and
+ * forgotten once the atom is stored, as its network copy carries the same particles.
+ * If the connection is lost while the atom may have reached the node, its particles are
+ * kept until the atom is looked up or its network copy is received, so that its inputs
+ * are not spent twice.
+ */
+public class PendingAtomStore implements ParticleStore, AtomSubmitter {
+	private static final Logger LOGGER = LoggerFactory.getLogger(PendingAtomStore.class);
+
+	private final ParticleStore particleStore;
+
+	private final AtomSubmitter atomSubmitter;
+
+	/**
+	 * Looks up the network copy of a submitted atom, null to wait for the copy to be pulled
+	 */
+	private final Function<Atom, Maybe<Atom>> atomLookup;
+
+	/**
+	 * Submitted atoms not yet stored nor failed, by hash id in order of submission. Guarded by itself
+	 * which is also held while notifying listeners so that they see events in order.
+	 */
+	private final Map<EUID, Atom> pending = new LinkedHashMap<>();
+
+	/**
+	 * Number of pending atoms consuming each consumable, by hash, guarded by pending
+	 */
+	private final Map<RadixHash, Integer> pendingConsumed = new HashMap<>();
+
+	private final List<Consumer<AbstractConsumable>> listeners = new CopyOnWriteArrayList<>();
+
+	public PendingAtomStore(ParticleStore particleStore, AtomSubmitter atomSubmitter) {
+		this(particleStore, atomSubmitter, null);
+	}
+
+	/**
+	 * @param particleStore particles known from the network
+	 * @param atomSubmitter submitter of the atoms
+	 * @param atomLookup looks up the network copy of an atom whose submission lost its connection,
+	 * null to keep the atom pending until {@link #reconcile(Atom)} is called with its copy
+	 */
+	public PendingAtomStore(ParticleStore particleStore, AtomSubmitter atomSubmitter, Function<Atom, Maybe<Atom>> atomLookup) {
+		this.particleStore = particleStore;
+		this.atomSubmitter = atomSubmitter;
+		this.atomLookup = atomLookup;
+	}
+
+	private static List<AbstractConsumable> particles(Atom atom) {
+		if (!atom.isTransactionAtom()) {
+			return Collections.emptyList();
+		}
+
+		final List<AbstractConsumable> particles = new ArrayList<>();
+		for (AbstractConsumable particle : atom.getAsTransactionAtom().getAbstractConsumables()) {
+			if (!(particle instanceof AtomFeeConsumable)) {
+				particles.add(particle);
+			}
+		}
+		return particles;
+	}
+
+	/**
+	 * The particle undoing a pending particle. A consumer hashes the same as the consumable it
+	 * consumes so the inverse of a consumer makes its consumable unconsumed again, and the
+	 * inverse of a consumable marks it consumed.
+	 */
+	private static AbstractConsumable inverse(AbstractConsumable particle) {
+		if (particle.isConsumer()) {
+			return particle.getAsConsumer().toConsumable();
+		} else {
+			return particle.getAsConsumable().toConsumer();
+		}
+	}
+
+	private void updateConsumed(List<AbstractConsumable> particles, int delta) {
+		for (AbstractConsumable particle : particles) {
+			if (particle.isConsumer()) {
+				pendingConsumed.merge(particle.getHash(), delta, (a, b) -> a + b == 0 ? null : a + b);
+			}
+		}
+	}
+
+	/**
+	 * Whether a particle from the network is a consumable already spent by a pending atom,
+	 * e.g. the change of an earlier pending atom whose network copy arrived late
+	 */
+	private boolean isPendingConsumed(AbstractConsumable particle) {
+		synchronized (pending) {
+			return !pendingConsumed.isEmpty() && particle.isConsumable() && pendingConsumed.containsKey(particle.getHash());
+		}
+	}
+
+	private void notifyListeners(List<AbstractConsumable> particles) {
+		for (AbstractConsumable particle : particles) {
+			listeners.forEach(listener -> listener.accept(particle));
+		}
+	}
+
+	private void rollback(Atom atom, String reason) {
+		synchronized (pending) {
+			if (pending.remove(atom.getHid()) == null) {
+				return;
+			}
+			LOGGER.info("Rolling back pending atom {}: {}", atom.getHid(), reason);
+			final List<AbstractConsumable> particles = particles(atom);
+			updateConsumed(particles, -1);
+			final List<AbstractConsumable> inverses = new ArrayList<>();
+			for (AbstractConsumable particle : particles) {
+				inverses.add(inverse(particle));
+			}
+			notifyListeners(inverses);
+		}
+	}
+
+	/**
+	 * Whether an atom whose submission lost its connection has been stored, looked up by hid
+	 * once a node can be reached again
+	 */
+	private Observable<AtomSubmissionUpdate> lookUp(Atom atom) {
+		return atomLookup.apply(atom)
+			.map(stored -> AtomSubmissionUpdate.now(atom.getHid(), AtomSubmissionState.STORED, "Found after connection was lost"))
+			.switchIfEmpty(Maybe.fromCallable(() ->
+				AtomSubmissionUpdate.now(atom.getHid(), AtomSubmissionState.FAILED, "Not found after connection was lost")
+			))
+			.toObservable()
+			.retryWhen(new IncreasingRetryTimer());
+	}
+
+	/**
+	 * Submits an atom, applying its particles to the particle state straight away
+	 *
+	 * @param atom atom to submit into the ledger
+	 * @return Observable emitting status updates to submission
+	 */
+	@Override
+	public Observable<AtomSubmissionUpdate> submitAtom(Atom atom) {
+		final List<AbstractConsumable> particles = particles(atom);
+		if (!particles.isEmpty()) {
+			synchronized (pending) {
+				pending.put(atom.getHid(), atom);
+				updateConsumed(particles, 1);
+				notifyListeners(particles);
+			}
+		}
+
+		final ConnectableObservable<AtomSubmissionUpdate> updates = atomSubmitter.submitAtom(atom)
+			.concatMap(update -> {
+				if (update.getState() == AtomSubmissionState.CONNECTION_LOST && atomLookup != null) {
+					return Observable.just(update).concatWith(Observable.defer(() -> lookUp(atom)));
+				}
+				return Observable.just(update);
+			})
+			.doOnNext(update -> {
+				if (update.getState() == AtomSubmissionState.STORED) {
+					// Also for addresses not pulled, whose network copy is never received
+					reconcile(atom);
+				} else if (update.isComplete()) {
+					rollback(atom, update.getState().name());
+				}
+			})
+			.doOnError(e -> rollback(atom, e.getMessage()))
+			.replay();
+		updates.connect();
+		return updates;
+	}
+
+	/**
+	 * Forgets a pending atom once it has been stored
+	 *
+	 * @param atom atom stored
+	 */
+	public void reconcile(Atom atom) {
+		synchronized (pending) {
+			final Atom reconciled = pending.remove(atom.getHid());
+			if (reconciled != null) {
+				updateConsumed(particles(reconciled), -1);
+			}
+		}
+	}
+
+	/**
+	 * @return number of submitted atoms neither stored nor failed yet
+	 */
+	public int getPendingCount() {
+		synchronized (pending) {
+			return pending.size();
+		}
+	}
+
+	/**
+	 * Returns the particles of an address known from the network merged with those of
+	 * pending atoms, starting with the atoms already pending.
+	 *
+	 * @param address address to get the particles of
+	 * @return an unending stream of particles
+	 */
+	@Override
+	public Observable<AbstractConsumable> getConsumables(RadixAddress address) {
+		return particleStore.getConsumables(address)
+			.filter(particle -> !isPendingConsumed(particle))
+			.mergeWith(pendingParticles(address));
+	}
+
+	/**
+	 * Returns the particles of an address known from the network, at the pace of the
+	 * subscriber, merged with those of pending atoms
+	 *
+	 * @param address address to get the particles of
+	 * @param backpressure what to do with particles the subscriber is not ready for
+	 * @return an unending stream of particles
+	 */
+	@Override
+	public Flowable<AbstractConsumable> getConsumables(RadixAddress address, Backpressure backpressure) {
+		return particleStore.getConsumables(address, backpressure)
+			.filter(particle -> !isPendingConsumed(particle))
+			.mergeWith(backpressure.apply(pendingParticles(address)));
+	}
+
+	private Observable<AbstractConsumable> pendingParticles(RadixAddress address) {
+		return Observable.create(emitter -> {
+			final Consumer<AbstractConsumable> listener = particle -> {
+				if (particle.getOwnersPublicKeys().stream().allMatch(address::ownsKey)) {
+					emitter.onNext(particle);
+				}
+			};
+			synchronized (pending) {
+				for (Atom atom : pending.values()) {
+					particles(atom).forEach(listener);
+				}
+				listeners.add(listener);
+			}
+			emitter.setCancellable(() -> listeners.remove(listener));
+		});
+	}
+}
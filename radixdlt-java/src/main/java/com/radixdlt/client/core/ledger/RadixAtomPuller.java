@@ -3,20 +3,60 @@ package com.radixdlt.client.core.ledger;
 import com.radixdlt.client.core.address.RadixAddress;
 import com.radixdlt.client.core.atoms.Atom;
 import io.reactivex.Observable;
+import io.reactivex.Scheduler;
 import io.reactivex.disposables.Disposable;
-import java.util.concurrent.ConcurrentHashMap;
+import io.reactivex.disposables.Disposables;
+import io.reactivex.disposables.SerialDisposable;
+import io.reactivex.schedulers.Schedulers;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Module responsible for fetches and merges of new atoms into the Atom Store.
+ * Each address has at most one fetch running, shared by every caller pulling it. The
+ * fetch stops once no caller has pulled the address for an idle period, or once it fails.
  */
 public class RadixAtomPuller implements AtomPuller {
+	private static final Logger LOGGER = LoggerFactory.getLogger(RadixAtomPuller.class);
+
+	/**
+	 * Default time a fetch keeps running after its last caller stopped pulling
+	 */
+	public static final long DEFAULT_IDLE_MILLIS = 30_000;
+
+	/**
+	 * Atoms being fetched for an address, guarded by the cache
+	 */
+	private static class Pull {
+		/**
+		 * Subscription fetching and storing atoms
+		 */
+		private SerialDisposable fetching;
+
+		/**
+		 * Number of callers currently pulling
+		 */
+		private int references;
+
+		/**
+		 * Pending stop of the fetch once idle
+		 */
+		private Disposable idle = Disposables.disposed();
+
+		private long ingested;
+
+		private long startedAt;
+	}
 
 	/**
 	 * Atoms retrieved from the network
 	 */
-	private final ConcurrentHashMap<RadixAddress, Observable<Atom>> cache = new ConcurrentHashMap<>();
+	private final Map<RadixAddress, Pull> cache = new HashMap<>();
 
 	/**
 	 * The mechanism by which to fetch atoms
@@ -28,19 +68,193 @@ public class RadixAtomPuller implements AtomPuller {
 	 */
 	private final BiConsumer<RadixAddress, Atom> atomStore;
 
+	private final long idleMillis;
+
+	private final Scheduler scheduler;
+
 	public RadixAtomPuller(Function<RadixAddress, Observable<Atom>> fetcher, BiConsumer<RadixAddress, Atom> atomStore) {
+		this(fetcher, atomStore, DEFAULT_IDLE_MILLIS, Schedulers.computation());
+	}
+
+	/**
+	 * @param fetcher the mechanism by which to fetch atoms
+	 * @param atomStore the mechanism by which to store atoms
+	 * @param idleMillis time a fetch keeps running after its last caller stopped pulling
+	 * @param scheduler scheduler to time idle fetches and ingest rates with
+	 */
+	public RadixAtomPuller(
+		Function<RadixAddress, Observable<Atom>> fetcher,
+		BiConsumer<RadixAddress, Atom> atomStore,
+		long idleMillis,
+		Scheduler scheduler
+	) {
+		if (idleMillis < 0) {
+			throw new IllegalArgumentException("idleMillis must not be negative but was " + idleMillis);
+		}
+
 		this.fetcher = fetcher;
 		this.atomStore = atomStore;
+		this.idleMillis = idleMillis;
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Prepares a new fetch of an address, to be started with {@link #start} once the
+	 * cache lock is released. Must be called with the cache lock held.
+	 *
+	 * @return the subscription of the fetch
+	 */
+	private SerialDisposable prepare(Pull pull) {
+		pull.startedAt = scheduler.now(TimeUnit.MILLISECONDS);
+		pull.ingested = 0;
+		pull.fetching = new SerialDisposable();
+		return pull.fetching;
 	}
 
+	/**
+	 * Starts a fetch prepared by {@link #prepare}. Must be called without the cache lock
+	 * held as atoms fetched right away are stored from within.
+	 */
+	private void start(RadixAddress address, Pull pull, SerialDisposable fetching) {
+		// Disposed straight away if the fetch was stopped in the meantime
+		fetching.replace(fetcher.apply(address).subscribe(
+			atom -> {
+				synchronized (cache) {
+					pull.ingested++;
+				}
+				atomStore.accept(address, atom);
+			},
+			error -> {
+				LOGGER.warn("Fetch of {} failed", address, error);
+				synchronized (cache) {
+					// Callers still pulling start a new fetch on their next pull
+					if (cache.get(address) == pull && pull.fetching == fetching) {
+						cache.remove(address);
+						pull.idle.dispose();
+					}
+				}
+			}
+		));
+	}
+
+	/**
+	 * Starts pulling atoms of an address, sharing the fetch already running if any
+	 *
+	 * @param address address to pull atoms of
+	 * @return Disposable to dispose to stop pulling, the fetch stopping once idle
+	 */
+	@Override
 	public Disposable pull(RadixAddress address) {
-		return cache.computeIfAbsent(
-			address, destination -> {
-				Observable<Atom> fetchedAtoms = fetcher.apply(destination)
-					.publish().refCount(2);
-				fetchedAtoms.subscribe(atom -> atomStore.accept(address, atom));
-				return fetchedAtoms;
+		final Pull pull;
+		final SerialDisposable fetching;
+		synchronized (cache) {
+			pull = cache.computeIfAbsent(address, a -> new Pull());
+			pull.references++;
+			pull.idle.dispose();
+			fetching = pull.fetching == null ? prepare(pull) : null;
+		}
+
+		if (fetching != null) {
+			start(address, pull, fetching);
+		}
+		return Disposables.fromAction(() -> release(address, pull));
+	}
+
+	private void release(RadixAddress address, Pull pull) {
+		synchronized (cache) {
+			if (--pull.references > 0 || cache.get(address) != pull) {
+				return;
+			}
+
+			if (idleMillis == 0) {
+				stop(address, pull);
+			} else {
+				pull.idle = scheduler.scheduleDirect(() -> {
+					synchronized (cache) {
+						if (pull.references == 0 && cache.get(address) == pull) {
+							stop(address, pull);
+						}
+					}
+				}, idleMillis, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	private void stop(RadixAddress address, Pull pull) {
+		cache.remove(address);
+		pull.fetching.dispose();
+	}
+
+	/**
+	 * Restarts the fetch of an address from scratch, e.g. once the store has evicted it,
+	 * or forgets it if no caller is pulling it.
+	 *
+	 * @param address address to fetch atoms of again
+	 */
+	public void reset(RadixAddress address) {
+		final Pull pull;
+		final SerialDisposable fetching;
+		synchronized (cache) {
+			pull = cache.get(address);
+			if (pull == null) {
+				return;
+			}
+
+			pull.idle.dispose();
+			pull.fetching.dispose();
+			if (pull.references == 0) {
+				cache.remove(address);
+				return;
+			}
+			fetching = prepare(pull);
+		}
+
+		start(address, pull, fetching);
+	}
+
+	/**
+	 * Whether an address is pulled by any caller, in which case the atoms stored for it
+	 * should be kept as fetching them again would only store them again
+	 *
+	 * @param address address to check
+	 * @return true if a caller is currently pulling the address
+	 */
+	public boolean isPulling(RadixAddress address) {
+		return getReferenceCount(address) > 0;
+	}
+
+	/**
+	 * @return number of addresses whose atoms are being fetched, including idle ones not yet stopped
+	 */
+	public int getActivePullCount() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	/**
+	 * @param address address to count the callers of
+	 * @return number of callers currently pulling an address
+	 */
+	public int getReferenceCount(RadixAddress address) {
+		synchronized (cache) {
+			final Pull pull = cache.get(address);
+			return pull == null ? 0 : pull.references;
+		}
+	}
+
+	/**
+	 * @param address address to get the ingest rate of
+	 * @return atoms stored per second for an address since its fetch started, zero if not fetched
+	 */
+	public double getIngestRate(RadixAddress address) {
+		synchronized (cache) {
+			final Pull pull = cache.get(address);
+			if (pull == null) {
+				return 0;
 			}
-		).subscribe();
+			final long elapsed = scheduler.now(TimeUnit.MILLISECONDS) - pull.startedAt;
+			return elapsed <= 0 ? 0 : pull.ingested * 1000.0 / elapsed;
+		}
 	}
 }
@@ -1,6 +1,7 @@
 package com.radixdlt.client.core.ledger;
 
 import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.metrics.Metrics;
 import com.radixdlt.client.core.network.AtomSubmissionUpdate;
 import com.radixdlt.client.core.network.IncreasingRetryTimer;
 import com.radixdlt.client.core.network.RadixJsonRpcClient;
@@ -8,6 +9,7 @@ import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.reactivex.observables.ConnectableObservable;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,12 +30,13 @@ public class RadixAtomSubmitter implements AtomSubmitter {
 	/**
 	 * Immediately submits an atom into the ledger without waiting for subscription. The returned
 	 * observable is a full replay of the status of the atom, from submission to acceptance by
-	 * the network.
+	 * the network. The time taken to reach each state is recorded.
 	 *
 	 * @param atom atom to submit into the ledger
 	 * @return Observable emitting status updates to submission
 	 */
 	public Observable<AtomSubmissionUpdate> submitAtom(Atom atom) {
+		final long start = System.nanoTime();
 		Observable<AtomSubmissionUpdate> status = clientSelector.apply(atom.getRequiredFirstShard())
 			.doOnSuccess(client -> LOGGER.info("Found client to submit atom: {}", client.getLocation()))
 			.doOnError(throwable -> {
@@ -41,7 +44,10 @@ public class RadixAtomSubmitter implements AtomSubmitter {
 			})
 			.flatMapObservable(client -> client.submitAtom(atom))
 			.doOnError(Throwable::printStackTrace)
-			.retryWhen(new IncreasingRetryTimer());
+			.retryWhen(new IncreasingRetryTimer())
+			.doOnNext(update -> Metrics.getRegistry()
+				.timer(Metrics.SUBMISSION, "state", update.getState().name())
+				.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
 
 		ConnectableObservable<AtomSubmissionUpdate> replay = status.replay();
 		replay.connect();
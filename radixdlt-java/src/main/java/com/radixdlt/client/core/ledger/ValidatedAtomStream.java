@@ -0,0 +1,46 @@
+package com.radixdlt.client.core.ledger;
+
+import com.radixdlt.client.application.translate.TransactionAtoms;
+import com.radixdlt.client.core.address.RadixAddress;
+import com.radixdlt.client.core.atoms.Atom;
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+import io.reactivex.processors.ReplayProcessor;
+
+/**
+ * The validated and ordered stream of atoms stored under an address. Transactions of
+ * every asset are checked against each other once, as atoms are stored, and the result is shared by
+ * all subscribers, each getting the atoms validated so far followed by the live tail, as fast
+ * as it asks for them.
+ * Calls to {@link #accept(Atom)} must not be concurrent.
+ */
+final class ValidatedAtomStream {
+	private final TransactionAtoms transactionAtoms;
+
+	private final ReplayProcessor<Atom> validated = ReplayProcessor.create();
+
+	ValidatedAtomStream(RadixAddress address) {
+		this.transactionAtoms = new TransactionAtoms(address);
+	}
+
+	/**
+	 * Adds a newly stored atom, emitting it along with any transaction it made valid
+	 *
+	 * @param atom the atom stored
+	 */
+	void accept(Atom atom) {
+		if (atom.isTransactionAtom()) {
+			transactionAtoms.accept(atom.getAsTransactionAtom(), validated::onNext);
+		} else {
+			validated.onNext(atom);
+		}
+	}
+
+	Observable<Atom> getAtoms() {
+		return validated.toObservable();
+	}
+
+	Flowable<Atom> getFlowable() {
+		return validated.hide();
+	}
+}
@@ -0,0 +1,26 @@
+package com.radixdlt.client.core.ledger;
+
+import com.radixdlt.client.core.address.RadixAddress;
+import com.radixdlt.client.core.atoms.Atom;
+import java.util.Optional;
+
+/**
+ * Store which keeps the atoms fetched from the network
+ */
+public interface WritableAtomStore extends AtomStore {
+	/**
+	 * Store an atom under a given destination
+	 *
+	 * @param address address to store under
+	 * @param atom the atom to store
+	 */
+	void store(RadixAddress address, Atom atom);
+
+	/**
+	 * Latest atom stored under a destination, from which fetching can resume
+	 *
+	 * @param address address to get the atom of
+	 * @return the atom stored last, empty if none is stored
+	 */
+	Optional<Atom> getLastAtom(RadixAddress address);
+}
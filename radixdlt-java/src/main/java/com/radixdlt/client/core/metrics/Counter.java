@@ -0,0 +1,12 @@
+package com.radixdlt.client.core.metrics;
+
+/**
+ * A monotonically increasing count of events, e.g. atoms received
+ */
+public interface Counter {
+	void increment(long amount);
+
+	default void increment() {
+		increment(1);
+	}
+}
@@ -0,0 +1,92 @@
+package com.radixdlt.client.core.metrics;
+
+import java.util.Objects;
+
+/**
+ * Holds the registry every metric of the library is recorded in, and the names of those
+ * metrics. Nothing is recorded until a registry is set, which should be done before
+ * bootstrapping a universe as gauges are registered as objects get created.
+ */
+public final class Metrics {
+	/**
+	 * Timer of JSON-RPC calls until answered, tagged by node, method and outcome
+	 */
+	public static final String RPC_LATENCY = "radix.rpc.latency";
+
+	/**
+	 * Gauge of JSON-RPC calls awaiting an answer, tagged by node
+	 */
+	public static final String RPC_IN_FLIGHT = "radix.rpc.inflight";
+
+	/**
+	 * Counter of lost connections re-established, tagged by node
+	 */
+	public static final String RECONNECTS = "radix.websocket.reconnects";
+
+	/**
+	 * Counter of atoms received from nodes
+	 */
+	public static final String ATOMS_RECEIVED = "radix.atoms.received";
+
+	/**
+	 * Counter of atoms received which passed validation
+	 */
+	public static final String ATOMS_VALIDATED = "radix.atoms.validated";
+
+	/**
+	 * Counter of atoms received which failed validation
+	 */
+	public static final String ATOMS_REJECTED = "radix.atoms.rejected";
+
+	/**
+	 * Timer of proof of work computations
+	 */
+	public static final String POW = "radix.pow";
+
+	/**
+	 * Timer of signatures
+	 */
+	public static final String SIGN = "radix.crypto.sign";
+
+	/**
+	 * Timer of signature verifications
+	 */
+	public static final String VERIFY = "radix.crypto.verify";
+
+	/**
+	 * Timer from the submission of an atom to each of its states, tagged by state
+	 */
+	public static final String SUBMISSION = "radix.submission";
+
+	/**
+	 * Gauge of the total weight of the atoms held by the in memory atom store
+	 */
+	public static final String STORE_ATOMS = "radix.store.atoms";
+
+	/**
+	 * Counter of atom lookups by hid, tagged by node and result: hit, miss or notfound
+	 * for a hit on an atom known not to be on the node
+	 */
+	public static final String ATOM_CACHE_LOOKUPS = "radix.atomcache.lookups";
+
+	/**
+	 * Gauge of the DSON bytes of the atoms cached by hid, tagged by node
+	 */
+	public static final String ATOM_CACHE_BYTES = "radix.atomcache.bytes";
+
+	private static volatile MetricsRegistry registry = NoopMetricsRegistry.getInstance();
+
+	private Metrics() {
+	}
+
+	public static MetricsRegistry getRegistry() {
+		return registry;
+	}
+
+	/**
+	 * @param metricsRegistry registry to record metrics in from now on
+	 */
+	public static void setRegistry(MetricsRegistry metricsRegistry) {
+		registry = Objects.requireNonNull(metricsRegistry);
+	}
+}
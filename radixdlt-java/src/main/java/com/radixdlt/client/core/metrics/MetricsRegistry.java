@@ -0,0 +1,28 @@
+package com.radixdlt.client.core.metrics;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Where the library records its metrics, to be bound to a metrics library such as
+ * Micrometer. Metrics are identified by a name and tags given as alternating keys and
+ * values. Implementations must be thread safe and return the same metric, or one
+ * backed by it, whenever asked for the same name and tags.
+ */
+public interface MetricsRegistry {
+	Counter counter(String name, String... tags);
+
+	Timer timer(String name, String... tags);
+
+	/**
+	 * Registers a value sampled whenever metrics are published. Registering a gauge
+	 * already registered under the same name and tags keeps the existing one. The object
+	 * sampled should not be strongly referenced so that gauges do not keep it alive.
+	 *
+	 * @param name name of the gauge
+	 * @param object object to sample
+	 * @param value function sampling the object
+	 * @param tags alternating tag keys and values
+	 * @param <T> type of the object sampled
+	 */
+	<T> void gauge(String name, T object, ToDoubleFunction<T> value, String... tags);
+}
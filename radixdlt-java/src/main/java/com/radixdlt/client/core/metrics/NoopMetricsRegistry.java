@@ -0,0 +1,35 @@
+package com.radixdlt.client.core.metrics;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Registry discarding every metric, the default until another one is set
+ */
+public final class NoopMetricsRegistry implements MetricsRegistry {
+	private static final NoopMetricsRegistry INSTANCE = new NoopMetricsRegistry();
+
+	private static final Counter COUNTER = amount -> { };
+
+	private static final Timer TIMER = (amount, unit) -> { };
+
+	private NoopMetricsRegistry() {
+	}
+
+	public static NoopMetricsRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	@Override
+	public Counter counter(String name, String... tags) {
+		return COUNTER;
+	}
+
+	@Override
+	public Timer timer(String name, String... tags) {
+		return TIMER;
+	}
+
+	@Override
+	public <T> void gauge(String name, T object, ToDoubleFunction<T> value, String... tags) {
+	}
+}
@@ -0,0 +1,27 @@
+package com.radixdlt.client.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Distribution of the durations of an operation, e.g. RPC latencies
+ */
+public interface Timer {
+	void record(long amount, TimeUnit unit);
+
+	/**
+	 * Runs and records the duration of an operation
+	 *
+	 * @param operation operation to time
+	 * @param <T> result of the operation
+	 * @return the result of the operation
+	 */
+	default <T> T record(Supplier<T> operation) {
+		final long start = System.nanoTime();
+		try {
+			return operation.get();
+		} finally {
+			record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+}
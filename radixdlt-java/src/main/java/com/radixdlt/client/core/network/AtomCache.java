@@ -0,0 +1,139 @@
+package com.radixdlt.client.core.network;
+
+import com.radixdlt.client.core.address.EUID;
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.metrics.Metrics;
+import com.radixdlt.client.core.util.LruCache;
+import io.reactivex.Maybe;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Atoms of a node by hid. Atoms never change once stored so they are kept until evicted,
+ * least recently used first, once their DSON bytes exceed a budget. Atoms the node does not
+ * have are remembered for a while too, as they may still be stored later. Concurrent lookups
+ * of an hid which is not cached share a single request to the node.
+ */
+public final class AtomCache {
+	/**
+	 * Default DSON bytes of atoms kept
+	 */
+	public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+	/**
+	 * Default time an atom not found is remembered for
+	 */
+	public static final long DEFAULT_NOT_FOUND_MILLIS = 10_000L;
+
+	/**
+	 * Bytes budgeted for remembering an atom not found
+	 */
+	private static final long NOT_FOUND_BYTES = 64;
+
+	/**
+	 * Cached atom, or atom not found until some time
+	 */
+	private static final class Entry {
+		private final Atom atom;
+		private final long notFoundUntil;
+
+		private Entry(Atom atom, long notFoundUntil) {
+			this.atom = atom;
+			this.notFoundUntil = notFoundUntil;
+		}
+
+		private long getBytes() {
+			return atom == null ? NOT_FOUND_BYTES : atom.getDsonSize();
+		}
+	}
+
+	private final LruCache<EUID, Entry> entries;
+
+	/**
+	 * Lookups awaiting the node, by hid
+	 */
+	private final ConcurrentHashMap<EUID, Maybe<Atom>> pending = new ConcurrentHashMap<>();
+
+	private final long notFoundMillis;
+
+	private final LongSupplier clock;
+
+	private final String node;
+
+	public AtomCache(String node) {
+		this(node, DEFAULT_MAX_BYTES, DEFAULT_NOT_FOUND_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @param node node the atoms are from, to tag metrics with
+	 * @param maxBytes DSON bytes of atoms kept
+	 * @param notFound time an atom not found is remembered for, zero to not remember
+	 * @param unit unit of the not found time
+	 */
+	public AtomCache(String node, long maxBytes, long notFound, TimeUnit unit) {
+		this(node, maxBytes, unit.toMillis(notFound), System::currentTimeMillis);
+	}
+
+	AtomCache(String node, long maxBytes, long notFoundMillis, LongSupplier clock) {
+		this.node = node;
+		this.entries = new LruCache<>(maxBytes, Entry::getBytes);
+		this.notFoundMillis = notFoundMillis;
+		this.clock = clock;
+
+		Metrics.getRegistry().gauge(Metrics.ATOM_CACHE_BYTES, entries, LruCache::getWeight, "node", node);
+	}
+
+	/**
+	 * Caches an atom seen from the node
+	 *
+	 * @param atom the atom
+	 */
+	public void put(Atom atom) {
+		entries.put(atom.getHid(), new Entry(atom, 0L));
+	}
+
+	/**
+	 * Looks up an atom, asking the node if it is not cached
+	 *
+	 * @param hid hid of the atom
+	 * @param fetch request for the atom to the node
+	 * @return the atom, empty if the node does not have it
+	 */
+	public Maybe<Atom> get(EUID hid, Supplier<Maybe<Atom>> fetch) {
+		return Maybe.defer(() -> {
+			final Entry entry = entries.get(hid);
+			if (entry != null && entry.atom != null) {
+				count("hit");
+				return Maybe.just(entry.atom);
+			}
+			if (entry != null && clock.getAsLong() < entry.notFoundUntil) {
+				count("notfound");
+				return Maybe.empty();
+			}
+
+			count("miss");
+			return pending.computeIfAbsent(hid, h -> fetch.get()
+				.doOnSuccess(this::put)
+				.doOnComplete(() -> {
+					if (notFoundMillis > 0) {
+						entries.put(h, new Entry(null, clock.getAsLong() + notFoundMillis));
+					}
+				})
+				.doFinally(() -> pending.remove(h))
+				.cache());
+		});
+	}
+
+	/**
+	 * @return number of atoms and atoms not found currently cached
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	private void count(String result) {
+		Metrics.getRegistry().counter(Metrics.ATOM_CACHE_LOOKUPS, "node", node, "result", result).increment();
+	}
+}
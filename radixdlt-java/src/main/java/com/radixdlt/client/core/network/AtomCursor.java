@@ -0,0 +1,105 @@
+package com.radixdlt.client.core.network;
+
+import com.google.gson.JsonObject;
+import com.radixdlt.client.core.address.EUID;
+import com.radixdlt.client.core.atoms.Atom;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Position in the ordered history of atoms at a destination. Atoms are ordered by
+ * timestamp with the hash id breaking ties, so a cursor built from the last atom
+ * seen lets a query resume right after it instead of replaying the full history.
+ * A cursor without a hash id resumes from the start of its timestamp.
+ */
+public final class AtomCursor {
+	/**
+	 * Timestamp of the last atom seen
+	 */
+	private final long timestamp;
+
+	/**
+	 * Hash id of the last atom seen, null if only the timestamp is known
+	 */
+	private final EUID hid;
+
+	public AtomCursor(long timestamp, EUID hid) {
+		this.timestamp = timestamp;
+		this.hid = hid;
+	}
+
+	public AtomCursor(long timestamp) {
+		this(timestamp, null);
+	}
+
+	public static AtomCursor of(Atom atom) {
+		return new AtomCursor(atom.getTimestamp(), atom.getHid());
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public Optional<EUID> getHid() {
+		return Optional.ofNullable(hid);
+	}
+
+	/**
+	 * Whether this cursor lies strictly after another in atom order
+	 *
+	 * @param other cursor to compare with, null meaning the start of history
+	 * @return true if this cursor is after other
+	 */
+	public boolean isAfter(AtomCursor other) {
+		if (other == null) {
+			return true;
+		}
+		if (timestamp != other.timestamp) {
+			return timestamp > other.timestamp;
+		}
+		if (hid == null) {
+			return false;
+		}
+		return other.hid == null || hid.bigInteger().compareTo(other.hid.bigInteger()) > 0;
+	}
+
+	/**
+	 * Moves a cursor to an atom just received, in the order the node sent it. Timestamps are
+	 * set by clients so a node may send an atom after one with a later timestamp. Resuming
+	 * after the last atom received rather than the latest timestamp seen doesn't skip it.
+	 *
+	 * @param cursor current cursor, null meaning the start of history
+	 * @param atom atom just received
+	 * @return the position of the atom, or the current cursor if the atom has no timestamp
+	 */
+	public static AtomCursor advance(AtomCursor cursor, Atom atom) {
+		return atom.getTimestamp() == null ? cursor : of(atom);
+	}
+
+	void addTo(JsonObject query) {
+		query.addProperty("fromTimestamp", timestamp);
+		if (hid != null) {
+			query.addProperty("afterHid", hid.toString());
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof AtomCursor)) {
+			return false;
+		}
+
+		AtomCursor other = (AtomCursor) o;
+		return timestamp == other.timestamp && Objects.equals(hid, other.hid);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(timestamp, hid);
+	}
+
+	@Override
+	public String toString() {
+		return timestamp + ":" + hid;
+	}
+}
@@ -11,9 +11,29 @@ public class AtomQuery<T extends Atom> {
 	private final SerializedAtomType atomType;
 	private final Class<T> atomClass;
 
+	/**
+	 * Position after which to start returning atoms, null for the full history
+	 */
+	private final AtomCursor cursor;
+
+	/**
+	 * Maximum number of atoms to return in a page, zero for no limit
+	 */
+	private final int limit;
+
 	public AtomQuery(EUID destination, Class<T> atomClass) {
+		this(destination, atomClass, null, 0);
+	}
+
+	public AtomQuery(EUID destination, Class<T> atomClass, AtomCursor cursor, int limit) {
+		if (limit < 0) {
+			throw new IllegalArgumentException("limit must not be negative but was " + limit);
+		}
+
 		this.destination = destination;
 		this.atomClass = atomClass;
+		this.cursor = cursor;
+		this.limit = limit;
 
 		if (atomClass == Atom.class) {
 			this.atomType = null;
@@ -26,6 +46,26 @@ public class AtomQuery<T extends Atom> {
 		}
 	}
 
+	/**
+	 * Same query resuming after a given position
+	 *
+	 * @param cursor position to resume after, null for the full history
+	 * @return a new query
+	 */
+	public AtomQuery<T> withCursor(AtomCursor cursor) {
+		return new AtomQuery<>(destination, atomClass, cursor, limit);
+	}
+
+	/**
+	 * Same query returning at most a given number of atoms
+	 *
+	 * @param limit page size, zero for no limit
+	 * @return a new query
+	 */
+	public AtomQuery<T> withLimit(int limit) {
+		return new AtomQuery<>(destination, atomClass, cursor, limit);
+	}
+
 	public Optional<SerializedAtomType> getAtomType() {
 		return Optional.ofNullable(atomType);
 	}
@@ -38,6 +78,14 @@ public class AtomQuery<T extends Atom> {
 		return atomClass;
 	}
 
+	public Optional<AtomCursor> getCursor() {
+		return Optional.ofNullable(cursor);
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
 	public JsonObject toJson() {
 		JsonObject query = new JsonObject();
 		query.addProperty("destination", destination.bigInteger());
@@ -46,6 +94,14 @@ public class AtomQuery<T extends Atom> {
 			query.addProperty("atomSerializer", atomType.getSerializer());
 		}
 
+		if (cursor != null) {
+			cursor.addTo(query);
+		}
+
+		if (limit > 0) {
+			query.addProperty("limit", limit);
+		}
+
 		return query;
 	}
 }
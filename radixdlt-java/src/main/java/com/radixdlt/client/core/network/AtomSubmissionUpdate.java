@@ -10,6 +10,10 @@ public class AtomSubmissionUpdate {
 	public enum AtomSubmissionState {
 		SUBMITTING(false),
 		SUBMITTED(false),
+		/**
+		 * Connection lost after the atom may have reached the node, whether it gets stored is unknown
+		 */
+		CONNECTION_LOST(false),
 		FAILED(true),
 		STORED(true),
 		COLLISION(true),
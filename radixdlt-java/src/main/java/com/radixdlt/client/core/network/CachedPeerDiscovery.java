@@ -0,0 +1,189 @@
+package com.radixdlt.client.core.network;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Peer discovery which remembers the last known live peers, along with their shard ranges,
+ * in a local file. Remembered peers are emitted as soon as discovery starts so that requests
+ * can be routed without waiting for the underlying discovery mechanism. Discovery then runs
+ * in the background on a schedule, all peers found being checked in parallel and the live
+ * ones written back to the file.
+ */
+public class CachedPeerDiscovery implements PeerDiscovery {
+	private static final Logger LOGGER = LoggerFactory.getLogger(CachedPeerDiscovery.class);
+
+	/**
+	 * Peer as stored in the cache file
+	 */
+	private static class PeerRecord {
+		private String ip;
+		private boolean ssl;
+		private int port;
+		private long low;
+		private long high;
+
+		PeerRecord(RadixPeer peer, NodeRunnerData data) {
+			this.ip = peer.getLocation();
+			this.ssl = peer.isSsl();
+			this.port = peer.getPort();
+			this.low = data.getShards().getLow();
+			this.high = data.getShards().getHigh();
+		}
+
+		RadixPeer toPeer() {
+			return new RadixPeer(ip, ssl, port).data(new NodeRunnerData(ip, low, high));
+		}
+	}
+
+	private static final Gson GSON = new Gson();
+
+	/**
+	 * The discovery mechanism to refresh peers from
+	 */
+	private final PeerDiscovery delegate;
+
+	/**
+	 * File holding the last known live peers
+	 */
+	private final File cacheFile;
+
+	/**
+	 * Time between two refreshes of the peer list
+	 */
+	private final long refreshIntervalSecs;
+
+	/**
+	 * Time to wait for a peer to answer before considering it dead
+	 */
+	private final long checkTimeoutSecs;
+
+	private final Scheduler scheduler;
+
+	public CachedPeerDiscovery(PeerDiscovery delegate, File cacheFile) {
+		this(delegate, cacheFile, 600, 10, Schedulers.computation());
+	}
+
+	public CachedPeerDiscovery(
+		PeerDiscovery delegate,
+		File cacheFile,
+		long refreshIntervalSecs,
+		long checkTimeoutSecs,
+		Scheduler scheduler
+	) {
+		this.delegate = delegate;
+		this.cacheFile = cacheFile;
+		this.refreshIntervalSecs = refreshIntervalSecs;
+		this.checkTimeoutSecs = checkTimeoutSecs;
+		this.scheduler = scheduler;
+	}
+
+	/**
+	 * Reads the peers remembered from a previous run
+	 *
+	 * @return remembered peers, empty if there are none or the file is unreadable
+	 */
+	List<RadixPeer> loadCachedPeers() {
+		if (!cacheFile.isFile()) {
+			return Collections.emptyList();
+		}
+
+		try (Reader reader = Files.newBufferedReader(cacheFile.toPath(), StandardCharsets.UTF_8)) {
+			List<PeerRecord> records = GSON.fromJson(reader, new TypeToken<List<PeerRecord>>() { }.getType());
+			if (records == null) {
+				return Collections.emptyList();
+			}
+
+			LOGGER.info("Loaded {} cached peers from {}", records.size(), cacheFile);
+			return records.stream().map(PeerRecord::toPeer).collect(Collectors.toList());
+		} catch (IOException | JsonParseException e) {
+			LOGGER.warn("Unable to load cached peers from {}: {}", cacheFile, e.getMessage());
+			return Collections.emptyList();
+		}
+	}
+
+	private void saveLivePeers(List<PeerRecord> livePeers) {
+		// Never replace a useful list with an empty one, e.g. when offline
+		if (livePeers.isEmpty()) {
+			return;
+		}
+
+		final Path target = cacheFile.toPath();
+		try {
+			final Path tmp = Files.createTempFile(target.toAbsolutePath().getParent(), cacheFile.getName(), ".tmp");
+			try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+				GSON.toJson(livePeers, writer);
+			}
+			Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			LOGGER.info("Saved {} live peers to {}", livePeers.size(), cacheFile);
+		} catch (IOException e) {
+			LOGGER.warn("Unable to save live peers to {}: {}", cacheFile, e.getMessage());
+		}
+	}
+
+	private Single<Optional<PeerRecord>> check(RadixPeer peer) {
+		final RadixJsonRpcClient client = peer.getRadixClient();
+		return client.getSelf()
+			.timeout(checkTimeoutSecs, TimeUnit.SECONDS, scheduler)
+			.map(self -> {
+				peer.data(self);
+				return Optional.of(new PeerRecord(peer, self));
+			})
+			.onErrorReturnItem(Optional.empty())
+			.doFinally(client::tryClose);
+	}
+
+	private Observable<RadixPeer> refresh(Observable<RadixPeer> known) {
+		return Observable.merge(
+			known,
+			delegate.findPeers()
+				.onErrorResumeNext(e -> {
+					LOGGER.warn("Unable to refresh peers: {}", e.toString());
+					return Observable.empty();
+				})
+		)
+		.distinct(RadixPeer::getLocation)
+		.publish(peers -> peers.mergeWith(
+			peers.flatMapSingle(this::check)
+				.filter(Optional::isPresent)
+				.map(Optional::get)
+				.toList()
+				.doOnSuccess(this::saveLivePeers)
+				.ignoreElement()
+				.toObservable()
+		));
+	}
+
+	@Override
+	public Observable<RadixPeer> findPeers() {
+		final Observable<RadixPeer> cachedPeers = Observable.fromCallable(this::loadCachedPeers)
+			.flatMapIterable(peers -> peers)
+			.cache();
+
+		return Observable.concat(
+			refresh(cachedPeers),
+			Observable.interval(refreshIntervalSecs, refreshIntervalSecs, TimeUnit.SECONDS, scheduler)
+				.concatMap(i -> refresh(cachedPeers))
+		).distinct(RadixPeer::getLocation);
+	}
+}
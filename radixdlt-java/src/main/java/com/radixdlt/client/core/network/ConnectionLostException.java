@@ -0,0 +1,12 @@
+package com.radixdlt.client.core.network;
+
+import java.io.IOException;
+
+/**
+ * Connection to a node was lost before an answer to a request was received
+ */
+public class ConnectionLostException extends IOException {
+	public ConnectionLostException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,78 @@
+package com.radixdlt.client.core.network;
+
+import java.util.Random;
+
+/**
+ * Jittered exponential backoff for spacing out reconnection attempts to a node.
+ * Each delay is drawn uniformly between zero and the capped exponential delay
+ * ("full jitter") so that many clients which lost a node at the same time do not
+ * all reconnect in lockstep.
+ */
+public class ExponentialBackoff {
+	/**
+	 * Delay ceiling of the first attempt
+	 */
+	private final long baseDelayMillis;
+
+	/**
+	 * Upper bound of any single delay
+	 */
+	private final long maxDelayMillis;
+
+	/**
+	 * Number of attempts after which to give up
+	 */
+	private final int maxAttempts;
+
+	private final Random random;
+
+	public ExponentialBackoff(long baseDelayMillis, long maxDelayMillis, int maxAttempts) {
+		this(baseDelayMillis, maxDelayMillis, maxAttempts, new Random());
+	}
+
+	public ExponentialBackoff(long baseDelayMillis, long maxDelayMillis, int maxAttempts, Random random) {
+		if (baseDelayMillis <= 0 || maxDelayMillis < baseDelayMillis) {
+			throw new IllegalArgumentException("Invalid delays: base " + baseDelayMillis + " max " + maxDelayMillis);
+		}
+		if (maxAttempts < 1) {
+			throw new IllegalArgumentException("maxAttempts must be positive but was " + maxAttempts);
+		}
+
+		this.baseDelayMillis = baseDelayMillis;
+		this.maxDelayMillis = maxDelayMillis;
+		this.maxAttempts = maxAttempts;
+		this.random = random;
+	}
+
+	/**
+	 * Default backoff for node connections: starts at half a second, caps at thirty
+	 * seconds and gives up after twelve attempts (a few minutes in total).
+	 *
+	 * @return the default backoff
+	 */
+	public static ExponentialBackoff defaultBackoff() {
+		return new ExponentialBackoff(500, 30_000, 12);
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * Computes the delay before a given attempt.
+	 *
+	 * @param attempt the attempt number, starting at 1
+	 * @return delay in milliseconds
+	 */
+	public long delayMillis(int attempt) {
+		if (attempt < 1) {
+			throw new IllegalArgumentException("attempt must be positive but was " + attempt);
+		}
+
+		// Shift is bounded so the ceiling can't overflow before being capped
+		final long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 30));
+		synchronized (random) {
+			return 1 + (long) (random.nextDouble() * ceiling);
+		}
+	}
+}
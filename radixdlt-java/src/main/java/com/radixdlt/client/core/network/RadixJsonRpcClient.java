@@ -6,17 +6,30 @@ import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
 import com.radixdlt.client.core.address.EUID;
 import com.radixdlt.client.core.address.RadixUniverseConfig;
+import com.radixdlt.client.core.metrics.Metrics;
 import com.radixdlt.client.core.network.AtomSubmissionUpdate.AtomSubmissionState;
 import com.radixdlt.client.core.network.WebSocketClient.RadixClientStatus;
 import com.radixdlt.client.core.serialization.RadixJson;
+import com.radixdlt.client.core.util.Backpressure;
+import io.reactivex.Flowable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Single;
+import io.reactivex.SingleEmitter;
 import io.reactivex.disposables.Disposable;
+import java.util.ArrayList;
 import java.util.List;
 import com.radixdlt.client.core.atoms.Atom;
 
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,6 +52,11 @@ public class RadixJsonRpcClient {
 	 */
 	private static final Integer API_VERSION = 1;
 
+	/**
+	 * Default time a JSON-RPC call waits for its response once sent
+	 */
+	public static final long DEFAULT_CALL_TIMEOUT_MILLIS = 30_000;
+
 	/**
 	 * The websocket this is wrapping
 	 */
@@ -49,6 +67,31 @@ public class RadixJsonRpcClient {
 	 */
 	private final Observable<JsonObject> messages;
 
+	/**
+	 * Subscriptions on this connection by subscriber id, each consuming its notifications
+	 */
+	private final ConcurrentHashMap<String, Consumer<JsonObject>> subscribers = new ConcurrentHashMap<>();
+
+	/**
+	 * Hot observable which routes notifications to their subscriber while any are listening
+	 */
+	private final Observable<JsonObject> notifications;
+
+	/**
+	 * JSON-RPC calls awaiting their response, by request id
+	 */
+	private final ConcurrentHashMap<String, SingleEmitter<JsonElement>> pendingCalls = new ConcurrentHashMap<>();
+
+	/**
+	 * Hot observable which routes responses to their call while any are awaited
+	 */
+	private final Observable<JsonObject> responses;
+
+	/**
+	 * JSON-RPC calls awaiting an answer
+	 */
+	private final AtomicInteger inFlight = new AtomicInteger();
+
 	/**
 	 * Cached API version of Node
 	 */
@@ -59,8 +102,38 @@ public class RadixJsonRpcClient {
 	 */
 	private final Single<RadixUniverseConfig> universeConfig;
 
+	/**
+	 * Atoms of the node by hid, filled from lookups and from the atoms streamed by the node
+	 */
+	private final AtomCache atomCache;
+
+	/**
+	 * Time a JSON-RPC call waits for its response once sent
+	 */
+	private final long callTimeoutMillis;
+
 	public RadixJsonRpcClient(WebSocketClient wsClient) {
+		this(wsClient, new AtomCache(wsClient.toString()));
+	}
+
+	public RadixJsonRpcClient(WebSocketClient wsClient, AtomCache atomCache) {
+		this(wsClient, atomCache, DEFAULT_CALL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @param wsClient the websocket to wrap
+	 * @param atomCache cache of the atoms of the node by hid
+	 * @param callTimeout time a JSON-RPC call waits for its response once sent
+	 * @param unit unit of the call timeout
+	 */
+	public RadixJsonRpcClient(WebSocketClient wsClient, AtomCache atomCache, long callTimeout, TimeUnit unit) {
+		if (callTimeout <= 0) {
+			throw new IllegalArgumentException("callTimeout must be positive but was " + callTimeout);
+		}
+
 		this.wsClient = wsClient;
+		this.atomCache = atomCache;
+		this.callTimeoutMillis = unit.toMillis(callTimeout);
 
 		final JsonParser parser = new JsonParser();
 		this.messages = this.wsClient.getMessages()
@@ -68,6 +141,25 @@ public class RadixJsonRpcClient {
 			.publish()
 			.refCount();
 
+		this.notifications = this.messages
+			.filter(msg -> msg.has("method") && msg.has("params") && msg.get("params").isJsonObject())
+			.doOnNext(this::routeNotification)
+			.publish()
+			.refCount();
+
+		this.responses = this.messages
+			.filter(msg -> msg.has("id"))
+			.doOnNext(this::routeResponse)
+			.publish()
+			.refCount();
+
+		// Responses to calls sent on a connection never arrive once it is gone
+		this.wsClient.getStatus()
+			.filter(status -> status != RadixClientStatus.OPEN)
+			.subscribe(this::failPendingCalls);
+
+		Metrics.getRegistry().gauge(Metrics.RPC_IN_FLIGHT, inFlight, AtomicInteger::get, "node", wsClient.toString());
+
 		if (!CHECK_API_VERSION) {
 			this.serverApiVersion = Single.just(API_VERSION);
 		} else {
@@ -92,6 +184,31 @@ public class RadixJsonRpcClient {
 		return wsClient.getStatus();
 	}
 
+	/**
+	 * @return number of subscriptions currently open on this connection
+	 */
+	public int getSubscriptionCount() {
+		return subscribers.size();
+	}
+
+	/**
+	 * Hands a notification to its subscriber. A hash lookup on the subscriber id keeps
+	 * the cost of each frame independent of the number of open subscriptions.
+	 *
+	 * @param msg the notification received
+	 */
+	private void routeNotification(JsonObject msg) {
+		final JsonElement subscriberId = msg.getAsJsonObject("params").get("subscriberId");
+		if (subscriberId == null || !subscriberId.isJsonPrimitive()) {
+			return;
+		}
+
+		final Consumer<JsonObject> subscriber = subscribers.get(subscriberId.getAsString());
+		if (subscriber != null) {
+			subscriber.accept(msg);
+		}
+	}
+
 	/**
 	 * Attempts to close the websocket this client is connected to.
 	 * If there are still observers connected to the websocket closing
@@ -105,11 +222,73 @@ public class RadixJsonRpcClient {
 
 	/**
 	 * Generic helper method for calling a JSON-RPC method. Deserializes the received json.
+	 * Calls are timed and counted while in flight.
 	 *
 	 * @param method name of JSON-RPC method
 	 * @return response from rpc method
 	 */
 	private Single<JsonElement> jsonRpcCall(String method, JsonObject params) {
+		return Single.defer(() -> {
+			final long start = System.nanoTime();
+			inFlight.incrementAndGet();
+			return call(method, params)
+				.doOnEvent((result, error) -> Metrics.getRegistry()
+					.timer(Metrics.RPC_LATENCY, "node", wsClient.toString(), "method", method,
+						"outcome", error == null ? "success" : "error")
+					.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+				.doFinally(inFlight::decrementAndGet);
+		});
+	}
+
+	/**
+	 * Hands a response to the call awaiting it, looked up by request id so that the cost of
+	 * each frame is independent of the number of calls in flight
+	 *
+	 * @param msg the response received
+	 */
+	private void routeResponse(JsonObject msg) {
+		final JsonElement id = msg.get("id");
+		if (!id.isJsonPrimitive()) {
+			return;
+		}
+
+		final SingleEmitter<JsonElement> emitter = pendingCalls.remove(id.getAsString());
+		if (emitter == null) {
+			return;
+		}
+
+		if (msg.has("result")) {
+			emitter.onSuccess(msg.get("result"));
+		} else if (msg.has("error")) {
+			emitter.onError(new RuntimeException(msg.toString()));
+		} else {
+			emitter.onError(new RuntimeException("Received bad json rpc message: " + msg.toString()));
+		}
+	}
+
+	/**
+	 * Fails every call awaiting a response on a connection which is no longer open
+	 *
+	 * @param status the status the connection changed to
+	 */
+	private void failPendingCalls(RadixClientStatus status) {
+		for (String id : pendingCalls.keySet()) {
+			final SingleEmitter<JsonElement> emitter = pendingCalls.remove(id);
+			if (emitter != null) {
+				emitter.onError(new ConnectionLostException("Connection to " + wsClient + " " + status));
+			}
+		}
+	}
+
+	/**
+	 * Whether an error only means the connection was lost, after which subscriptions are
+	 * re-established by their resubscription on reconnect
+	 */
+	private static boolean isConnectionLost(Throwable error) {
+		return error instanceof ConnectionLostException;
+	}
+
+	private Single<JsonElement> call(String method, JsonObject params) {
 		return this.wsClient.connect().andThen(
 			Single.<JsonElement>create(emitter -> {
 				final String uuid = UUID.randomUUID().toString();
@@ -119,35 +298,21 @@ public class RadixJsonRpcClient {
 				requestObject.addProperty("method", method);
 				requestObject.add("params", params);
 
-				messages
-					.filter(msg -> msg.has("id"))
-					.filter(msg -> msg.get("id").getAsString().equals(uuid))
-					.firstOrError()
-					.doOnSubscribe(disposable -> {
-						boolean sendSuccess = wsClient.send(RadixJson.getGson().toJson(requestObject));
-						if (!sendSuccess) {
-							disposable.dispose();
-							emitter.onError(new RuntimeException("Could not connect."));
-						}
-					})
-					.subscribe(
-						msg -> {
-							final JsonObject received = msg.getAsJsonObject();
-							if (received.has("result")) {
-								emitter.onSuccess(received.get("result"));
-							} else if (received.has("error")) {
-								emitter.onError(new RuntimeException(received.toString()));
-							} else {
-								emitter.onError(
-									new RuntimeException("Received bad json rpc message: " + received.toString())
-								);
-							}
-						},
-						err -> {
-							emitter.onError(new RuntimeException(err.getMessage()));
-						}
-					);
-			})
+				// Awaiting the response before sending the request so it cannot be missed
+				pendingCalls.put(uuid, emitter);
+				Disposable responsesDisposable = responses.subscribe(
+					msg -> { },
+					err -> emitter.onError(new RuntimeException(err.getMessage()))
+				);
+				emitter.setCancellable(() -> {
+					pendingCalls.remove(uuid);
+					responsesDisposable.dispose();
+				});
+
+				if (!wsClient.send(RadixJson.getGson().toJson(requestObject))) {
+					emitter.onError(new RuntimeException("Could not connect."));
+				}
+			}).timeout(callTimeoutMillis, TimeUnit.MILLISECONDS)
 		);
 	}
 
@@ -202,12 +367,16 @@ public class RadixJsonRpcClient {
 	/**
 	 * Connects to this Radix Node if not already connected and queries for an atom by HID.
 	 * If the node does not carry the atom (e.g. if it does not reside on the same shard) then
-	 * this method will return an empty Maybe.
+	 * this method will return an empty Maybe. Answers are cached, see {@link AtomCache}.
 	 *
 	 * @param hid the hash id of the atom being queried
 	 * @return the atom if found, if not, return an empty Maybe
 	 */
 	public Maybe<Atom> getAtom(EUID hid) {
+		return atomCache.get(hid, () -> fetchAtom(hid));
+	}
+
+	private Maybe<Atom> fetchAtom(EUID hid) {
 		JsonObject params = new JsonObject();
 		params.addProperty("hid", hid.toString());
 
@@ -236,31 +405,81 @@ public class RadixJsonRpcClient {
 	 * @return Observable of emitted subscription json elements
 	 */
 	public Observable<JsonElement> jsonRpcSubscribe(String method, JsonObject rawParams, String notificationMethod) {
+		return this.jsonRpcSubscribe(method, () -> rawParams, notificationMethod);
+	}
+
+	/**
+	 * Generic helper method for creating a subscription via JSON-RPC which respects
+	 * the demand of its subscriber. Notifications the subscriber is not ready for are
+	 * handled by the given strategy as the node cannot be paused mid-subscription.
+	 *
+	 * @param method name of subscription method
+	 * @param rawParams parameters to subscription method
+	 * @param notificationMethod name of the JSON-RPC notification method
+	 * @param backpressure what to do with notifications the subscriber is not ready for
+	 * @return Flowable of emitted subscription json elements
+	 */
+	public Flowable<JsonElement> jsonRpcSubscribe(String method, JsonObject rawParams, String notificationMethod, Backpressure backpressure) {
+		return backpressure.apply(this.jsonRpcSubscribe(method, rawParams, notificationMethod));
+	}
+
+	/**
+	 * Generic helper method for creating a subscription via JSON-RPC. If the underlying
+	 * websocket reconnects the subscription is re-established on the new connection under
+	 * the same subscriber id, with parameters re-read from the given supplier.
+	 *
+	 * @param method name of subscription method
+	 * @param rawParams supplier of parameters to subscription method, called on every (re)subscribe
+	 * @param notificationMethod name of the JSON-RPC notification method
+	 * @return Observable of emitted subscription json elements
+	 */
+	private Observable<JsonElement> jsonRpcSubscribe(String method, Supplier<JsonObject> rawParams, String notificationMethod) {
 		return this.wsClient.connect().andThen(
 			Observable.create(emitter -> {
 				final String subscriberId = UUID.randomUUID().toString();
-				final JsonObject params = rawParams.deepCopy();
-				params.addProperty("subscriberId", subscriberId);
-
-				Disposable subscriptionDisposable = messages
-					.filter(msg -> msg.has("method"))
-					.filter(msg -> msg.get("method").getAsString().equals(notificationMethod))
-					.map(msg -> msg.get("params").getAsJsonObject())
-					.filter(p -> p.get("subscriberId").getAsString().equals(subscriberId))
+				final Supplier<JsonObject> params = () -> {
+					JsonObject p = rawParams.get().deepCopy();
+					p.addProperty("subscriberId", subscriberId);
+					return p;
+				};
+
+				subscribers.put(subscriberId, msg -> {
+					if (msg.get("method").getAsString().equals(notificationMethod)) {
+						emitter.onNext(msg.get("params"));
+					}
+				});
+				Disposable subscriptionDisposable = notifications.subscribe(
+					msg -> { },
+					emitter::onError
+				);
+
+				Disposable methodDisposable = this.jsonRpcCall(method, params.get())
+					.toMaybe()
+					.onErrorComplete(RadixJsonRpcClient::isConnectionLost)
 					.subscribe(
-						emitter::onNext,
+						msg -> { },
 						emitter::onError
 					);
 
-				Disposable methodDisposable = this.jsonRpcCall(method, params)
+				// Node forgets our subscriptions when the connection drops so resubscribe
+				// every time the websocket comes back up
+				Disposable resubscribeDisposable = this.wsClient.getStatus()
+					.distinctUntilChanged()
+					.skip(1)
+					.filter(status -> status == RadixClientStatus.OPEN)
+					.flatMapMaybe(status -> this.jsonRpcCall(method, params.get())
+						.toMaybe()
+						.onErrorComplete(RadixJsonRpcClient::isConnectionLost))
 					.subscribe(
-						msg -> { },
+						msg -> LOGGER.info("Resubscribed {} {} after reconnect", method, subscriberId),
 						emitter::onError
 					);
 
 				emitter.setCancellable(() -> {
+					subscribers.remove(subscriberId);
 					methodDisposable.dispose();
 					subscriptionDisposable.dispose();
+					resubscribeDisposable.dispose();
 
 					final String cancelUuid = UUID.randomUUID().toString();
 					JsonObject cancelObject = new JsonObject();
@@ -277,30 +496,108 @@ public class RadixJsonRpcClient {
 
 	/**
 	 *  Retrieves all atoms from a node specified by a query. This includes all past
-	 *  and future atoms. The Observable returned will never complete.
+	 *  and future atoms. The Observable returned will never complete. If the query has
+	 *  a cursor only atoms after it are retrieved. If the connection is lost and
+	 *  re-established the subscription resumes after the last atom received.
 	 *
 	 * @param atomQuery query specifying which atoms to retrieve
 	 * @param <T> atom type
 	 * @return observable of atoms
 	 */
 	public <T extends Atom> Observable<T> getAtoms(AtomQuery<T> atomQuery) {
-		final JsonObject params = new JsonObject();
+		return Observable.defer(() -> {
+			final AtomicReference<AtomCursor> cursor = new AtomicReference<>(atomQuery.getCursor().orElse(null));
+			final Supplier<JsonObject> params = () -> {
+				JsonObject p = new JsonObject();
+				p.add("query", atomQuery.withLimit(0).withCursor(cursor.get()).toJson());
+				return p;
+			};
+
+			return this.jsonRpcSubscribe("Atoms.subscribe", params, "Atoms.subscribeUpdate")
+				.map(p -> p.getAsJsonObject().get("atoms").getAsJsonArray())
+				.flatMapIterable(array -> array)
+				.map(JsonElement::getAsJsonObject)
+				.map(jsonAtom -> RadixJson.getGson().fromJson(jsonAtom, atomQuery.getAtomClass()))
+				.map(atom -> {
+					atom.putDebug("RECEIVED", System.currentTimeMillis());
+					cursor.updateAndGet(c -> AtomCursor.advance(c, atom));
+					atomCache.put(atom);
+					return atom;
+				});
+		});
+	}
+
+	/**
+	 * Retrieves a single page of past atoms specified by a query, without subscribing
+	 * to future atoms. The page starts after the query's cursor, if any, and holds at most
+	 * the query's limit of atoms. A page smaller than the limit means the end of the
+	 * history known to the node has been reached.
+	 *
+	 * @param atomQuery query specifying which atoms to retrieve
+	 * @param <T> atom type
+	 * @return the page of atoms
+	 */
+	public <T extends Atom> Single<List<T>> getAtomsPage(AtomQuery<T> atomQuery) {
+		JsonObject params = new JsonObject();
 		params.add("query", atomQuery.toJson());
 
-		return this.jsonRpcSubscribe("Atoms.subscribe", params, "Atoms.subscribeUpdate")
-			.map(p -> p.getAsJsonObject().get("atoms").getAsJsonArray())
-			.flatMapIterable(array -> array)
-			.map(JsonElement::getAsJsonObject)
-			.map(jsonAtom -> RadixJson.getGson().fromJson(jsonAtom, atomQuery.getAtomClass()))
-			.map(atom -> {
-				atom.putDebug("RECEIVED", System.currentTimeMillis());
-				return atom;
+		return this.jsonRpcCall("Ledger.getAtoms", params)
+			.map(JsonElement::getAsJsonArray)
+			.map(array -> {
+				List<T> atoms = new ArrayList<>(array.size());
+				for (JsonElement jsonAtom : array) {
+					final T atom = RadixJson.getGson().fromJson(jsonAtom, atomQuery.getAtomClass());
+					atomCache.put(atom);
+					atoms.add(atom);
+				}
+				return atoms;
 			});
 	}
 
+	/**
+	 * Retrieves all atoms from a node specified by a query, respecting the demand of
+	 * the subscriber. Past atoms are fetched a page at a time, a single page ahead of
+	 * the atoms the subscriber has asked for, so that arbitrarily long histories are
+	 * streamed with at most two pages in memory. Once the history is exhausted future
+	 * atoms are subscribed to, with those the subscriber is not ready for handled by the
+	 * given strategy. The Flowable returned will never complete.
+	 *
+	 * @param atomQuery query specifying which atoms to retrieve
+	 * @param pageSize number of atoms per page of history
+	 * @param backpressure what to do with future atoms the subscriber is not ready for
+	 * @param <T> atom type
+	 * @return flowable of atoms
+	 */
+	public <T extends Atom> Flowable<T> getAtoms(AtomQuery<T> atomQuery, int pageSize, Backpressure backpressure) {
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("pageSize must be positive but was " + pageSize);
+		}
+
+		return Flowable.defer(() -> {
+			final AtomicReference<AtomCursor> cursor = new AtomicReference<>(atomQuery.getCursor().orElse(null));
+			final AtomicBoolean exhausted = new AtomicBoolean(false);
+
+			// Pages come in atom order so each page starts after the last atom of the previous one
+			final Flowable<T> history = Flowable
+				.defer(() -> this.getAtomsPage(atomQuery.withLimit(pageSize).withCursor(cursor.get())).toFlowable())
+				.doOnNext(page -> {
+					exhausted.set(page.size() < pageSize);
+					if (!page.isEmpty()) {
+						cursor.set(AtomCursor.of(page.get(page.size() - 1)));
+					}
+				})
+				.repeatUntil(exhausted::get)
+				.concatMapIterable(page -> page, 1);
+
+			return history.concatWith(Flowable.defer(() -> backpressure.apply(this.getAtoms(atomQuery.withCursor(cursor.get())))));
+		});
+	}
+
 	/**
 	 * Attempt to submit an atom to a node. Returns the status of the atom as it
-	 * gets stored on the node.
+	 * gets stored on the node. The node forgets about the submission if the connection
+	 * is lost before the atom is stored, in which case the submission ends as
+	 * {@link AtomSubmissionState#CONNECTION_LOST} as the atom may still get stored.
 	 *
 	 * @param atom the atom to submit
 	 * @param <T> the type of atom
@@ -315,27 +612,29 @@ public class RadixJsonRpcClient {
 			params.addProperty("subscriberId", subscriberId);
 			params.add("atom", jsonAtom);
 
-			Disposable subscriptionDisposable = messages
-				.filter(msg -> msg.has("method"))
-				.filter(msg -> msg.get("method").getAsString().equals("AtomSubmissionState.onNext"))
-				.map(msg -> msg.get("params").getAsJsonObject())
-				.filter(p -> p.get("subscriberId").getAsString().equals(subscriberId))
-				.map(p -> {
-					final AtomSubmissionState state = AtomSubmissionState.valueOf(p.get("value").getAsString());
-					final String message;
-					if (p.has("message")) {
-						message = p.get("message").getAsString();
-					} else {
-						message = null;
-					}
-					return AtomSubmissionUpdate.now(atom.getHid(), state, message);
-				})
-				.takeUntil(AtomSubmissionUpdate::isComplete)
-				.subscribe(
-					emitter::onNext,
-					emitter::onError,
-					emitter::onComplete
-				);
+			subscribers.put(subscriberId, msg -> {
+				if (!msg.get("method").getAsString().equals("AtomSubmissionState.onNext")) {
+					return;
+				}
+
+				final JsonObject p = msg.getAsJsonObject("params");
+				final AtomSubmissionState state = AtomSubmissionState.valueOf(p.get("value").getAsString());
+				final String message;
+				if (p.has("message")) {
+					message = p.get("message").getAsString();
+				} else {
+					message = null;
+				}
+				final AtomSubmissionUpdate update = AtomSubmissionUpdate.now(atom.getHid(), state, message);
+				emitter.onNext(update);
+				if (update.isComplete()) {
+					emitter.onComplete();
+				}
+			});
+			Disposable subscriptionDisposable = notifications.subscribe(
+				msg -> { },
+				emitter::onError
+			);
 
 
 			Disposable methodDisposable = this.jsonRpcCall("Universe.submitAtomAndSubscribe", params)
@@ -347,10 +646,12 @@ public class RadixJsonRpcClient {
 				.subscribe(
 					msg -> emitter.onNext(AtomSubmissionUpdate.now(atom.getHid(), AtomSubmissionState.SUBMITTED)),
 					throwable -> {
+						// The atom may have reached the node unless it was never sent
+						final boolean maybeSent = isConnectionLost(throwable) || throwable instanceof TimeoutException;
 						emitter.onNext(
 							AtomSubmissionUpdate.now(
 								atom.getHid(),
-								AtomSubmissionState.FAILED,
+								maybeSent ? AtomSubmissionState.CONNECTION_LOST : AtomSubmissionState.FAILED,
 								throwable.getMessage()
 							)
 						);
@@ -358,9 +659,26 @@ public class RadixJsonRpcClient {
 					}
 				);
 
+			Disposable statusDisposable = this.wsClient.getStatus()
+				.skipWhile(status -> status != RadixClientStatus.OPEN)
+				.filter(status -> status != RadixClientStatus.OPEN)
+				.firstElement()
+				.subscribe(status -> {
+					emitter.onNext(
+						AtomSubmissionUpdate.now(
+							atom.getHid(),
+							AtomSubmissionState.CONNECTION_LOST,
+							"Connection to " + wsClient + " " + status + " before atom was stored"
+						)
+					);
+					emitter.onComplete();
+				});
+
 			emitter.setCancellable(() -> {
+				subscribers.remove(subscriberId);
 				methodDisposable.dispose();
 				subscriptionDisposable.dispose();
+				statusDisposable.dispose();
 			});
 		});
 	}
@@ -6,6 +6,7 @@ import io.reactivex.observables.ConnectableObservable;
 
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import org.slf4j.Logger;
@@ -27,6 +28,10 @@ public final class RadixNetwork {
 	 */
 	private final ConnectableObservable<SimpleImmutableEntry<String, RadixClientStatus>> statusUpdates;
 
+	/**
+	 * Index of peers which are not failing by the shards they serve
+	 */
+	private final ShardRangeIndex<RadixPeer> shardIndex = new ShardRangeIndex<>();
 
 	public RadixNetwork(PeerDiscovery peerDiscovery) {
 		Objects.requireNonNull(peerDiscovery);
@@ -34,7 +39,7 @@ public final class RadixNetwork {
 		this.peers = peerDiscovery.findPeers()
 			.retryWhen(new IncreasingRetryTimer())
 			.doOnNext(peer -> LOGGER.info("Added to peer list: " + peer.getLocation()))
-			.replay().autoConnect(2);
+			.replay().autoConnect(3);
 
 		this.statusUpdates = peers.map(RadixPeer::getRadixClient)
 			.flatMap(
@@ -44,6 +49,23 @@ public final class RadixNetwork {
 			)
 			.publish();
 		this.statusUpdates.connect();
+
+		// Keep the shard index up to date as peers join, fail or recover
+		this.peers.flatMap(peer ->
+			Observable.defer(() -> peer.getData().toObservable())
+				.flatMap(data -> peer.getRadixClient().getStatus().map(status -> {
+					if (status == RadixClientStatus.FAILURE) {
+						shardIndex.remove(peer);
+					} else {
+						shardIndex.put(peer, data.getShards());
+					}
+					return status;
+				}))
+				.onErrorResumeNext(Observable.empty())
+		).subscribe(
+			status -> { },
+			e -> LOGGER.warn("Shard index stopped updating: {}", e.toString())
+		);
 	}
 
 	public Observable<SimpleImmutableEntry<String, RadixClientStatus>> connectAndGetStatusUpdates() {
@@ -64,8 +86,23 @@ public final class RadixNetwork {
 		return peers.map(RadixPeer::getRadixClient);
 	}
 
+	/**
+	 * Returns the clients of peers serving any of a set of shards. Peers are looked up
+	 * in the shard index, falling back to scanning all peers as they are discovered if
+	 * no indexed peer serves the shards yet.
+	 *
+	 * @param shards shards to be served
+	 * @return clients of peers serving the shards
+	 */
 	public Observable<RadixJsonRpcClient> getRadixClients(Set<Long> shards) {
-		return peers.flatMapMaybe(peer -> peer.servesShards(shards)).map(RadixPeer::getRadixClient)
+		return Observable.defer(() -> {
+			final List<RadixPeer> indexed = shardIndex.get(shards);
+			if (indexed.isEmpty()) {
+				return peers.flatMapMaybe(peer -> peer.servesShards(shards));
+			}
+			return Observable.fromIterable(indexed);
+		})
+			.map(RadixPeer::getRadixClient)
 			.flatMapMaybe(client -> client.checkAPIVersion().filter(b -> b).map(b -> client));
 	}
 
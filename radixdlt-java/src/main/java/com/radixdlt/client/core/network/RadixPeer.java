@@ -1,6 +1,9 @@
 package com.radixdlt.client.core.network;
 
+import com.radixdlt.client.core.RadixSchedulers;
 import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
 import io.reactivex.subjects.SingleSubject;
 import java.util.Set;
 import okhttp3.Request;
@@ -23,14 +26,22 @@ public class RadixPeer {
 			this.radixClient = new RadixJsonRpcClient(
 				new WebSocketClient(
 					HttpClients::getSslAllTrustingClient,
-					new Request.Builder().url("wss://" + location + ":" + port + "/rpc").build()
+					new Request.Builder().url("wss://" + location + ":" + port + "/rpc").build(),
+					ExponentialBackoff.defaultBackoff(),
+					Schedulers.computation(),
+					RadixSchedulers.decode(),
+					WebSocketClient.DEFAULT_MAX_QUEUED_MESSAGES
 				)
 			);
 		} else {
 			this.radixClient = new RadixJsonRpcClient(
 				new WebSocketClient(
 					HttpClients::getSslAllTrustingClient,
-					new Request.Builder().url("ws://" + location + ":" + port + "/rpc").build()
+					new Request.Builder().url("ws://" + location + ":" + port + "/rpc").build(),
+					ExponentialBackoff.defaultBackoff(),
+					Schedulers.computation(),
+					RadixSchedulers.decode(),
+					WebSocketClient.DEFAULT_MAX_QUEUED_MESSAGES
 				)
 			);
 		}
@@ -52,6 +63,13 @@ public class RadixPeer {
 		return radixClient;
 	}
 
+	/**
+	 * @return the node data of this peer once known
+	 */
+	public Single<NodeRunnerData> getData() {
+		return data;
+	}
+
 	public RadixPeer data(NodeRunnerData data) {
 		this.data.onSuccess(data);
 		return this;
@@ -0,0 +1,131 @@
+package com.radixdlt.client.core.network;
+
+import com.radixdlt.client.core.atoms.Shards;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Index from shards to the items (e.g. peers) whose shard range covers them.
+ * The ranges are cut into elementary segments at every range boundary, each segment
+ * holding the items covering it, so that a lookup is a binary search over the
+ * segment boundaries. Updates are rare compared to lookups so they rebuild an
+ * immutable snapshot which lookups read without locking.
+ *
+ * @param <T> type of item indexed
+ */
+final class ShardRangeIndex<T> {
+	private static final class Snapshot<T> {
+		/**
+		 * Sorted first shard of each segment, a segment ending where the next one starts
+		 */
+		private final long[] starts;
+
+		/**
+		 * Items covering each segment
+		 */
+		private final List<List<T>> members;
+
+		private Snapshot(long[] starts, List<List<T>> members) {
+			this.starts = starts;
+			this.members = members;
+		}
+	}
+
+	/**
+	 * Shard range of each item, in order of insertion
+	 */
+	private final Map<T, Shards> ranges = new LinkedHashMap<>();
+
+	private volatile Snapshot<T> snapshot = new Snapshot<>(new long[0], Collections.emptyList());
+
+	/**
+	 * Adds an item or updates its shard range
+	 *
+	 * @param item item to add
+	 * @param shards shard range covered by the item
+	 */
+	synchronized void put(T item, Shards shards) {
+		if (shards.equals(ranges.put(item, shards))) {
+			return;
+		}
+		rebuild();
+	}
+
+	synchronized void remove(T item) {
+		if (ranges.remove(item) != null) {
+			rebuild();
+		}
+	}
+
+	synchronized int size() {
+		return ranges.size();
+	}
+
+	private void rebuild() {
+		final TreeSet<Long> boundaries = new TreeSet<>();
+		for (Shards shards : ranges.values()) {
+			boundaries.add(shards.getLow());
+			if (shards.getHigh() != Long.MAX_VALUE) {
+				boundaries.add(shards.getHigh() + 1);
+			}
+		}
+
+		final long[] starts = new long[boundaries.size()];
+		final List<List<T>> members = new ArrayList<>(boundaries.size());
+		int i = 0;
+		for (long start : boundaries) {
+			starts[i++] = start;
+			final List<T> covering = new ArrayList<>();
+			for (Map.Entry<T, Shards> range : ranges.entrySet()) {
+				if (range.getValue().getLow() <= start && start <= range.getValue().getHigh()) {
+					covering.add(range.getKey());
+				}
+			}
+			members.add(Collections.unmodifiableList(covering));
+		}
+
+		this.snapshot = new Snapshot<>(starts, members);
+	}
+
+	/**
+	 * Items whose shard range covers a shard
+	 *
+	 * @param shard shard to look up
+	 * @return covering items in order of insertion
+	 */
+	List<T> get(long shard) {
+		final Snapshot<T> current = this.snapshot;
+		int index = Arrays.binarySearch(current.starts, shard);
+		if (index < 0) {
+			// Segment is the one starting before the insertion point
+			index = -index - 2;
+		}
+		return index < 0 ? Collections.emptyList() : current.members.get(index);
+	}
+
+	/**
+	 * Items whose shard range covers any of a set of shards
+	 *
+	 * @param shards shards to look up
+	 * @return covering items without duplicates
+	 */
+	List<T> get(Collection<Long> shards) {
+		if (shards.size() == 1) {
+			return get(shards.iterator().next());
+		}
+
+		final Set<T> items = new LinkedHashSet<>();
+		for (Long shard : shards) {
+			items.addAll(get(shard));
+		}
+		return new ArrayList<>(items);
+	}
+}
@@ -1,12 +1,20 @@
 package com.radixdlt.client.core.network;
 
+import com.radixdlt.client.core.RadixSchedulers;
+import com.radixdlt.client.core.metrics.Metrics;
+import com.radixdlt.client.core.util.BoundedHandoff;
 import io.reactivex.Completable;
 import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
 import io.reactivex.exceptions.Exceptions;
+import io.reactivex.schedulers.Schedulers;
 import io.reactivex.subjects.BehaviorSubject;
 import io.reactivex.subjects.PublishSubject;
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -19,20 +27,112 @@ import org.slf4j.LoggerFactory;
 public class WebSocketClient {
 	private static final Logger LOGGER = LoggerFactory.getLogger(WebSocketClient.class);
 
+	/**
+	 * Default number of messages received but not yet passed on before the connection is dropped
+	 */
+	public static final int DEFAULT_MAX_QUEUED_MESSAGES = 1024;
+
 	private WebSocket webSocket;
 	public enum RadixClientStatus {
-		CONNECTING, OPEN, CLOSING, CLOSED, FAILURE
+		CONNECTING, OPEN, CLOSING, CLOSED, FAILURE, RECONNECTING
 	}
 
 	private final BehaviorSubject<RadixClientStatus> status = BehaviorSubject.createDefault(RadixClientStatus.CLOSED);
 	private final Request endpoint;
 	private final Supplier<OkHttpClient> okHttpClient;
 
+	/**
+	 * Backoff between reconnection attempts, null if reconnection is disabled
+	 */
+	private final ExponentialBackoff reconnectBackoff;
+
+	/**
+	 * Scheduler on which delayed reconnection attempts are run
+	 */
+	private final Scheduler reconnectScheduler;
+
+	/**
+	 * Failed reconnection attempts since the connection was lost
+	 */
+	private final AtomicInteger reconnectAttempts = new AtomicInteger();
+
+	/**
+	 * Number of times a lost connection has been successfully recovered
+	 */
+	private final AtomicLong reconnectCount = new AtomicLong();
+
+	/**
+	 * Time at which the current connection was lost, 0 if not recovering
+	 */
+	private volatile long connectionLostAt = 0L;
+
+	/**
+	 * Time it took the last successful reconnection to recover, -1 if never recovered
+	 */
+	private volatile long lastTimeToRecoverMillis = -1L;
+
+	private Disposable pendingReconnect;
+
 	private PublishSubject<String> messages = PublishSubject.create();
 
+	/**
+	 * Messages received, passed on in order on the message scheduler
+	 */
+	private final BoundedHandoff<String> received;
+
 	public WebSocketClient(Supplier<OkHttpClient> okHttpClient, Request endpoint) {
+		this(okHttpClient, endpoint, null, Schedulers.computation());
+	}
+
+	/**
+	 * Creates a websocket client which transparently reconnects when an established connection
+	 * with active message observers is lost. Observers of {@link #getMessages()} will not see the
+	 * failure unless all reconnection attempts are exhausted.
+	 *
+	 * @param okHttpClient supplier of the http client to connect with
+	 * @param endpoint the websocket endpoint
+	 * @param reconnectBackoff backoff between reconnection attempts, null to disable reconnection
+	 */
+	public WebSocketClient(Supplier<OkHttpClient> okHttpClient, Request endpoint, ExponentialBackoff reconnectBackoff) {
+		this(okHttpClient, endpoint, reconnectBackoff, Schedulers.computation());
+	}
+
+	public WebSocketClient(
+		Supplier<OkHttpClient> okHttpClient,
+		Request endpoint,
+		ExponentialBackoff reconnectBackoff,
+		Scheduler reconnectScheduler
+	) {
+		this(okHttpClient, endpoint, reconnectBackoff, reconnectScheduler, Schedulers.trampoline(), DEFAULT_MAX_QUEUED_MESSAGES);
+	}
+
+	/**
+	 * Creates a websocket client passing messages on away from the thread reading the socket,
+	 * so that slow observers do not hold up reading. That thread is never blocked as it also
+	 * handles control frames. If too many messages are waiting to be passed on, the connection
+	 * is dropped and handled like any lost connection rather than losing a message unnoticed.
+	 *
+	 * @param okHttpClient supplier of the http client to connect with
+	 * @param endpoint the websocket endpoint
+	 * @param reconnectBackoff backoff between reconnection attempts, null to disable reconnection
+	 * @param reconnectScheduler scheduler on which delayed reconnection attempts are run
+	 * @param messageScheduler scheduler on which messages are passed on, trampoline to pass them
+	 * on from the thread reading the socket
+	 * @param maxQueuedMessages maximum number of messages waiting to be passed on
+	 */
+	public WebSocketClient(
+		Supplier<OkHttpClient> okHttpClient,
+		Request endpoint,
+		ExponentialBackoff reconnectBackoff,
+		Scheduler reconnectScheduler,
+		Scheduler messageScheduler,
+		int maxQueuedMessages
+	) {
 		this.okHttpClient = okHttpClient;
 		this.endpoint = endpoint;
+		this.reconnectBackoff = reconnectBackoff;
+		this.reconnectScheduler = reconnectScheduler;
+		this.received = new BoundedHandoff<>(messageScheduler, maxQueuedMessages, message -> messages.onNext(message));
 
 		this.status
 			.filter(status -> status.equals(RadixClientStatus.FAILURE))
@@ -55,11 +155,47 @@ public class WebSocketClient {
 		return status;
 	}
 
+	/**
+	 * @return number of times a lost connection has been successfully re-established
+	 */
+	public long getReconnectCount() {
+		return reconnectCount.get();
+	}
+
+	/**
+	 * @return number of messages received but not yet passed on
+	 */
+	public int getQueuedMessageCount() {
+		return received.size();
+	}
+
+	/**
+	 * @return milliseconds between losing the connection and re-establishing it for the
+	 * last successful reconnection, or -1 if no reconnection has happened yet
+	 */
+	public long getLastTimeToRecoverMillis() {
+		return lastTimeToRecoverMillis;
+	}
+
 	public boolean close() {
 		if (messages.hasObservers()) {
 			return false;
 		}
 
+		synchronized (this) {
+			if (this.pendingReconnect != null) {
+				this.pendingReconnect.dispose();
+				this.pendingReconnect = null;
+			}
+		}
+
+		if (this.status.getValue() == RadixClientStatus.RECONNECTING) {
+			this.connectionLostAt = 0L;
+			this.reconnectAttempts.set(0);
+			this.status.onNext(RadixClientStatus.CLOSED);
+			return true;
+		}
+
 		if (this.webSocket != null) {
 			this.status.onNext(RadixClientStatus.CLOSING);
 			this.webSocket.cancel();
@@ -77,15 +213,34 @@ public class WebSocketClient {
 		this.status.onNext(RadixClientStatus.CONNECTING);
 
 		// HACKISH: fix
+		// Callbacks run on OkHttp's reader thread, which must not block on the library
 		this.webSocket = this.okHttpClient.get().newWebSocket(endpoint, new WebSocketListener() {
 			@Override
 			public void onOpen(WebSocket webSocket, Response response) {
-				WebSocketClient.this.status.onNext(RadixClientStatus.OPEN);
+				RadixSchedulers.runNonBlocking(() -> {
+					if (connectionLostAt != 0L) {
+						lastTimeToRecoverMillis = System.currentTimeMillis() - connectionLostAt;
+						connectionLostAt = 0L;
+						reconnectCount.incrementAndGet();
+						Metrics.getRegistry()
+							.counter(Metrics.RECONNECTS, "node", WebSocketClient.this.toString())
+							.increment();
+						LOGGER.info("Reconnected to {} after {} ms", endpoint, lastTimeToRecoverMillis);
+					}
+					reconnectAttempts.set(0);
+					WebSocketClient.this.status.onNext(RadixClientStatus.OPEN);
+				});
 			}
 
 			@Override
 			public void onMessage(WebSocket webSocket, String message) {
-				messages.onNext(message);
+				RadixSchedulers.runNonBlocking(() -> {
+					if (!received.offer(message)) {
+						LOGGER.warn("Too many messages from {} waiting to be passed on, dropping the connection", endpoint);
+						// Fails the connection through onFailure, reconnecting if enabled
+						webSocket.cancel();
+					}
+				});
 			}
 
 			@Override
@@ -95,24 +250,70 @@ public class WebSocketClient {
 
 			@Override
 			public void onClosed(WebSocket webSocket, int code, String reason) {
-				WebSocketClient.this.status.onNext(RadixClientStatus.CLOSED);
+				RadixSchedulers.runNonBlocking(() -> {
+					// Closed by the node rather than by us
+					if (!status.getValue().equals(RadixClientStatus.CLOSING) && shouldReconnect()) {
+						scheduleReconnect();
+						return;
+					}
+
+					WebSocketClient.this.status.onNext(RadixClientStatus.CLOSED);
+				});
 			}
 
 			@Override
 			public void onFailure(WebSocket websocket, Throwable t, Response response) {
-				if (status.getValue().equals(RadixClientStatus.CLOSING)) {
-					WebSocketClient.this.status.onNext(RadixClientStatus.CLOSED);
-					return;
-				}
+				RadixSchedulers.runNonBlocking(() -> {
+					if (status.getValue().equals(RadixClientStatus.CLOSING)) {
+						WebSocketClient.this.status.onNext(RadixClientStatus.CLOSED);
+						return;
+					}
+
+					LOGGER.error(t.toString());
 
-				LOGGER.error(t.toString());
-				WebSocketClient.this.status.onNext(RadixClientStatus.FAILURE);
+					if (shouldReconnect()) {
+						scheduleReconnect();
+						return;
+					}
 
-				WebSocketClient.this.messages.onError(new IOException("Connection Failure."));
+					connectionLostAt = 0L;
+					reconnectAttempts.set(0);
+					WebSocketClient.this.status.onNext(RadixClientStatus.FAILURE);
+
+					received.execute(() -> WebSocketClient.this.messages.onError(new IOException("Connection Failure.")));
+				});
 			}
 		});
 	}
 
+	/**
+	 * A connection is only re-established if someone is still listening on it and
+	 * the backoff has not run out of attempts.
+	 */
+	private boolean shouldReconnect() {
+		return reconnectBackoff != null
+			&& messages.hasObservers()
+			&& reconnectAttempts.get() < reconnectBackoff.getMaxAttempts();
+	}
+
+	private synchronized void scheduleReconnect() {
+		final int attempt = reconnectAttempts.incrementAndGet();
+		if (connectionLostAt == 0L) {
+			connectionLostAt = System.currentTimeMillis();
+		}
+
+		final long delay = reconnectBackoff.delayMillis(attempt);
+		LOGGER.info("Connection to {} lost, reconnect attempt {} in {} ms", endpoint, attempt, delay);
+		this.status.onNext(RadixClientStatus.RECONNECTING);
+
+		this.pendingReconnect = Completable.timer(delay, TimeUnit.MILLISECONDS, reconnectScheduler)
+			.subscribe(() -> {
+				if (this.status.getValue() == RadixClientStatus.RECONNECTING) {
+					this.tryConnect();
+				}
+			});
+	}
+
 	/**
 	 * Attempts to connect to this Radix node on subscribe if not already connected
 	 *
@@ -139,6 +340,6 @@ public class WebSocketClient {
 
 	@Override
 	public String toString() {
-		return endpoint.toString();
+		return String.valueOf(endpoint.url());
 	}
 }
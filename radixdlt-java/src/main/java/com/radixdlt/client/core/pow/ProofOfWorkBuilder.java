@@ -1,6 +1,7 @@
 package com.radixdlt.client.core.pow;
 
 import com.radixdlt.client.core.atoms.RadixHash;
+import com.radixdlt.client.core.metrics.Metrics;
 import okio.ByteString;
 
 import java.nio.ByteBuffer;
@@ -12,6 +13,10 @@ public class ProofOfWorkBuilder {
 			throw new IllegalArgumentException();
 		}
 
+		return Metrics.getRegistry().timer(Metrics.POW).record(() -> compute(magic, seed, leading));
+	}
+
+	private ProofOfWork compute(int magic, byte[] seed, int leading) {
 		BitSet targetBitSet = new BitSet(256);
 		targetBitSet.set(0, 256);
 		targetBitSet.clear(0, (leading / 8) * 8);
@@ -0,0 +1,94 @@
+package com.radixdlt.client.core.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracer logging every span as it ends, for use where no tracing system is available.
+ * Spans of a trace can be put back together from their trace and parent ids.
+ */
+public final class LoggingTracer implements Tracer {
+	private static final Logger LOGGER = LoggerFactory.getLogger(LoggingTracer.class);
+
+	private static final class LoggingSpan implements Span {
+		private final String name;
+		private final String traceId;
+		private final String spanId;
+		private final String parentId;
+		private final long start = System.nanoTime();
+		private final Map<String, String> attributes = new LinkedHashMap<>();
+		private final AtomicBoolean ended = new AtomicBoolean();
+		private volatile Throwable error;
+
+		private LoggingSpan(String name, String traceId, String parentId) {
+			this.name = name;
+			this.traceId = traceId;
+			this.spanId = randomId(8);
+			this.parentId = parentId;
+		}
+
+		@Override
+		public String getTraceId() {
+			return traceId;
+		}
+
+		@Override
+		public String getSpanId() {
+			return spanId;
+		}
+
+		@Override
+		public Span setAttribute(String key, String value) {
+			synchronized (attributes) {
+				attributes.put(key, value);
+			}
+			return this;
+		}
+
+		@Override
+		public void recordError(Throwable error) {
+			this.error = error;
+		}
+
+		@Override
+		public void end() {
+			if (!ended.compareAndSet(false, true)) {
+				return;
+			}
+
+			final long durationMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+			final String attributes;
+			synchronized (this.attributes) {
+				attributes = this.attributes.toString();
+			}
+			if (error == null) {
+				LOGGER.info("trace={} span={} parent={} name={} durationMicros={} attributes={}",
+					traceId, spanId, parentId, name, durationMicros, attributes);
+			} else {
+				LOGGER.warn("trace={} span={} parent={} name={} durationMicros={} attributes={} error={}",
+					traceId, spanId, parentId, name, durationMicros, attributes, error.toString());
+			}
+		}
+	}
+
+	private static String randomId(int bytes) {
+		final StringBuilder id = new StringBuilder(bytes * 2);
+		for (int i = 0; i < bytes; i++) {
+			id.append(String.format("%02x", ThreadLocalRandom.current().nextInt(256)));
+		}
+		return id.toString();
+	}
+
+	@Override
+	public Span startSpan(String name, Span parent) {
+		if (parent == null) {
+			return new LoggingSpan(name, randomId(16), null);
+		}
+		return new LoggingSpan(name, parent.getTraceId(), parent.getSpanId());
+	}
+}
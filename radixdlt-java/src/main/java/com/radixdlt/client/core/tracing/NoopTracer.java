@@ -0,0 +1,45 @@
+package com.radixdlt.client.core.tracing;
+
+/**
+ * Tracer discarding every span, the default until another one is set
+ */
+public final class NoopTracer implements Tracer {
+	private static final NoopTracer INSTANCE = new NoopTracer();
+
+	private static final Span SPAN = new Span() {
+		@Override
+		public String getTraceId() {
+			return "00000000000000000000000000000000";
+		}
+
+		@Override
+		public String getSpanId() {
+			return "0000000000000000";
+		}
+
+		@Override
+		public Span setAttribute(String key, String value) {
+			return this;
+		}
+
+		@Override
+		public void recordError(Throwable error) {
+		}
+
+		@Override
+		public void end() {
+		}
+	};
+
+	private NoopTracer() {
+	}
+
+	public static NoopTracer getInstance() {
+		return INSTANCE;
+	}
+
+	@Override
+	public Span startSpan(String name, Span parent) {
+		return SPAN;
+	}
+}
@@ -0,0 +1,26 @@
+package com.radixdlt.client.core.tracing;
+
+/**
+ * A timed operation within a trace, e.g. one stage of an atom submission. Spans are
+ * identified as in OpenTelemetry by a hex encoded 16 byte trace id shared by every span of
+ * the trace and a hex encoded 8 byte span id, so that they can be exported to it as is.
+ */
+public interface Span {
+	String getTraceId();
+
+	String getSpanId();
+
+	Span setAttribute(String key, String value);
+
+	/**
+	 * Marks the operation as failed
+	 *
+	 * @param error cause of the failure
+	 */
+	void recordError(Throwable error);
+
+	/**
+	 * Ends the operation, only the first call having any effect
+	 */
+	void end();
+}
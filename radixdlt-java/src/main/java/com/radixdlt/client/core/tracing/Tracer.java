@@ -0,0 +1,16 @@
+package com.radixdlt.client.core.tracing;
+
+/**
+ * Creates the spans of traces, to be bound to a tracing system such as OpenTelemetry.
+ * Implementations must be thread safe.
+ */
+public interface Tracer {
+	/**
+	 * Starts a span
+	 *
+	 * @param name name of the operation
+	 * @param parent span the operation is part of, null to start a new trace
+	 * @return the span started
+	 */
+	Span startSpan(String name, Span parent);
+}
@@ -0,0 +1,68 @@
+package com.radixdlt.client.core.tracing;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Holds the tracer spans of the library are created with, and the span current on each
+ * thread so that operations nested in it can start their spans as its children without it
+ * being passed down. Nothing is traced until a tracer is set.
+ */
+public final class Tracing {
+	private static volatile Tracer tracer = NoopTracer.getInstance();
+
+	private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+	private Tracing() {
+	}
+
+	public static Tracer getTracer() {
+		return tracer;
+	}
+
+	/**
+	 * @param newTracer tracer to create spans with from now on
+	 */
+	public static void setTracer(Tracer newTracer) {
+		tracer = Objects.requireNonNull(newTracer);
+	}
+
+	/**
+	 * @return span current on this thread, null if none
+	 */
+	public static Span currentSpan() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Starts a span, child of the span current on this thread if any
+	 *
+	 * @param name name of the operation
+	 * @return the span started
+	 */
+	public static Span startSpan(String name) {
+		return tracer.startSpan(name, CURRENT.get());
+	}
+
+	/**
+	 * Runs an operation with a span current on this thread
+	 *
+	 * @param span span to make current
+	 * @param operation operation to run
+	 * @param <T> result of the operation
+	 * @return the result of the operation
+	 */
+	public static <T> T withSpan(Span span, Supplier<T> operation) {
+		final Span previous = CURRENT.get();
+		CURRENT.set(span);
+		try {
+			return operation.get();
+		} finally {
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.radixdlt.client.core.util;
+
+import io.reactivex.BackpressureOverflowStrategy;
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.Observable;
+
+/**
+ * What to do with items of a source which cannot be paused, such as the atoms a node pushes,
+ * while a consumer is not ready for them
+ */
+public final class Backpressure {
+	private final BackpressureStrategy strategy;
+	private final int capacity;
+	private final BackpressureOverflowStrategy overflow;
+
+	private Backpressure(BackpressureStrategy strategy, int capacity, BackpressureOverflowStrategy overflow) {
+		this.strategy = strategy;
+		this.capacity = capacity;
+		this.overflow = overflow;
+	}
+
+	/**
+	 * Buffers a bounded number of items
+	 *
+	 * @param capacity maximum number of items buffered
+	 * @param overflow what to do once full: drop the oldest or the latest item, or fail
+	 * @return the strategy
+	 */
+	public static Backpressure bounded(int capacity, BackpressureOverflowStrategy overflow) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be positive but was " + capacity);
+		}
+		return new Backpressure(null, capacity, overflow);
+	}
+
+	/**
+	 * Keeps only the latest item, e.g. for consumers only interested in the latest state
+	 *
+	 * @return the strategy
+	 */
+	public static Backpressure latest() {
+		return new Backpressure(BackpressureStrategy.LATEST, 0, null);
+	}
+
+	/**
+	 * Fails with a {@link io.reactivex.exceptions.MissingBackpressureException} as soon as
+	 * an item cannot be delivered
+	 *
+	 * @return the strategy
+	 */
+	public static Backpressure error() {
+		return new Backpressure(BackpressureStrategy.ERROR, 0, null);
+	}
+
+	public <T> Flowable<T> apply(Observable<T> observable) {
+		if (strategy != null) {
+			return observable.toFlowable(strategy);
+		}
+		return observable.toFlowable(BackpressureStrategy.MISSING).onBackpressureBuffer(capacity, null, overflow);
+	}
+
+	@Override
+	public String toString() {
+		return strategy != null ? strategy.name() : "BOUNDED(" + capacity + ", " + overflow + ")";
+	}
+}
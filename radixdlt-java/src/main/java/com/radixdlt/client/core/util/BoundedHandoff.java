@@ -0,0 +1,144 @@
+package com.radixdlt.client.core.util;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hands items over from a producer thread to a scheduler through a bounded queue, in order.
+ * The producer blocks while the queue is full, which slows it down to the pace of the
+ * consumer instead of buffering without limit. Producers which must not block, e.g. the
+ * thread reading a socket, offer items instead and deal with a full queue themselves.
+ *
+ * @param <T> type of the items
+ */
+public final class BoundedHandoff<T> implements Disposable {
+	/**
+	 * Interval at which a blocked producer checks whether the handoff was disposed
+	 */
+	private static final long DISPOSED_CHECK_MILLIS = 100;
+
+	private final BlockingQueue<T> queue;
+	private final Scheduler.Worker worker;
+	private final Consumer<T> consumer;
+	private final AtomicInteger wip = new AtomicInteger();
+	private volatile boolean disposed;
+
+	/**
+	 * @param scheduler scheduler to consume items on
+	 * @param capacity maximum number of items waiting to be consumed
+	 * @param consumer consumer of the items, never called concurrently
+	 */
+	public BoundedHandoff(Scheduler scheduler, int capacity, Consumer<T> consumer) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be positive but was " + capacity);
+		}
+
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.worker = scheduler.createWorker();
+		this.consumer = consumer;
+	}
+
+	/**
+	 * Observes items on a scheduler, blocking the upstream while a given number of items
+	 * are waiting to be observed
+	 *
+	 * @param scheduler scheduler to observe items on
+	 * @param capacity maximum number of items waiting to be observed
+	 * @param <T> type of the items
+	 * @return the transformer
+	 */
+	public static <T> ObservableTransformer<T, T> observeOn(Scheduler scheduler, int capacity) {
+		return upstream -> Observable.create(emitter -> {
+			final BoundedHandoff<T> handoff = new BoundedHandoff<>(scheduler, capacity, emitter::onNext);
+			final Disposable subscription = upstream.subscribe(
+				handoff::put,
+				error -> handoff.execute(() -> emitter.onError(error)),
+				() -> handoff.execute(emitter::onComplete)
+			);
+			emitter.setCancellable(() -> {
+				subscription.dispose();
+				handoff.dispose();
+			});
+		});
+	}
+
+	/**
+	 * Queues an item, blocking while the queue is full. Must not be called concurrently.
+	 *
+	 * @param item item to hand over
+	 * @throws InterruptedException if interrupted while blocked
+	 */
+	public void put(T item) throws InterruptedException {
+		while (!disposed) {
+			if (queue.offer(item, DISPOSED_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+				if (wip.getAndIncrement() == 0) {
+					worker.schedule(this::drain);
+				}
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Queues an item if there is room for it, without blocking. Must not be called concurrently
+	 * with itself or {@link #put}.
+	 *
+	 * @param item item to hand over
+	 * @return false if the queue is full or the handoff disposed, in which case the item is not queued
+	 */
+	public boolean offer(T item) {
+		if (disposed || !queue.offer(item)) {
+			return false;
+		}
+		if (wip.getAndIncrement() == 0) {
+			worker.schedule(this::drain);
+		}
+		return true;
+	}
+
+	/**
+	 * Runs a task on the consumer's scheduler after the items queued so far have been consumed,
+	 * e.g. to pass on the end of a stream
+	 *
+	 * @param task task to run
+	 */
+	public void execute(Runnable task) {
+		worker.schedule(task);
+	}
+
+	/**
+	 * @return number of items waiting to be consumed
+	 */
+	public int size() {
+		return queue.size();
+	}
+
+	private void drain() {
+		int missed = 1;
+		do {
+			for (T item = queue.poll(); item != null && !disposed; item = queue.poll()) {
+				consumer.accept(item);
+			}
+			missed = wip.addAndGet(-missed);
+		} while (missed != 0);
+	}
+
+	@Override
+	public void dispose() {
+		disposed = true;
+		worker.dispose();
+		queue.clear();
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed;
+	}
+}
@@ -0,0 +1,99 @@
+package com.radixdlt.client.core.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Map bounded by the total weight of its values which evicts the least recently used
+ * entries once over budget. Safe for concurrent use.
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ */
+public final class LruCache<K, V> {
+	/**
+	 * Entries in order of least recent access
+	 */
+	private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final long maxWeight;
+
+	private final ToLongFunction<V> weigher;
+
+	/**
+	 * Total weight of all values, guarded by entries
+	 */
+	private long weight;
+
+	/**
+	 * @param maxWeight total weight of values which may be kept
+	 * @param weigher weight of a single value, e.g. 1 to bound by number of entries
+	 */
+	public LruCache(long maxWeight, ToLongFunction<V> weigher) {
+		if (maxWeight < 0) {
+			throw new IllegalArgumentException("maxWeight must not be negative but was " + maxWeight);
+		}
+
+		this.maxWeight = maxWeight;
+		this.weigher = weigher;
+	}
+
+	/**
+	 * @param key key to look up
+	 * @return the value, null if not cached
+	 */
+	public V get(K key) {
+		synchronized (entries) {
+			return entries.get(key);
+		}
+	}
+
+	/**
+	 * Caches a value, evicting least recently used values if over budget
+	 *
+	 * @param key key to cache under
+	 * @param value value to cache
+	 */
+	public void put(K key, V value) {
+		final long valueWeight = weigher.applyAsLong(value);
+		synchronized (entries) {
+			final V previous = entries.put(key, value);
+			if (previous != null) {
+				weight -= weigher.applyAsLong(previous);
+			}
+			weight += valueWeight;
+
+			final Iterator<Map.Entry<K, V>> iterator = entries.entrySet().iterator();
+			while (weight > maxWeight && iterator.hasNext()) {
+				weight -= weigher.applyAsLong(iterator.next().getValue());
+				iterator.remove();
+			}
+		}
+	}
+
+	public void remove(K key) {
+		synchronized (entries) {
+			final V previous = entries.remove(key);
+			if (previous != null) {
+				weight -= weigher.applyAsLong(previous);
+			}
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * @return total weight of the values currently cached
+	 */
+	public long getWeight() {
+		synchronized (entries) {
+			return weight;
+		}
+	}
+}
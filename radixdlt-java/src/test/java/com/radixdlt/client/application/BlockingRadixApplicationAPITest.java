@@ -0,0 +1,92 @@
+package com.radixdlt.client.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.radixdlt.client.application.RadixApplicationAPI.Result;
+import com.radixdlt.client.application.objects.Data;
+import com.radixdlt.client.assets.Amount;
+import com.radixdlt.client.assets.Asset;
+import com.radixdlt.client.core.RadixSchedulers;
+import com.radixdlt.client.core.address.RadixAddress;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.plugins.RxJavaPlugins;
+import io.reactivex.schedulers.Schedulers;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+public class BlockingRadixApplicationAPITest {
+	private final RadixApplicationAPI api = mock(RadixApplicationAPI.class);
+	private final RadixAddress address = mock(RadixAddress.class);
+	private final BlockingRadixApplicationAPI blockingApi = new BlockingRadixApplicationAPI(api, 100, TimeUnit.MILLISECONDS);
+
+	@Test
+	public void balanceIsFirstKnownBalance() throws Exception {
+		Amount amount = Amount.subUnitsOf(10, Asset.TEST);
+		when(api.getBalance(address, Asset.TEST)).thenReturn(Observable.just(amount).concatWith(Observable.never()));
+
+		assertThat(blockingApi.getBalance(address, Asset.TEST)).isEqualTo(amount);
+	}
+
+	@Test
+	public void failedStoreThrows() {
+		Data data = mock(Data.class);
+		Result result = mock(Result.class);
+		when(result.toCompletable()).thenReturn(Completable.error(new RuntimeException("COLLISION")));
+		when(api.storeData(data)).thenReturn(result);
+
+		assertThatThrownBy(() -> blockingApi.storeData(data)).isInstanceOf(RuntimeException.class).hasMessage("COLLISION");
+	}
+
+	@Test
+	public void timeoutReleasesSubscription() {
+		AtomicBoolean disposed = new AtomicBoolean(false);
+		when(api.getBalance(address, Asset.TEST)).thenReturn(Observable.<Amount>never().doOnDispose(() -> disposed.set(true)));
+
+		assertThatThrownBy(() -> blockingApi.getBalance(address, Asset.TEST)).isInstanceOf(TimeoutException.class);
+		assertThat(disposed.get()).isTrue();
+	}
+
+	@Test
+	public void interruptionReleasesSubscription() {
+		AtomicBoolean disposed = new AtomicBoolean(false);
+		when(api.getBalance(address, Asset.TEST)).thenReturn(Observable.<Amount>never().doOnDispose(() -> disposed.set(true)));
+
+		Thread.currentThread().interrupt();
+		assertThatThrownBy(() -> blockingApi.getBalance(address, Asset.TEST)).isInstanceOf(InterruptedException.class);
+		assertThat(disposed.get()).isTrue();
+	}
+
+	@Test
+	public void refusesToBlockLibraryThreads() {
+		when(api.getBalance(address, Asset.TEST)).thenReturn(Observable.never());
+
+		Single.fromCallable(() -> blockingApi.getBalance(address, Asset.TEST))
+			.subscribeOn(RadixSchedulers.computation())
+			.test()
+			.awaitDone(1, TimeUnit.SECONDS)
+			.assertError(IllegalStateException.class);
+	}
+
+	@Test
+	public void refusesToBlockComputationThreadsWhenRxJavaFailsOnThem() {
+		when(api.getBalance(address, Asset.TEST)).thenReturn(Observable.never());
+
+		RxJavaPlugins.setFailOnNonBlockingScheduler(true);
+		try {
+			Single.fromCallable(() -> blockingApi.getBalance(address, Asset.TEST))
+				.subscribeOn(Schedulers.computation())
+				.test()
+				.awaitDone(1, TimeUnit.SECONDS)
+				.assertError(IllegalStateException.class);
+		} finally {
+			RxJavaPlugins.setFailOnNonBlockingScheduler(false);
+		}
+	}
+}
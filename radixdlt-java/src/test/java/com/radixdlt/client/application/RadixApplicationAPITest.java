@@ -6,6 +6,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.radixdlt.client.application.RadixApplicationAPI.Result;
@@ -14,14 +15,20 @@ import com.radixdlt.client.application.objects.UnencryptedData;
 import com.radixdlt.client.application.translate.DataStoreTranslator;
 import com.radixdlt.client.assets.Amount;
 import com.radixdlt.client.assets.Asset;
+import com.radixdlt.client.core.RadixSchedulers;
 import com.radixdlt.client.core.RadixUniverse;
 import com.radixdlt.client.core.RadixUniverse.Ledger;
 import com.radixdlt.client.core.address.RadixAddress;
+import com.radixdlt.client.core.atoms.AbstractConsumable;
 import com.radixdlt.client.core.atoms.ApplicationPayloadAtom;
 import com.radixdlt.client.core.atoms.Atom;
 import com.radixdlt.client.core.atoms.AtomBuilder;
+import com.radixdlt.client.core.atoms.Consumable;
+import com.radixdlt.client.core.atoms.Consumer;
+import com.radixdlt.client.core.atoms.RadixHash;
 import com.radixdlt.client.core.atoms.UnsignedAtom;
 import com.radixdlt.client.core.crypto.CryptoException;
+import com.radixdlt.client.core.crypto.ECPublicKey;
 import com.radixdlt.client.application.identity.RadixIdentity;
 import com.radixdlt.client.core.ledger.AtomPuller;
 import com.radixdlt.client.core.ledger.AtomStore;
@@ -32,10 +39,23 @@ import com.radixdlt.client.core.network.AtomSubmissionUpdate.AtomSubmissionState
 import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.Schedulers;
 import java.util.function.Supplier;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 public class RadixApplicationAPITest {
+	@Before
+	public void runSynchronously() {
+		RadixSchedulers.setComputation(Schedulers.trampoline());
+	}
+
+	@After
+	public void resetSchedulers() {
+		RadixSchedulers.setComputation(Schedulers.computation());
+	}
+
 	private RadixApplicationAPI createMockedAPI(
 		AtomSubmitter atomSubmitter,
 		AtomStore atomStore
@@ -198,6 +218,67 @@ public class RadixApplicationAPITest {
 	}
 
 
+	@Test
+	public void myAddressIsDerivedOnce() {
+		RadixUniverse universe = mock(RadixUniverse.class);
+		Ledger ledger = mock(Ledger.class);
+		when(universe.getLedger()).thenReturn(ledger);
+		RadixIdentity identity = mock(RadixIdentity.class);
+		ECPublicKey key = mock(ECPublicKey.class);
+		when(identity.getPublicKey()).thenReturn(key);
+		RadixAddress address = mock(RadixAddress.class);
+		when(universe.getAddressFrom(key)).thenReturn(address);
+
+		RadixApplicationAPI api = RadixApplicationAPI.create(identity, universe, DataStoreTranslator.getInstance(), AtomBuilder::new);
+
+		assertThat(api.getMyAddress()).isSameAs(address);
+		assertThat(api.getMyAddress()).isSameAs(address);
+		verify(universe, times(1)).getAddressFrom(key);
+	}
+
+	@Test
+	public void failedBuildReleasesInputs() {
+		RadixUniverse universe = mock(RadixUniverse.class);
+		Ledger ledger = mock(Ledger.class);
+		when(universe.getLedger()).thenReturn(ledger);
+		Consumable consumable = mock(Consumable.class);
+		Consumer consumer = mock(Consumer.class);
+		RadixHash hash = mock(RadixHash.class);
+		when(consumable.getQuantity()).thenReturn(10L);
+		when(consumable.getSignedQuantity()).thenReturn(10L);
+		when(consumable.getHash()).thenReturn(hash);
+		when(consumable.getAssetId()).thenReturn(Asset.TEST.getId());
+		when(consumable.isConsumable()).thenReturn(true);
+		when(consumable.getAsConsumable()).thenReturn(consumable);
+		when(consumable.toConsumer()).thenReturn(consumer);
+		when(consumer.getQuantity()).thenReturn(10L);
+		when(consumer.getHash()).thenReturn(hash);
+		when(consumer.getAssetId()).thenReturn(Asset.TEST.getId());
+		when(consumer.isConsumer()).thenReturn(true);
+		when(consumer.getAsConsumer()).thenReturn(consumer);
+		when(ledger.getParticleStore())
+			.thenReturn(address -> Observable.<AbstractConsumable>just(consumable).concatWith(Observable.never()));
+
+		Supplier<AtomBuilder> failingBuilder = () -> new AtomBuilder() {
+			@Override
+			public UnsignedAtom buildWithPOWFee(int magic, ECPublicKey owner) {
+				throw new IllegalStateException("POW failed");
+			}
+		};
+		RadixIdentity identity = mock(RadixIdentity.class);
+		RadixAddress from = mock(RadixAddress.class);
+		when(universe.getAddressFrom(any())).thenReturn(from);
+		RadixApplicationAPI api = RadixApplicationAPI.create(identity, universe, DataStoreTranslator.getInstance(), failingBuilder);
+		RadixAddress to = mock(RadixAddress.class);
+
+		// The second transfer only finds funds if the first released its input
+		for (int i = 0; i < 2; i++) {
+			TestObserver observer = api.transferTokens(from, to, Amount.subUnitsOf(10, Asset.TEST)).toCompletable().test();
+			observer.awaitTerminalEvent();
+			observer.assertError(IllegalStateException.class);
+		}
+	}
+
 	@Test
 	public void testZeroTransactionWallet() {
 		RadixUniverse universe = mock(RadixUniverse.class);
@@ -0,0 +1,123 @@
+package com.radixdlt.client.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.ledger.AtomSubmitter;
+import com.radixdlt.client.core.network.AtomSubmissionUpdate;
+import com.radixdlt.client.core.network.AtomSubmissionUpdate.AtomSubmissionState;
+import com.radixdlt.client.core.tracing.NoopTracer;
+import com.radixdlt.client.core.tracing.Span;
+import com.radixdlt.client.core.tracing.Tracer;
+import com.radixdlt.client.core.tracing.Tracing;
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Test;
+
+public class SubmissionTraceTest {
+	private final class RecordedSpan implements Span {
+		private final String name;
+		private final RecordedSpan parent;
+		private final Map<String, String> attributes = new HashMap<>();
+
+		private RecordedSpan(String name, RecordedSpan parent) {
+			this.name = name;
+			this.parent = parent;
+		}
+
+		@Override
+		public String getTraceId() {
+			return "trace";
+		}
+
+		@Override
+		public String getSpanId() {
+			return name;
+		}
+
+		@Override
+		public Span setAttribute(String key, String value) {
+			attributes.put(key, value);
+			return this;
+		}
+
+		@Override
+		public void recordError(Throwable error) {
+			attributes.put("error", error.getMessage());
+		}
+
+		@Override
+		public void end() {
+			ended.add(this);
+		}
+	}
+
+	private final List<RecordedSpan> ended = new ArrayList<>();
+
+	private final Tracer tracer = (name, parent) -> new RecordedSpan(name, (RecordedSpan) parent);
+
+	@After
+	public void resetTracer() {
+		Tracing.setTracer(NoopTracer.getInstance());
+	}
+
+	private static AtomSubmissionUpdate update(AtomSubmissionState state) {
+		return AtomSubmissionUpdate.now(null, state);
+	}
+
+	@Test
+	public void tracesEveryStage() {
+		Tracing.setTracer(tracer);
+		Atom atom = mock(Atom.class);
+		AtomSubmitter submitter = mock(AtomSubmitter.class);
+		when(submitter.submitAtom(atom)).thenReturn(Observable.just(
+			update(AtomSubmissionState.SUBMITTING),
+			update(AtomSubmissionState.SUBMITTED),
+			update(AtomSubmissionState.STORED)
+		));
+
+		SubmissionTrace trace = new SubmissionTrace("transfer");
+		trace.trace("translate", Completable.complete())
+			.andThen(Single.fromCallable(() -> trace.trace("build", () -> {
+				Tracing.startSpan("pow").end();
+				return atom;
+			})))
+			.flatMap(unsigned -> trace.trace("sign", Single.just(atom)))
+			.flatMapObservable(signed -> trace.submit(signed, submitter))
+			.compose(trace::finish)
+			.test()
+			.assertComplete();
+
+		assertThat(ended.stream().map(span -> span.name).collect(Collectors.toList()))
+			.containsExactly("translate", "pow", "build", "sign", "select-node", "submit", "node-state", "submission");
+		assertThat(ended.get(1).parent.name).isEqualTo("build");
+		assertThat(ended.get(6).attributes).containsEntry("state", "STORED");
+		assertThat(ended.get(7).attributes).containsEntry("operation", "transfer").containsEntry("state", "STORED");
+	}
+
+	@Test
+	public void recordsFailedStage() {
+		Tracing.setTracer(tracer);
+
+		SubmissionTrace trace = new SubmissionTrace("storeData");
+		trace.trace("sign", Single.error(new IllegalStateException("no key")))
+			.toObservable()
+			.map(o -> update(AtomSubmissionState.STORED))
+			.compose(trace::finish)
+			.test()
+			.assertError(IllegalStateException.class);
+
+		assertThat(ended).hasSize(2);
+		assertThat(ended.get(0).attributes).containsEntry("error", "no key");
+		assertThat(ended.get(1).attributes).containsEntry("error", "no key");
+	}
+}
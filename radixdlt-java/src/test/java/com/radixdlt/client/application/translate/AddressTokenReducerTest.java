@@ -1,17 +1,27 @@
 package com.radixdlt.client.application.translate;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.radixdlt.client.assets.Asset;
+import com.radixdlt.client.core.address.EUID;
 import com.radixdlt.client.core.address.RadixAddress;
 import com.radixdlt.client.core.atoms.AbstractConsumable;
 import com.radixdlt.client.core.atoms.Consumable;
+import com.radixdlt.client.core.atoms.Consumer;
 import com.radixdlt.client.core.atoms.RadixHash;
 import com.radixdlt.client.core.ledger.ParticleStore;
 import io.reactivex.Observable;
 import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.PublishSubject;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 
 public class AddressTokenReducerTest {
@@ -25,6 +35,7 @@ public class AddressTokenReducerTest {
 		when(consumable.getSignedQuantity()).thenReturn(10L);
 		when(consumable.getQuantity()).thenReturn(10L);
 		when(consumable.getHash()).thenReturn(hash);
+		when(consumable.getAssetId()).thenReturn(Asset.TEST.getId());
 		when(consumable.isConsumable()).thenReturn(true);
 		when(consumable.getAsConsumable()).thenReturn(consumable);
 
@@ -46,4 +57,138 @@ public class AddressTokenReducerTest {
 		verify(store, times(1)).getConsumables(address);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testSpendingCoalescedWithinWindow() {
+		RadixAddress address = mock(RadixAddress.class);
+		ParticleStore store = mock(ParticleStore.class);
+		RadixHash hash0 = mock(RadixHash.class);
+		RadixHash hash1 = mock(RadixHash.class);
+		Consumable consumable0 = mock(Consumable.class);
+		when(consumable0.getSignedQuantity()).thenReturn(10L);
+		when(consumable0.getHash()).thenReturn(hash0);
+		when(consumable0.getAssetId()).thenReturn(Asset.TEST.getId());
+		when(consumable0.isConsumable()).thenReturn(true);
+		when(consumable0.getAsConsumable()).thenReturn(consumable0);
+		Consumable consumable1 = mock(Consumable.class);
+		when(consumable1.getSignedQuantity()).thenReturn(5L);
+		when(consumable1.getHash()).thenReturn(hash1);
+		when(consumable1.getAssetId()).thenReturn(Asset.TEST.getId());
+		when(consumable1.isConsumable()).thenReturn(true);
+		when(consumable1.getAsConsumable()).thenReturn(consumable1);
+		Consumer consumer0 = mock(Consumer.class);
+		when(consumer0.getSignedQuantity()).thenReturn(-10L);
+		when(consumer0.getHash()).thenReturn(hash0);
+		when(consumer0.getAssetId()).thenReturn(Asset.TEST.getId());
+		when(consumer0.isConsumable()).thenReturn(false);
+
+		PublishSubject<AbstractConsumable> particles = PublishSubject.create();
+		when(store.getConsumables(address)).thenReturn(particles);
+		TestScheduler scheduler = new TestScheduler();
+		AddressTokenReducer reducer = new AddressTokenReducer(address, store, 500, scheduler);
+
+		TestObserver<AddressTokenState> testObserver = reducer.getState().test();
+		scheduler.advanceTimeBy(AddressTokenReducer.DEFAULT_SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+		testObserver.assertValue(state -> state.getBalance().getAmountInSubunits() == 0L);
+
+		particles.onNext(consumable0);
+		particles.onNext(consumable1);
+		testObserver.assertValueCount(1);
+
+		scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS);
+		testObserver.assertValueCount(2);
+		testObserver.assertValueAt(1, state -> state.getBalance().getAmountInSubunits() == 15L
+			&& state.getUnconsumedConsumables().size() == 2);
+
+		particles.onNext(consumer0);
+		scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS);
+		testObserver.assertValueCount(3);
+		testObserver.assertValueAt(2, state -> state.getBalance().getAmountInSubunits() == 5L
+			&& state.getUnconsumedConsumables().size() == 1
+			&& state.getUnconsumedConsumables().get(0) == consumable1);
+	}
+
+	@Test
+	public void testBalancesPerAsset() {
+		RadixAddress address = mock(RadixAddress.class);
+		ParticleStore store = mock(ParticleStore.class);
+		Asset other = new Asset("OTHER", 1, new EUID(BigInteger.valueOf(7)));
+		Consumable test = mock(Consumable.class);
+		when(test.getSignedQuantity()).thenReturn(10L);
+		when(test.getHash()).thenReturn(mock(RadixHash.class));
+		when(test.getAssetId()).thenReturn(Asset.TEST.getId());
+		when(test.isConsumable()).thenReturn(true);
+		when(test.getAsConsumable()).thenReturn(test);
+		Consumable otherConsumable = mock(Consumable.class);
+		when(otherConsumable.getSignedQuantity()).thenReturn(3L);
+		when(otherConsumable.getHash()).thenReturn(mock(RadixHash.class));
+		when(otherConsumable.getAssetId()).thenReturn(other.getId());
+		when(otherConsumable.isConsumable()).thenReturn(true);
+		when(otherConsumable.getAsConsumable()).thenReturn(otherConsumable);
+
+		PublishSubject<AbstractConsumable> particles = PublishSubject.create();
+		when(store.getConsumables(address)).thenReturn(particles);
+		TestScheduler scheduler = new TestScheduler();
+		AddressTokenReducer reducer = new AddressTokenReducer(address, store, 0, scheduler);
+
+		TestObserver<AddressTokenState> testObserver = reducer.getState().test();
+		particles.onNext(test);
+		scheduler.advanceTimeBy(AddressTokenReducer.DEFAULT_SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+		particles.onNext(otherConsumable);
+
+		testObserver.assertValueCount(2);
+		AddressTokenState before = testObserver.values().get(0);
+		AddressTokenState after = testObserver.values().get(1);
+		assertThat(after.getBalance(Asset.TEST).getAmountInSubunits()).isEqualTo(10L);
+		assertThat(after.getBalance(other).getAmountInSubunits()).isEqualTo(3L);
+		assertThat(after.getBalance(Asset.POW).getAmountInSubunits()).isEqualTo(0L);
+		assertThat(after.getUnconsumedConsumables(other)).containsExactly(otherConsumable);
+		assertThat(after.getBalances()).containsOnlyKeys(Asset.TEST.getId(), other.getId());
+		// Assets which didn't change are shared with the previous state rather than copied
+		assertThat(after.getUnconsumedConsumables(Asset.TEST)).isSameAs(before.getUnconsumedConsumables(Asset.TEST));
+	}
+
+	@Test
+	public void disconnectsOnceUnsubscribedForGracePeriod() {
+		RadixAddress address = mock(RadixAddress.class);
+		ParticleStore store = mock(ParticleStore.class);
+		PublishSubject<AbstractConsumable> particles = PublishSubject.create();
+		when(store.getConsumables(address)).thenReturn(particles);
+		TestScheduler scheduler = new TestScheduler();
+		List<AddressTokenReducer> disconnected = new ArrayList<>();
+		AddressTokenReducer reducer = new AddressTokenReducer(address, store, 0, 0, 1000, scheduler, disconnected::add);
+
+		reducer.getState().test().dispose();
+		scheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS);
+		assertThat(particles.hasObservers()).isTrue();
+
+		scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+		assertThat(particles.hasObservers()).isFalse();
+		assertThat(disconnected).containsExactly(reducer);
+	}
+
+	@Test
+	public void firstStateWaitsForHistoryToSettle() {
+		RadixAddress address = mock(RadixAddress.class);
+		ParticleStore store = mock(ParticleStore.class);
+		Consumable consumable = mock(Consumable.class);
+		when(consumable.getSignedQuantity()).thenReturn(10L);
+		when(consumable.getHash()).thenReturn(mock(RadixHash.class));
+		when(consumable.getAssetId()).thenReturn(Asset.TEST.getId());
+		when(consumable.isConsumable()).thenReturn(true);
+		when(consumable.getAsConsumable()).thenReturn(consumable);
+
+		PublishSubject<AbstractConsumable> particles = PublishSubject.create();
+		when(store.getConsumables(address)).thenReturn(particles);
+		TestScheduler scheduler = new TestScheduler();
+		AddressTokenReducer reducer = new AddressTokenReducer(address, store, 0, 1000, 0, scheduler, r -> { });
+
+		TestObserver<AddressTokenState> testObserver = reducer.getState().test();
+		scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS);
+		particles.onNext(consumable);
+		scheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS);
+		testObserver.assertNoValues();
+
+		scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+		testObserver.assertValue(state -> state.getBalance().getAmountInSubunits() == 10L);
+	}
+}
@@ -0,0 +1,62 @@
+package com.radixdlt.client.application.translate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.radixdlt.client.core.atoms.Consumable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class CoinSelectorTest {
+	private static Consumable consumable(long quantity) {
+		Consumable consumable = mock(Consumable.class);
+		when(consumable.getQuantity()).thenReturn(quantity);
+		return consumable;
+	}
+
+	private final Consumable one = consumable(1);
+	private final Consumable two = consumable(2);
+	private final Consumable five = consumable(5);
+	private final Consumable seven = consumable(7);
+	private final List<Consumable> available = Arrays.asList(one, five, two, seven);
+
+	@Test
+	public void largestFirstUsesFewestInputs() {
+		assertThat(new LargestFirstCoinSelector().select(available, 8)).containsExactly(seven, five);
+		assertThat(new LargestFirstCoinSelector().select(available, 16)).isEmpty();
+	}
+
+	@Test
+	public void branchAndBoundFindsExactMatch() {
+		CoinSelector selector = new BranchAndBoundCoinSelector(new LargestFirstCoinSelector());
+		assertThat(selector.select(available, 8)).containsExactlyInAnyOrder(seven, one);
+		assertThat(selector.select(available, 10)).containsExactlyInAnyOrder(seven, two, one);
+		assertThat(selector.select(available, 15)).containsExactlyInAnyOrder(seven, five, two, one);
+	}
+
+	@Test
+	public void branchAndBoundFallsBackWithoutExactMatch() {
+		CoinSelector selector = new BranchAndBoundCoinSelector(new LargestFirstCoinSelector());
+		List<Consumable> twos = Arrays.asList(consumable(2), consumable(2), consumable(2));
+		assertThat(selector.select(twos, 3)).hasSize(2);
+		assertThat(selector.select(twos, 7)).isEmpty();
+	}
+
+	@Test
+	public void randomCoversAmount() {
+		CoinSelector selector = new RandomCoinSelector(new Random(1));
+		for (int i = 0; i < 10; i++) {
+			assertThat(CoinSelector.total(selector.select(available, 9))).isGreaterThanOrEqualTo(9);
+		}
+		assertThat(selector.select(available, 16)).isEmpty();
+	}
+
+	@Test
+	public void consolidatingSpendsSmallestUpToMaxInputs() {
+		assertThat(new ConsolidatingCoinSelector(3).select(available, 2)).containsExactly(one, two, five);
+		assertThat(new ConsolidatingCoinSelector(2).select(available, 6)).containsExactly(seven);
+	}
+}
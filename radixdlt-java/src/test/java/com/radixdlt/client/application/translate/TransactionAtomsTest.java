@@ -1,5 +1,6 @@
 package com.radixdlt.client.application.translate;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -15,7 +16,9 @@ import com.radixdlt.client.core.atoms.UnsignedAtom;
 import com.radixdlt.client.core.crypto.ECKeyPair;
 import com.radixdlt.client.core.crypto.ECPublicKey;
 import io.reactivex.observers.TestObserver;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import org.junit.Test;
 
 public class TransactionAtomsTest {
@@ -84,4 +87,68 @@ public class TransactionAtomsTest {
 
 		observer.assertValue(collection -> collection.stream().findFirst().get().getNonce() == 2);
 	}
+
+	@Test
+	public void testConsumerWaitingOnSeveralConsumables() {
+		ECPublicKey publicKey = new ECPublicKey(new byte[33]);
+		ECKeyPair keyPair = new ECKeyPair(publicKey);
+		byte[] otherRaw = new byte[33];
+		otherRaw[0] = 1;
+		ECKeyPair otherKeyPair = new ECKeyPair(new ECPublicKey(otherRaw));
+
+		RadixAddress address = mock(RadixAddress.class);
+		when(address.ownsKey(eq(keyPair))).thenReturn(true);
+		when(address.ownsKey(eq(publicKey))).thenReturn(true);
+
+		/* Atom spending two consumables which arrive later in separate atoms */
+		TransactionAtom spending = new AtomBuilder()
+			.type(TransactionAtom.class)
+			.addParticle(new Consumer(100, keyPair, 1, Asset.TEST.getId()))
+			.addParticle(new Consumer(50, keyPair, 2, Asset.TEST.getId()))
+			.addParticle(new Consumable(150, keyPair, 3, Asset.TEST.getId()))
+			.build().getRawAtom().getAsTransactionAtom();
+		TransactionAtom first = new AtomBuilder()
+			.type(TransactionAtom.class)
+			.addParticle(new Consumer(100, otherKeyPair, 1, Asset.TEST.getId()))
+			.addParticle(new Consumable(100, keyPair, 1, Asset.TEST.getId()))
+			.build().getRawAtom().getAsTransactionAtom();
+		TransactionAtom second = new AtomBuilder()
+			.type(TransactionAtom.class)
+			.addParticle(new Consumer(50, otherKeyPair, 2, Asset.TEST.getId()))
+			.addParticle(new Consumable(50, keyPair, 2, Asset.TEST.getId()))
+			.build().getRawAtom().getAsTransactionAtom();
+
+		List<TransactionAtom> valid = new ArrayList<>();
+		TransactionAtoms transactionAtoms = new TransactionAtoms(address);
+		transactionAtoms.accept(spending, valid::add);
+		transactionAtoms.accept(first, valid::add);
+		assertThat(valid).containsExactly(first);
+
+		transactionAtoms.accept(second, valid::add);
+		assertThat(valid).containsExactly(first, second, spending);
+	}
+
+	@Test(timeout = 5000)
+	public void acceptFromValidationCallbackDoesNotBlock() {
+		ECKeyPair keyPair = new ECKeyPair(new ECPublicKey(new byte[33]));
+		RadixAddress address = mock(RadixAddress.class);
+		when(address.ownsKey(any(ECPublicKey.class))).thenReturn(true);
+
+		TransactionAtom first = new AtomBuilder()
+			.type(TransactionAtom.class)
+			.addParticle(new Consumable(100, keyPair, 1, Asset.TEST.getId()))
+			.build().getRawAtom().getAsTransactionAtom();
+		TransactionAtom second = new AtomBuilder()
+			.type(TransactionAtom.class)
+			.addParticle(new Consumable(50, keyPair, 2, Asset.TEST.getId()))
+			.build().getRawAtom().getAsTransactionAtom();
+
+		TransactionAtoms transactionAtoms = new TransactionAtoms(address);
+		List<TransactionAtoms.TransactionAtomsUpdate> nested = new ArrayList<>();
+		transactionAtoms.accept(first, tx -> nested.add(transactionAtoms.accept(second)));
+
+		assertThat(nested).hasSize(1);
+		nested.get(0).getNewValidTransactions().test().assertValue(second);
+		nested.get(0).getUnconsumedConsumables().test().assertValue(consumables -> consumables.size() == 2);
+	}
 }
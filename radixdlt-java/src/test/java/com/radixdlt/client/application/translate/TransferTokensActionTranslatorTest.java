@@ -1,5 +1,6 @@
 package com.radixdlt.client.application.translate;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -13,10 +14,15 @@ import com.radixdlt.client.application.actions.TransferTokensAction;
 import com.radixdlt.client.assets.Asset;
 import com.radixdlt.client.core.RadixUniverse;
 import com.radixdlt.client.core.address.RadixAddress;
+import com.radixdlt.client.core.atoms.AbstractConsumable;
+import com.radixdlt.client.core.atoms.Consumable;
+import com.radixdlt.client.core.atoms.Consumer;
+import com.radixdlt.client.core.atoms.RadixHash;
 import com.radixdlt.client.core.atoms.TransactionAtom;
 import com.radixdlt.client.core.crypto.ECPublicKey;
 import com.radixdlt.client.core.ledger.ParticleStore;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 public class TransferTokensActionTranslatorTest {
 	@Test
@@ -54,4 +60,84 @@ public class TransferTokensActionTranslatorTest {
 		observer.assertError(new InsufficientFundsException(Asset.TEST, 0, 10));
 	}
 
-}
\ No newline at end of file
+	private static Consumable consumable(long quantity) {
+		Consumable consumable = mock(Consumable.class);
+		Consumer consumer = mock(Consumer.class);
+		when(consumer.getQuantity()).thenReturn(quantity);
+		when(consumable.getQuantity()).thenReturn(quantity);
+		when(consumable.getSignedQuantity()).thenReturn(quantity);
+		when(consumable.getHash()).thenReturn(mock(RadixHash.class));
+		when(consumable.getAssetId()).thenReturn(Asset.TEST.getId());
+		when(consumable.isConsumable()).thenReturn(true);
+		when(consumable.getAsConsumable()).thenReturn(consumable);
+		when(consumable.toConsumer()).thenReturn(consumer);
+		return consumable;
+	}
+
+	@Test
+	public void transferWaitsForHistoryArrivingAfterFirstWindow() {
+		RadixUniverse universe = mock(RadixUniverse.class);
+		RadixAddress address = mock(RadixAddress.class);
+		Observable<AbstractConsumable> particles = Observable.<AbstractConsumable>just(consumable(10))
+			.delay(AddressTokenReducer.DEFAULT_WINDOW_MILLIS * 3, TimeUnit.MILLISECONDS)
+			.concatWith(Observable.never());
+
+		TokenTransferTranslator transferTranslator = new TokenTransferTranslator(universe, addr -> particles);
+		TransferTokensAction transferTokensAction = mock(TransferTokensAction.class);
+		when(transferTokensAction.getSubUnitAmount()).thenReturn(10L);
+		when(transferTokensAction.getFrom()).thenReturn(address);
+		when(transferTokensAction.getTo()).thenReturn(mock(RadixAddress.class));
+		when(transferTokensAction.getTokenClass()).thenReturn(Asset.TEST);
+
+		TestObserver observer = transferTranslator.translate(transferTokensAction, new AtomBuilder()).test();
+		observer.awaitTerminalEvent();
+		observer.assertComplete();
+	}
+
+	@Test
+	public void concurrentTransfersDoNotShareInputs() {
+		RadixUniverse universe = mock(RadixUniverse.class);
+		RadixAddress address = mock(RadixAddress.class);
+		Observable<AbstractConsumable> particles = Observable.<AbstractConsumable>just(consumable(10), consumable(10))
+			.concatWith(Observable.never());
+
+		TokenTransferTranslator transferTranslator =
+			new TokenTransferTranslator(universe, addr -> particles, new LargestFirstCoinSelector());
+		TransferTokensAction transferTokensAction = mock(TransferTokensAction.class);
+		when(transferTokensAction.getSubUnitAmount()).thenReturn(10L);
+		when(transferTokensAction.getFrom()).thenReturn(address);
+		when(transferTokensAction.getTo()).thenReturn(mock(RadixAddress.class));
+		when(transferTokensAction.getTokenClass()).thenReturn(Asset.TEST);
+
+		for (int i = 0; i < 2; i++) {
+			TestObserver observer = transferTranslator.translate(transferTokensAction, new AtomBuilder()).test();
+			observer.awaitTerminalEvent();
+			observer.assertComplete();
+		}
+		assertThat(transferTranslator.getReservedCount(address)).isEqualTo(2);
+
+		TestObserver observer = transferTranslator.translate(transferTokensAction, new AtomBuilder()).test();
+		observer.awaitTerminalEvent();
+		observer.assertError(new InsufficientFundsException(Asset.TEST, 0, 10));
+	}
+
+	@Test
+	public void failedTranslationReleasesInputs() {
+		RadixUniverse universe = mock(RadixUniverse.class);
+		RadixAddress address = mock(RadixAddress.class);
+		Consumable consumable = consumable(10);
+		when(consumable.toConsumer()).thenThrow(new IllegalStateException());
+		Observable<AbstractConsumable> particles = Observable.<AbstractConsumable>just(consumable).concatWith(Observable.never());
+
+		TokenTransferTranslator transferTranslator = new TokenTransferTranslator(universe, addr -> particles);
+		TransferTokensAction transferTokensAction = mock(TransferTokensAction.class);
+		when(transferTokensAction.getSubUnitAmount()).thenReturn(10L);
+		when(transferTokensAction.getFrom()).thenReturn(address);
+		when(transferTokensAction.getTokenClass()).thenReturn(Asset.TEST);
+
+		TestObserver observer = transferTranslator.translate(transferTokensAction, new AtomBuilder()).test();
+		observer.awaitTerminalEvent();
+		observer.assertError(IllegalStateException.class);
+		assertThat(transferTranslator.getReservedCount(address)).isEqualTo(0);
+	}
+}
@@ -1,6 +1,7 @@
 package com.radixdlt.client.core;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 
@@ -17,5 +18,6 @@ public class RadixUniverseTest {
 		RadixUniverse universe = RadixUniverse.getInstance();
 		assertNotNull(universe);
 		assertNotNull(universe.getSystemPublicKey());
+		assertSame(universe.getAddressFrom(universe.getSystemPublicKey()), universe.getAddressFrom(universe.getSystemPublicKey()));
 	}
 }
\ No newline at end of file
@@ -1,18 +1,28 @@
 package com.radixdlt.client.core.ledger;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.radixdlt.client.core.address.EUID;
 import com.radixdlt.client.core.address.RadixAddress;
 import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.network.AtomCursor;
+import com.radixdlt.client.core.network.AtomQuery;
 import com.radixdlt.client.core.network.RadixJsonRpcClient;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Function;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class AtomFetcherTest {
 	@Test
@@ -37,4 +47,116 @@ public class AtomFetcherTest {
 		testObserver.awaitCount(1);
 		testObserver.assertValue(atom);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void refetchResumesFromLastAtom() {
+		RadixJsonRpcClient client = mock(RadixJsonRpcClient.class);
+		Atom atom = mock(Atom.class);
+		when(atom.getTimestamp()).thenReturn(5L);
+		when(client.getAtoms(any())).thenReturn(Observable.just(atom), Observable.never());
+
+		Function<Long, Single<RadixJsonRpcClient>> clientSelector = mock(Function.class);
+		when(clientSelector.apply(any())).thenReturn(Single.just(client));
+
+		AtomFetcher atomFetcher = new AtomFetcher(clientSelector);
+		RadixAddress address = mock(RadixAddress.class);
+		when(address.getUID()).thenReturn(new EUID(BigInteger.ONE));
+
+		atomFetcher.fetchAtoms(address).test().assertValue(atom).dispose();
+		assertThat(atomFetcher.getCursor(address)).contains(new AtomCursor(5L));
+
+		atomFetcher.fetchAtoms(address).test().assertNoValues();
+		ArgumentCaptor<AtomQuery<Atom>> queries = ArgumentCaptor.forClass(AtomQuery.class);
+		verify(client, times(2)).getAtoms(queries.capture());
+		assertThat(queries.getAllValues().get(0).getCursor()).isEmpty();
+		assertThat(queries.getAllValues().get(1).getCursor()).contains(new AtomCursor(5L));
+		assertThat(queries.getAllValues().get(1).toJson().get("fromTimestamp").getAsLong()).isEqualTo(5L);
+
+		atomFetcher.resetCursor(address);
+		assertThat(atomFetcher.getCursor(address)).isEmpty();
+	}
+
+	@Test
+	public void seededCursorOnlyUsedUntilFetched() {
+		RadixJsonRpcClient client = mock(RadixJsonRpcClient.class);
+		when(client.getAtoms(any())).thenReturn(Observable.never());
+		Function<Long, Single<RadixJsonRpcClient>> clientSelector = mock(Function.class);
+		when(clientSelector.apply(any())).thenReturn(Single.just(client));
+
+		AtomFetcher atomFetcher = new AtomFetcher(clientSelector);
+		RadixAddress address = mock(RadixAddress.class);
+		when(address.getUID()).thenReturn(new EUID(BigInteger.ONE));
+		AtomCursor stored = new AtomCursor(3L, new EUID(BigInteger.TEN));
+		atomFetcher.seedCursor(address, stored);
+		atomFetcher.seedCursor(address, new AtomCursor(1L));
+
+		atomFetcher.fetchAtoms(address).test().assertNoValues();
+		ArgumentCaptor<AtomQuery<Atom>> query = ArgumentCaptor.forClass(AtomQuery.class);
+		verify(client).getAtoms(query.capture());
+		assertThat(query.getValue().getCursor()).contains(stored);
+	}
+
+	@Test
+	public void pagedHistoryThenLiveTail() {
+		RadixJsonRpcClient client = mock(RadixJsonRpcClient.class);
+		Atom first = mock(Atom.class);
+		Atom second = mock(Atom.class);
+		Atom live = mock(Atom.class);
+		when(first.getTimestamp()).thenReturn(1L);
+		when(first.getHid()).thenReturn(new EUID(BigInteger.ONE));
+		when(second.getTimestamp()).thenReturn(2L);
+		when(second.getHid()).thenReturn(new EUID(BigInteger.TEN));
+		when(live.getTimestamp()).thenReturn(3L);
+
+		List<Atom> fullPage = Arrays.asList(first, second);
+		when(client.getAtomsPage(any())).thenReturn(Single.just(fullPage), Single.just(Collections.emptyList()));
+		when(client.getAtoms(any())).thenReturn(Observable.just(live));
+
+		Function<Long, Single<RadixJsonRpcClient>> clientSelector = mock(Function.class);
+		when(clientSelector.apply(any())).thenReturn(Single.just(client));
+
+		AtomFetcher atomFetcher = new AtomFetcher(clientSelector, 2);
+		RadixAddress address = mock(RadixAddress.class);
+		when(address.getUID()).thenReturn(new EUID(BigInteger.ONE));
+
+		atomFetcher.fetchAtoms(address).test().assertValues(first, second, live);
+
+		ArgumentCaptor<AtomQuery<Atom>> pages = ArgumentCaptor.forClass(AtomQuery.class);
+		verify(client, times(2)).getAtomsPage(pages.capture());
+		assertThat(pages.getAllValues().get(0).getLimit()).isEqualTo(2);
+		assertThat(pages.getAllValues().get(1).getCursor()).contains(new AtomCursor(2L, new EUID(BigInteger.TEN)));
+
+		ArgumentCaptor<AtomQuery<Atom>> tail = ArgumentCaptor.forClass(AtomQuery.class);
+		verify(client).getAtoms(tail.capture());
+		assertThat(tail.getValue().getLimit()).isEqualTo(0);
+		assertThat(tail.getValue().getCursor()).contains(new AtomCursor(2L, new EUID(BigInteger.TEN)));
+	}
+
+	@Test
+	public void refetchResumesAfterLastAtomReceivedNotLatestTimestamp() {
+		RadixJsonRpcClient client = mock(RadixJsonRpcClient.class);
+		Atom late = mock(Atom.class);
+		when(late.getTimestamp()).thenReturn(10L);
+		when(late.getHid()).thenReturn(new EUID(BigInteger.ONE));
+		Atom early = mock(Atom.class);
+		when(early.getTimestamp()).thenReturn(5L);
+		when(early.getHid()).thenReturn(new EUID(BigInteger.TEN));
+		when(client.getAtoms(any())).thenReturn(Observable.just(late, early), Observable.never());
+
+		Function<Long, Single<RadixJsonRpcClient>> clientSelector = mock(Function.class);
+		when(clientSelector.apply(any())).thenReturn(Single.just(client));
+
+		AtomFetcher atomFetcher = new AtomFetcher(clientSelector);
+		RadixAddress address = mock(RadixAddress.class);
+		when(address.getUID()).thenReturn(new EUID(BigInteger.ONE));
+
+		atomFetcher.fetchAtoms(address).test().assertValues(late, early).dispose();
+		atomFetcher.fetchAtoms(address).test().assertNoValues();
+
+		// Atoms stored after early with timestamps between 5 and 10 are not skipped
+		ArgumentCaptor<AtomQuery<Atom>> queries = ArgumentCaptor.forClass(AtomQuery.class);
+		verify(client, times(2)).getAtoms(queries.capture());
+		assertThat(queries.getAllValues().get(1).getCursor()).contains(AtomCursor.of(early));
+		assertThat(queries.getAllValues().get(1).toJson().get("fromTimestamp").getAsLong()).isEqualTo(5L);
+	}
+}
@@ -0,0 +1,56 @@
+package com.radixdlt.client.core.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.radixdlt.client.assets.Asset;
+import com.radixdlt.client.core.address.RadixAddress;
+import com.radixdlt.client.core.atoms.AbstractConsumable;
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.atoms.AtomBuilder;
+import com.radixdlt.client.core.atoms.Consumable;
+import com.radixdlt.client.core.atoms.TransactionAtom;
+import com.radixdlt.client.core.crypto.ECKeyPair;
+import com.radixdlt.client.core.crypto.ECPublicKey;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.PublishSubject;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class ConsumableDataSourceTest {
+	private static final RadixAddress ADDRESS = RadixAddress.fromString("JHB89drvftPj6zVCNjnaijURk8D8AMFw4mVja19aoBGmRXWchnJ");
+
+	@Test
+	public void particlesSharedAndReleasedWithLastSubscriber() {
+		ECKeyPair other = new ECKeyPair(new ECPublicKey(new byte[33]));
+		Consumable mine = new Consumable(10, ADDRESS.toECKeyPair(), 1, Asset.TEST.getId());
+		Atom atom = new AtomBuilder()
+			.type(TransactionAtom.class)
+			.addParticle(mine)
+			.addParticle(new Consumable(5, other, 2, Asset.TEST.getId()))
+			.addDestination(ADDRESS)
+			.build()
+			.getRawAtom();
+
+		PublishSubject<Atom> atoms = PublishSubject.create();
+		AtomicInteger subscribes = new AtomicInteger();
+		ConsumableDataSource dataSource = new ConsumableDataSource(address -> atoms.doOnSubscribe(d -> subscribes.incrementAndGet()));
+
+		TestObserver<AbstractConsumable> first = dataSource.getConsumables(ADDRESS).test();
+		atoms.onNext(atom);
+		TestObserver<AbstractConsumable> second = dataSource.getConsumables(ADDRESS).test();
+
+		first.assertValue(mine);
+		second.assertValue(mine);
+		assertThat(subscribes.get()).isEqualTo(1);
+		assertThat(dataSource.getActiveAddressCount()).isEqualTo(1);
+
+		first.dispose();
+		assertThat(atoms.hasObservers()).isTrue();
+		second.dispose();
+		assertThat(atoms.hasObservers()).isFalse();
+		assertThat(dataSource.getActiveAddressCount()).isEqualTo(0);
+
+		dataSource.getConsumables(ADDRESS).test().assertNoValues();
+		assertThat(subscribes.get()).isEqualTo(2);
+	}
+}
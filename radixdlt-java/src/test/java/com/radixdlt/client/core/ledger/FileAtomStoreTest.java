@@ -0,0 +1,115 @@
+package com.radixdlt.client.core.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.radixdlt.client.core.address.EUID;
+import com.radixdlt.client.core.address.RadixAddress;
+import com.radixdlt.client.core.atoms.ApplicationPayloadAtom;
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.atoms.AtomBuilder;
+import io.reactivex.observers.TestObserver;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileAtomStoreTest {
+	private static final RadixAddress ADDRESS = RadixAddress.fromString("JHB89drvftPj6zVCNjnaijURk8D8AMFw4mVja19aoBGmRXWchnJ");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static Atom atom(String payload) {
+		return new AtomBuilder()
+			.type(ApplicationPayloadAtom.class)
+			.applicationId("Test")
+			.payload(payload)
+			.addDestination(new EUID(BigInteger.ONE))
+			.build()
+			.getRawAtom();
+	}
+
+	@Test
+	public void storedAtomsSurviveReopen() throws IOException {
+		File directory = folder.newFolder();
+		Atom first = atom("first");
+		Atom second = atom("second");
+
+		try (FileAtomStore store = new FileAtomStore(directory)) {
+			store.store(ADDRESS, first);
+			store.store(ADDRESS, second);
+			store.store(ADDRESS, first);
+			assertThat(store.getAtomCount(ADDRESS)).isEqualTo(2);
+		}
+
+		try (FileAtomStore store = new FileAtomStore(directory)) {
+			assertThat(store.getAtomCount(ADDRESS)).isEqualTo(2);
+			TestObserver<Atom> testObserver = store.getAtoms(ADDRESS).test();
+			testObserver.assertValueCount(2);
+			assertThat(testObserver.values().get(0).getHid()).isEqualTo(first.getHid());
+			assertThat(testObserver.values().get(1).getHid()).isEqualTo(second.getHid());
+
+			Atom third = atom("third");
+			store.store(ADDRESS, third);
+			testObserver.assertValueCount(3);
+		}
+
+		try (FileAtomStore store = new FileAtomStore(directory)) {
+			assertThat(store.getAtomCount(ADDRESS)).isEqualTo(3);
+		}
+	}
+
+	@Test
+	public void atomsSpanSegments() throws IOException {
+		File directory = folder.newFolder();
+		try (FileAtomStore store = new FileAtomStore(directory, 64)) {
+			for (int i = 0; i < 10; i++) {
+				store.store(ADDRESS, atom("atom " + i));
+			}
+		}
+
+		try (FileAtomStore store = new FileAtomStore(directory, 64)) {
+			store.getAtoms(ADDRESS).test().assertValueCount(10);
+			store.store(ADDRESS, atom("atom 10"));
+			store.getAtoms(ADDRESS).test().assertValueCount(11);
+		}
+	}
+
+	@Test
+	public void lastAtomSurvivesReopen() throws IOException {
+		File directory = folder.newFolder();
+		Atom second = atom("second");
+		try (FileAtomStore store = new FileAtomStore(directory)) {
+			assertThat(store.getLastAtom(ADDRESS)).isEmpty();
+			store.store(ADDRESS, atom("first"));
+			store.store(ADDRESS, second);
+		}
+
+		try (FileAtomStore store = new FileAtomStore(directory)) {
+			assertThat(store.getLastAtom(ADDRESS).map(Atom::getHid)).contains(second.getHid());
+		}
+	}
+
+	@Test
+	public void validatedAtomsDroppedAfterLastUnsubscribe() throws IOException {
+		try (FileAtomStore store = new FileAtomStore(folder.newFolder())) {
+			store.store(ADDRESS, atom("first"));
+			assertThat(store.isValidated(ADDRESS)).isFalse();
+
+			TestObserver<Atom> first = store.getAtoms(ADDRESS).test();
+			TestObserver<Atom> second = store.getAtoms(ADDRESS).test();
+			first.dispose();
+			assertThat(store.isValidated(ADDRESS)).isTrue();
+
+			second.dispose();
+			assertThat(store.isValidated(ADDRESS)).isFalse();
+
+			// Atoms stored meanwhile are read back from disk on the next subscribe
+			store.store(ADDRESS, atom("second"));
+			store.getAtoms(ADDRESS).test().assertValueCount(2);
+			assertThat(store.isValidated(ADDRESS)).isTrue();
+		}
+	}
+}
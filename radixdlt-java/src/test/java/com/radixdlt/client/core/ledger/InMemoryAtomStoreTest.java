@@ -1,11 +1,27 @@
 package com.radixdlt.client.core.ledger;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 import com.radixdlt.client.core.address.RadixAddress;
 import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.atoms.TransactionAtom;
+import com.radixdlt.client.core.metrics.Metrics;
+import com.radixdlt.client.core.metrics.MetricsRegistry;
+import com.radixdlt.client.core.metrics.NoopMetricsRegistry;
+import com.radixdlt.client.core.util.Backpressure;
 import io.reactivex.observers.TestObserver;
+import io.reactivex.subscribers.TestSubscriber;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class InMemoryAtomStoreTest {
 
@@ -34,4 +50,120 @@ public class InMemoryAtomStoreTest {
 
 		testObserver.assertValue(atom);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void flowableReplaysOnDemand() {
+		InMemoryAtomStore inMemoryAtomStore = new InMemoryAtomStore();
+		RadixAddress address = mock(RadixAddress.class);
+		Atom first = mock(Atom.class);
+		Atom second = mock(Atom.class);
+		inMemoryAtomStore.store(address, first);
+		inMemoryAtomStore.store(address, second);
+
+		TestSubscriber<Atom> testSubscriber = inMemoryAtomStore.getAtoms(address, Backpressure.error()).test(1);
+		testSubscriber.assertValue(first);
+
+		Atom third = mock(Atom.class);
+		inMemoryAtomStore.store(address, third);
+		testSubscriber.assertValue(first).assertNoErrors();
+
+		testSubscriber.request(2);
+		testSubscriber.assertValues(first, second, third);
+	}
+
+	@Test
+	public void idleAddressesEvictedOverBudget() {
+		InMemoryAtomStore inMemoryAtomStore = new InMemoryAtomStore(2);
+		List<RadixAddress> evicted = new ArrayList<>();
+		inMemoryAtomStore.addEvictionListener(evicted::add);
+		RadixAddress idle = mock(RadixAddress.class);
+		RadixAddress watched = mock(RadixAddress.class);
+		RadixAddress other = mock(RadixAddress.class);
+
+		TestObserver<Atom> testObserver = TestObserver.create();
+		inMemoryAtomStore.getAtoms(watched).subscribe(testObserver);
+		inMemoryAtomStore.store(watched, mock(Atom.class));
+		inMemoryAtomStore.store(watched, mock(Atom.class));
+		inMemoryAtomStore.store(idle, mock(Atom.class));
+
+		assertThat(evicted).containsExactly(idle);
+		assertThat(inMemoryAtomStore.getResidentWeight()).isEqualTo(2);
+		assertThat(inMemoryAtomStore.getResidentWeight(watched)).isEqualTo(2);
+		assertThat(inMemoryAtomStore.getResidentAddressCount()).isEqualTo(1);
+
+		testObserver.dispose();
+		inMemoryAtomStore.store(other, mock(Atom.class));
+		assertThat(evicted).containsExactly(idle, watched);
+		assertThat(inMemoryAtomStore.getResidentWeight()).isEqualTo(1);
+
+		inMemoryAtomStore.getAtoms(watched).test().assertNoValues();
+	}
+
+	@Test
+	public void retainedAddressesNotEvicted() {
+		InMemoryAtomStore inMemoryAtomStore = new InMemoryAtomStore(1);
+		List<RadixAddress> evicted = new ArrayList<>();
+		inMemoryAtomStore.addEvictionListener(evicted::add);
+		RadixAddress pulled = mock(RadixAddress.class);
+		RadixAddress idle = mock(RadixAddress.class);
+		inMemoryAtomStore.setRetained(pulled::equals);
+
+		inMemoryAtomStore.store(pulled, mock(Atom.class));
+		inMemoryAtomStore.store(pulled, mock(Atom.class));
+		inMemoryAtomStore.store(idle, mock(Atom.class));
+
+		assertThat(evicted).containsExactly(idle);
+		assertThat(inMemoryAtomStore.getResidentWeight(pulled)).isEqualTo(2);
+	}
+
+	@Test
+	public void duplicateAtomsStoredOnce() {
+		InMemoryAtomStore inMemoryAtomStore = new InMemoryAtomStore();
+		Atom atom = mock(Atom.class);
+		RadixAddress address = mock(RadixAddress.class);
+
+		inMemoryAtomStore.store(address, atom);
+		inMemoryAtomStore.store(address, atom);
+
+		inMemoryAtomStore.getAtoms(address).test().assertValue(atom);
+		assertThat(inMemoryAtomStore.getResidentWeight(address)).isEqualTo(1);
+	}
+
+	@Test
+	public void transactionsValidatedOnceForAllSubscribers() {
+		InMemoryAtomStore inMemoryAtomStore = new InMemoryAtomStore();
+		TransactionAtom atom = mock(TransactionAtom.class);
+		when(atom.isTransactionAtom()).thenReturn(true);
+		when(atom.getAsTransactionAtom()).thenReturn(atom);
+		RadixAddress address = mock(RadixAddress.class);
+
+		TestObserver<Atom> before = inMemoryAtomStore.getAtoms(address).test();
+		inMemoryAtomStore.store(address, atom);
+		TestObserver<Atom> after0 = inMemoryAtomStore.getAtoms(address).test();
+		TestObserver<Atom> after1 = inMemoryAtomStore.getAtoms(address).test();
+
+		before.assertValue(atom);
+		after0.assertValue(atom);
+		after1.assertValue(atom);
+		// Particles are read in a single pass, once for all subscribers
+		verify(atom, times(1)).getAbstractConsumables();
+	}
+
+	@Test
+	public void weightGaugedForWholeStore() {
+		MetricsRegistry registry = mock(MetricsRegistry.class);
+		Metrics.setRegistry(registry);
+		try {
+			InMemoryAtomStore inMemoryAtomStore = new InMemoryAtomStore();
+			inMemoryAtomStore.store(mock(RadixAddress.class), mock(Atom.class));
+			inMemoryAtomStore.store(mock(RadixAddress.class), mock(Atom.class));
+
+			ArgumentCaptor<ToDoubleFunction<InMemoryAtomStore>> value = ArgumentCaptor.forClass(ToDoubleFunction.class);
+			verify(registry, times(1)).gauge(eq(Metrics.STORE_ATOMS), eq(inMemoryAtomStore), value.capture());
+			verifyNoMoreInteractions(registry);
+			assertThat(value.getValue().applyAsDouble(inMemoryAtomStore)).isEqualTo(2.0);
+		} finally {
+			Metrics.setRegistry(NoopMetricsRegistry.getInstance());
+		}
+	}
+}
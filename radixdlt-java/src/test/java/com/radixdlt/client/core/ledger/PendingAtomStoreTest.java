@@ -0,0 +1,158 @@
+package com.radixdlt.client.core.ledger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.radixdlt.client.assets.Asset;
+import com.radixdlt.client.core.address.RadixAddress;
+import com.radixdlt.client.core.atoms.AbstractConsumable;
+import com.radixdlt.client.core.atoms.Atom;
+import com.radixdlt.client.core.atoms.AtomBuilder;
+import com.radixdlt.client.core.atoms.Consumable;
+import com.radixdlt.client.core.atoms.TransactionAtom;
+import com.radixdlt.client.core.network.AtomSubmissionUpdate;
+import com.radixdlt.client.core.network.AtomSubmissionUpdate.AtomSubmissionState;
+import io.reactivex.Maybe;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.MaybeSubject;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.ReplaySubject;
+import org.junit.Test;
+
+public class PendingAtomStoreTest {
+	private static final RadixAddress ADDRESS = RadixAddress.fromString("JHB89drvftPj6zVCNjnaijURk8D8AMFw4mVja19aoBGmRXWchnJ");
+
+	private final Consumable input = new Consumable(10, ADDRESS.toECKeyPair(), 1, Asset.TEST.getId());
+	private final Consumable change = new Consumable(4, ADDRESS.toECKeyPair(), 2, Asset.TEST.getId());
+	private final Atom atom = new AtomBuilder()
+		.type(TransactionAtom.class)
+		.addParticle(input.toConsumer())
+		.addParticle(change)
+		.addDestination(ADDRESS)
+		.build()
+		.getRawAtom();
+
+	private final PublishSubject<AbstractConsumable> network = PublishSubject.create();
+	private final ReplaySubject<AtomSubmissionUpdate> updates = ReplaySubject.create();
+	private final PendingAtomStore store = new PendingAtomStore(address -> network, a -> updates);
+
+	@Test
+	public void submittedAtomIsAppliedThenRolledBack() {
+		TestObserver<AbstractConsumable> testObserver = store.getConsumables(ADDRESS).test();
+		network.onNext(input);
+
+		store.submitAtom(atom);
+		testObserver.assertValueCount(3);
+		assertThat(testObserver.values().get(1).isConsumer()).isTrue();
+		assertThat(testObserver.values().get(1).getHash()).isEqualTo(input.getHash());
+		assertThat(testObserver.values().get(2).getHash()).isEqualTo(change.getHash());
+		assertThat(store.getPendingCount()).isEqualTo(1);
+
+		// Subscribers arriving later start with the atoms pending
+		store.getConsumables(ADDRESS).test().assertValueCount(2);
+
+		updates.onNext(AtomSubmissionUpdate.now(atom.getHid(), AtomSubmissionState.COLLISION));
+		testObserver.assertValueCount(5);
+		assertThat(testObserver.values().get(3).isConsumable()).isTrue();
+		assertThat(testObserver.values().get(3).getHash()).isEqualTo(input.getHash());
+		assertThat(testObserver.values().get(4).isConsumer()).isTrue();
+		assertThat(testObserver.values().get(4).getHash()).isEqualTo(change.getHash());
+		assertThat(store.getPendingCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void reconciledAtomIsNotRolledBack() {
+		TestObserver<AbstractConsumable> testObserver = store.getConsumables(ADDRESS).test();
+		store.submitAtom(atom);
+
+		// Network copy of a consumable spent by a pending atom is hidden until the atom is stored
+		network.onNext(input);
+		testObserver.assertValueCount(2);
+
+		store.reconcile(atom);
+		network.onNext(input);
+		testObserver.assertValueCount(3);
+
+		updates.onNext(AtomSubmissionUpdate.now(atom.getHid(), AtomSubmissionState.FAILED));
+		testObserver.assertValueCount(3);
+		assertThat(store.getPendingCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void everyTerminalFailureRollsBack() {
+		for (AtomSubmissionState state : AtomSubmissionState.values()) {
+			if (!state.isComplete() || state == AtomSubmissionState.STORED) {
+				continue;
+			}
+
+			ReplaySubject<AtomSubmissionUpdate> stateUpdates = ReplaySubject.create();
+			PendingAtomStore pendingAtomStore = new PendingAtomStore(address -> network, a -> stateUpdates);
+			pendingAtomStore.submitAtom(atom);
+			stateUpdates.onNext(AtomSubmissionUpdate.now(atom.getHid(), state));
+			assertThat(pendingAtomStore.getPendingCount()).as(state.name()).isEqualTo(0);
+		}
+	}
+
+	@Test
+	public void storedAtomIsForgotten() {
+		TestObserver<AbstractConsumable> testObserver = store.getConsumables(ADDRESS).test();
+		store.submitAtom(atom);
+
+		updates.onNext(AtomSubmissionUpdate.now(atom.getHid(), AtomSubmissionState.STORED));
+		assertThat(store.getPendingCount()).isEqualTo(0);
+		testObserver.assertValueCount(2);
+	}
+
+	@Test
+	public void connectionLostIsNotRolledBack() {
+		TestObserver<AbstractConsumable> testObserver = store.getConsumables(ADDRESS).test();
+		TestObserver<AtomSubmissionUpdate> submission = store.submitAtom(atom).test();
+
+		updates.onNext(AtomSubmissionUpdate.now(atom.getHid(), AtomSubmissionState.CONNECTION_LOST));
+		updates.onComplete();
+		submission.assertComplete();
+		assertThat(store.getPendingCount()).isEqualTo(1);
+		testObserver.assertValueCount(2);
+
+		// Left to the network copy once it is pulled
+		store.reconcile(atom);
+		assertThat(store.getPendingCount()).isEqualTo(0);
+		testObserver.assertValueCount(2);
+	}
+
+	@Test
+	public void connectionLostResolvedByLookingUpAtom() {
+		PublishSubject<AtomSubmissionUpdate> stateUpdates = PublishSubject.create();
+		MaybeSubject<Atom> lookup = MaybeSubject.create();
+		PendingAtomStore pendingAtomStore = new PendingAtomStore(address -> network, a -> stateUpdates, a -> lookup);
+		TestObserver<AbstractConsumable> testObserver = pendingAtomStore.getConsumables(ADDRESS).test();
+		TestObserver<AtomSubmissionUpdate> submission = pendingAtomStore.submitAtom(atom).test();
+
+		stateUpdates.onNext(AtomSubmissionUpdate.now(atom.getHid(), AtomSubmissionState.CONNECTION_LOST));
+		stateUpdates.onComplete();
+		submission.assertNotComplete();
+		assertThat(pendingAtomStore.getPendingCount()).isEqualTo(1);
+
+		lookup.onSuccess(atom);
+		submission.assertComplete();
+		assertThat(submission.values()).extracting(AtomSubmissionUpdate::getState)
+			.containsExactly(AtomSubmissionState.CONNECTION_LOST, AtomSubmissionState.STORED);
+		assertThat(pendingAtomStore.getPendingCount()).isEqualTo(0);
+		testObserver.assertValueCount(2);
+	}
+
+	@Test
+	public void connectionLostRolledBackOnceAtomNotFound() {
+		PublishSubject<AtomSubmissionUpdate> stateUpdates = PublishSubject.create();
+		PendingAtomStore pendingAtomStore = new PendingAtomStore(address -> network, a -> stateUpdates, a -> Maybe.empty());
+		TestObserver<AbstractConsumable> testObserver = pendingAtomStore.getConsumables(ADDRESS).test();
+		TestObserver<AtomSubmissionUpdate> submission = pendingAtomStore.submitAtom(atom).test();
+
+		stateUpdates.onNext(AtomSubmissionUpdate.now(atom.getHid(), AtomSubmissionState.CONNECTION_LOST));
+		stateUpdates.onComplete();
+		submission.assertComplete();
+		assertThat(submission.values()).extracting(AtomSubmissionUpdate::getState)
+			.containsExactly(AtomSubmissionState.CONNECTION_LOST, AtomSubmissionState.FAILED);
+		assertThat(pendingAtomStore.getPendingCount()).isEqualTo(0);
+		testObserver.assertValueCount(4);
+	}
+}
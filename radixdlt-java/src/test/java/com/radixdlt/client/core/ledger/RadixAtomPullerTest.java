@@ -1,39 +1,123 @@
 package com.radixdlt.client.core.ledger;
 
-import static org.mockito.ArgumentMatchers.any;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
 import com.radixdlt.client.core.address.RadixAddress;
 import com.radixdlt.client.core.atoms.Atom;
 import io.reactivex.Observable;
 import io.reactivex.disposables.Disposable;
-import io.reactivex.functions.Consumer;
-import io.reactivex.observers.TestObserver;
-import java.util.List;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import io.reactivex.schedulers.TestScheduler;
+import io.reactivex.subjects.PublishSubject;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Test;
 
 public class RadixAtomPullerTest {
+	private static final RadixAddress ADDRESS = RadixAddress.fromString("JHB89drvftPj6zVCNjnaijURk8D8AMFw4mVja19aoBGmRXWchnJ");
+
+	private final PublishSubject<Atom> atoms = PublishSubject.create();
+	private final AtomicInteger fetches = new AtomicInteger();
+	private final AtomicInteger stored = new AtomicInteger();
+	private final TestScheduler scheduler = new TestScheduler();
+	private final RadixAtomPuller puller = new RadixAtomPuller(
+		address -> atoms.doOnSubscribe(d -> fetches.incrementAndGet()),
+		(address, atom) -> stored.incrementAndGet(),
+		1000,
+		scheduler
+	);
+
+	@Test
+	public void oneFetchSharedByEveryCaller() {
+		Disposable first = puller.pull(ADDRESS);
+		Disposable second = puller.pull(ADDRESS);
+
+		assertThat(fetches.get()).isEqualTo(1);
+		assertThat(puller.getActivePullCount()).isEqualTo(1);
+		assertThat(puller.getReferenceCount(ADDRESS)).isEqualTo(2);
+
+		atoms.onNext(mock(Atom.class));
+		assertThat(stored.get()).isEqualTo(1);
+
+		first.dispose();
+		first.dispose();
+		assertThat(puller.getReferenceCount(ADDRESS)).isEqualTo(1);
+		second.dispose();
+		assertThat(puller.getReferenceCount(ADDRESS)).isEqualTo(0);
+		assertThat(atoms.hasObservers()).isTrue();
+	}
+
+	@Test
+	public void fetchStopsOnceIdle() {
+		puller.pull(ADDRESS).dispose();
+
+		scheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS);
+		assertThat(atoms.hasObservers()).isTrue();
+
+		scheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+		assertThat(atoms.hasObservers()).isFalse();
+		assertThat(puller.getActivePullCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void pullWhileIdleKeepsFetch() {
+		puller.pull(ADDRESS).dispose();
+		scheduler.advanceTimeBy(500, TimeUnit.MILLISECONDS);
+
+		Disposable again = puller.pull(ADDRESS);
+		scheduler.advanceTimeBy(1000, TimeUnit.MILLISECONDS);
+
+		assertThat(fetches.get()).isEqualTo(1);
+		assertThat(atoms.hasObservers()).isTrue();
+		again.dispose();
+	}
+
 	@Test
-	public void testClientAPICalledOnceWithManySubscibers() throws Exception {
-		Consumer<Disposable> onSubscribe = mock(Consumer.class);
-		Observable atoms = Observable.never().doOnSubscribe(onSubscribe);
-		Function<RadixAddress, Observable<Atom>> fetcher = mock(Function.class);
-		when(fetcher.apply(any())).thenReturn(atoms);
-		RadixAddress address = mock(RadixAddress.class);
+	public void ingestRateCountsAtomsStoredPerSecond() {
+		puller.pull(ADDRESS);
+		atoms.onNext(mock(Atom.class));
+		atoms.onNext(mock(Atom.class));
+		scheduler.advanceTimeBy(2, TimeUnit.SECONDS);
 
-		RadixAtomPuller radixAtomPuller = new RadixAtomPuller(fetcher, (a, b) -> { });
+		assertThat(puller.getIngestRate(ADDRESS)).isEqualTo(1.0);
+		assertThat(puller.getIngestRate(mock(RadixAddress.class))).isEqualTo(0.0);
+	}
+
+	@Test
+	public void failedFetchRemovesPull() {
+		Disposable pulling = puller.pull(ADDRESS);
+		atoms.onError(new RuntimeException());
 
-		List<TestObserver> observers = Stream.iterate(TestObserver.create(), t -> TestObserver.create()).limit(10)
-			.collect(Collectors.toList());
+		assertThat(puller.getActivePullCount()).isEqualTo(0);
+		pulling.dispose();
 
-		observers.forEach(observer -> radixAtomPuller.pull(address));
+		puller.pull(ADDRESS);
+		assertThat(fetches.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void atomsStoredWithoutLock() {
+		AtomicBoolean blocked = new AtomicBoolean(false);
+		AtomicReference<RadixAtomPuller> self = new AtomicReference<>();
+		RadixAtomPuller synchronous = new RadixAtomPuller(
+			address -> Observable.just(mock(Atom.class)),
+			(address, atom) -> {
+				// Another thread must be able to query the puller while an atom is stored
+				try {
+					CompletableFuture.runAsync(() -> self.get().getActivePullCount()).get(1, TimeUnit.SECONDS);
+				} catch (Exception e) {
+					blocked.set(true);
+				}
+			},
+			1000,
+			scheduler
+		);
+		self.set(synchronous);
 
-		verify(onSubscribe, times(1)).accept(any());
+		synchronous.pull(ADDRESS);
+		assertThat(blocked.get()).isFalse();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package com.radixdlt.client.core.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.radixdlt.client.core.crypto.ECKeyPair;
+import com.radixdlt.client.core.crypto.ECKeyPairGenerator;
+import com.radixdlt.client.core.crypto.ECSignature;
+import com.radixdlt.client.core.pow.ProofOfWorkBuilder;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+public class MetricsTest {
+	@After
+	public void resetRegistry() {
+		Metrics.setRegistry(NoopMetricsRegistry.getInstance());
+	}
+
+	@Test
+	public void noopByDefault() {
+		assertThat(Metrics.getRegistry()).isSameAs(NoopMetricsRegistry.getInstance());
+		assertThat(Metrics.getRegistry().timer(Metrics.POW).record(() -> "result")).isEqualTo("result");
+	}
+
+	@Test
+	public void timesCryptoAndProofOfWork() {
+		MetricsRegistry registry = mock(MetricsRegistry.class);
+		Timer sign = mock(Timer.class);
+		Timer verify = mock(Timer.class);
+		Timer pow = mock(Timer.class);
+		when(registry.timer(Metrics.SIGN)).thenReturn(sign);
+		when(registry.timer(Metrics.VERIFY)).thenReturn(verify);
+		when(registry.timer(Metrics.POW)).thenReturn(pow);
+		when(sign.record(any())).thenCallRealMethod();
+		when(verify.record(any())).thenCallRealMethod();
+		when(pow.record(any())).thenCallRealMethod();
+		Metrics.setRegistry(registry);
+
+		ECKeyPair key = ECKeyPairGenerator.newInstance().generateKeyPair();
+		byte[] data = new byte[32];
+		ECSignature signature = key.sign(data);
+		assertThat(key.getPublicKey().verify(data, signature)).isTrue();
+		new ProofOfWorkBuilder().build(12345, new byte[32], 8);
+
+		verify(sign).record(anyLong(), eq(TimeUnit.NANOSECONDS));
+		verify(verify).record(anyLong(), eq(TimeUnit.NANOSECONDS));
+		verify(pow).record(anyLong(), eq(TimeUnit.NANOSECONDS));
+	}
+}
@@ -0,0 +1,78 @@
+package com.radixdlt.client.core.network;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.radixdlt.client.core.address.EUID;
+import com.radixdlt.client.core.atoms.Atom;
+import io.reactivex.Maybe;
+import io.reactivex.subjects.MaybeSubject;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class AtomCacheTest {
+	private final EUID hid = new EUID(BigInteger.ONE);
+	private final AtomicLong now = new AtomicLong();
+	private final AtomicInteger fetches = new AtomicInteger();
+	private final AtomCache cache = new AtomCache("node", 1000, 10, now::get);
+
+	private Maybe<Atom> fetch(Maybe<Atom> answer) {
+		return Maybe.defer(() -> {
+			fetches.incrementAndGet();
+			return answer;
+		});
+	}
+
+	@Test
+	public void foundAtomServedFromCache() {
+		Atom atom = mock(Atom.class);
+		when(atom.getHid()).thenReturn(hid);
+		when(atom.getDsonSize()).thenReturn(100);
+
+		cache.get(hid, () -> fetch(Maybe.just(atom))).test().assertValue(atom);
+		cache.get(hid, () -> fetch(Maybe.just(atom))).test().assertValue(atom);
+
+		assertThat(fetches.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void notFoundRememberedForAWhile() {
+		cache.get(hid, () -> fetch(Maybe.empty())).test().assertComplete().assertNoValues();
+		now.set(9);
+		cache.get(hid, () -> fetch(Maybe.empty())).test().assertComplete().assertNoValues();
+		assertThat(fetches.get()).isEqualTo(1);
+
+		now.set(10);
+		cache.get(hid, () -> fetch(Maybe.empty())).test().assertComplete();
+		assertThat(fetches.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void streamedAtomReplacesNotFound() {
+		Atom atom = mock(Atom.class);
+		when(atom.getHid()).thenReturn(hid);
+
+		cache.get(hid, () -> fetch(Maybe.empty())).test();
+		cache.put(atom);
+
+		cache.get(hid, () -> fetch(Maybe.empty())).test().assertValue(atom);
+		assertThat(fetches.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void concurrentMissesShareRequest() {
+		Atom atom = mock(Atom.class);
+		when(atom.getHid()).thenReturn(hid);
+		MaybeSubject<Atom> answer = MaybeSubject.create();
+
+		cache.get(hid, () -> fetch(answer)).test();
+		cache.get(hid, () -> fetch(answer)).test();
+		answer.onSuccess(atom);
+
+		assertThat(fetches.get()).isEqualTo(1);
+		assertThat(cache.size()).isEqualTo(1);
+	}
+}
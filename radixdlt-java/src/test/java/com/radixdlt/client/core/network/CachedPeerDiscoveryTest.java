@@ -0,0 +1,83 @@
+package com.radixdlt.client.core.network;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CachedPeerDiscoveryTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void livePeersAreRememberedForNextStart() throws IOException {
+		File cacheFile = new File(folder.getRoot(), "peers.json");
+		RadixPeer peer = mock(RadixPeer.class);
+		RadixJsonRpcClient client = mock(RadixJsonRpcClient.class);
+		when(peer.getLocation()).thenReturn("1.1.1.1");
+		when(peer.getPort()).thenReturn(8080);
+		when(peer.getRadixClient()).thenReturn(client);
+		when(client.getSelf()).thenReturn(Single.just(new NodeRunnerData("1.1.1.1", 0, 10)));
+		PeerDiscovery delegate = mock(PeerDiscovery.class);
+		when(delegate.findPeers()).thenReturn(Observable.just(peer));
+
+		TestScheduler scheduler = new TestScheduler();
+		TestObserver<RadixPeer> testObserver = TestObserver.create();
+		new CachedPeerDiscovery(delegate, cacheFile, 60, 5, scheduler).findPeers().subscribe(testObserver);
+		testObserver.awaitCount(1);
+		testObserver.assertValue(peer);
+
+		PeerDiscovery offline = mock(PeerDiscovery.class);
+		when(offline.findPeers()).thenReturn(Observable.never());
+		TestObserver<RadixPeer> restarted = TestObserver.create();
+		new CachedPeerDiscovery(offline, cacheFile, 60, 5, scheduler).findPeers().subscribe(restarted);
+		restarted.awaitCount(1);
+		restarted.assertValue(p -> p.getLocation().equals("1.1.1.1") && p.getPort() == 8080);
+		restarted.values().get(0).servesShards(Collections.singleton(5L)).test().assertValueCount(1);
+	}
+
+	@Test
+	public void deadPeersAreNotRemembered() {
+		File cacheFile = new File(folder.getRoot(), "peers.json");
+		RadixPeer peer = mock(RadixPeer.class);
+		RadixJsonRpcClient client = mock(RadixJsonRpcClient.class);
+		when(peer.getLocation()).thenReturn("1.1.1.1");
+		when(peer.getRadixClient()).thenReturn(client);
+		when(client.getSelf()).thenReturn(Single.never());
+		PeerDiscovery delegate = mock(PeerDiscovery.class);
+		when(delegate.findPeers()).thenReturn(Observable.just(peer));
+
+		TestScheduler scheduler = new TestScheduler();
+		TestObserver<RadixPeer> testObserver = TestObserver.create();
+		CachedPeerDiscovery discovery = new CachedPeerDiscovery(delegate, cacheFile, 60, 5, scheduler);
+		discovery.findPeers().subscribe(testObserver);
+		testObserver.awaitCount(1);
+		scheduler.advanceTimeBy(5, TimeUnit.SECONDS);
+
+		assertThat(cacheFile).doesNotExist();
+		assertThat(discovery.loadCachedPeers()).isEmpty();
+	}
+
+	@Test
+	public void corruptCacheFileIsIgnored() throws IOException {
+		File cacheFile = folder.newFile("peers.json");
+		Files.write(cacheFile.toPath(), "not json[".getBytes(StandardCharsets.UTF_8));
+
+		List<RadixPeer> peers = new CachedPeerDiscovery(mock(PeerDiscovery.class), cacheFile).loadCachedPeers();
+		assertThat(peers).isEmpty();
+	}
+}
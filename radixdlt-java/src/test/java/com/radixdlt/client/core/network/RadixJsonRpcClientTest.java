@@ -1,5 +1,6 @@
 package com.radixdlt.client.core.network;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
@@ -17,11 +18,20 @@ import com.radixdlt.client.core.atoms.Shards;
 import com.radixdlt.client.core.network.AtomSubmissionUpdate.AtomSubmissionState;
 import com.radixdlt.client.core.network.WebSocketClient.RadixClientStatus;
 import com.radixdlt.client.core.serialization.RadixJson;
+import com.radixdlt.client.core.util.Backpressure;
 import io.reactivex.Completable;
 import io.reactivex.Observable;
 import io.reactivex.observers.TestObserver;
+import io.reactivex.subscribers.TestSubscriber;
+import io.reactivex.subjects.BehaviorSubject;
+import io.reactivex.subjects.PublishSubject;
 import io.reactivex.subjects.ReplaySubject;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 
 public class RadixJsonRpcClientTest {
@@ -217,6 +227,81 @@ public class RadixJsonRpcClientTest {
 		observer.assertValue(atom -> atom.getAsMessageAtom().getApplicationId().equals("Test"));
 	}
 
+	@Test
+	public void responseDuringSendNotMissed() {
+		WebSocketClient wsClient = mock(WebSocketClient.class);
+		when(wsClient.getStatus()).thenReturn(Observable.just(RadixClientStatus.OPEN));
+
+		PublishSubject<String> messages = PublishSubject.create();
+		when(wsClient.getMessages()).thenReturn(messages);
+		when(wsClient.connect()).thenReturn(Completable.complete());
+
+		JsonParser parser = new JsonParser();
+
+		// Node answering before send returns, as a fast node may
+		doAnswer(invocation -> {
+			JsonObject jsonObject = parser.parse((String) invocation.getArguments()[0]).getAsJsonObject();
+			JsonObject response = new JsonObject();
+			response.addProperty("id", jsonObject.get("id").getAsString());
+			response.add("result", new JsonArray());
+			messages.onNext(response.toString());
+			return true;
+		}).when(wsClient).send(any());
+		RadixJsonRpcClient jsonRpcClient = new RadixJsonRpcClient(wsClient);
+
+		jsonRpcClient.getAtom(new EUID(BigInteger.ONE)).test()
+			.assertNoErrors()
+			.assertComplete()
+			.assertNoValues();
+	}
+
+	@Test
+	public void getAtomsPagesHistoryOnDemand() {
+		WebSocketClient wsClient = mock(WebSocketClient.class);
+		when(wsClient.getStatus()).thenReturn(Observable.just(RadixClientStatus.OPEN));
+
+		ReplaySubject<String> messages = ReplaySubject.create();
+		when(wsClient.getMessages()).thenReturn(messages);
+		when(wsClient.connect()).thenReturn(Completable.complete());
+
+		JsonParser parser = new JsonParser();
+		Gson gson = RadixJson.getGson();
+		AtomicInteger pagesRequested = new AtomicInteger();
+
+		// Node with an endless history, answering every page request with a full page
+		doAnswer(invocation -> {
+			JsonObject jsonObject = parser.parse((String) invocation.getArguments()[0]).getAsJsonObject();
+			pagesRequested.incrementAndGet();
+
+			JsonArray atoms = new JsonArray();
+			for (int i = 0; i < 2; i++) {
+				long timestamp = pagesRequested.get() * 2 + i;
+				atoms.add(gson.toJsonTree(new ApplicationPayloadAtom("Test", null, null, null, null, timestamp), Atom.class));
+			}
+			JsonObject response = new JsonObject();
+			response.addProperty("id", jsonObject.get("id").getAsString());
+			response.add("result", atoms);
+			messages.onNext(gson.toJson(response));
+			return true;
+		}).when(wsClient).send(any());
+		RadixJsonRpcClient jsonRpcClient = new RadixJsonRpcClient(wsClient);
+
+		TestSubscriber<ApplicationPayloadAtom> subscriber = jsonRpcClient
+			.getAtoms(new AtomQuery<>(new EUID(BigInteger.ONE), ApplicationPayloadAtom.class), 2, Backpressure.error())
+			.test(0);
+		assertThat(pagesRequested.get()).isEqualTo(2);
+
+		subscriber.request(1);
+		subscriber.assertValueCount(1);
+		assertThat(pagesRequested.get()).isEqualTo(2);
+
+		subscriber.request(2);
+		subscriber.assertValueCount(3);
+		assertThat(pagesRequested.get()).isEqualTo(3);
+		subscriber.assertNoErrors();
+		subscriber.dispose();
+	}
+
 	@Test
 	public void getAtomsCancelTest() {
 		WebSocketClient wsClient = mock(WebSocketClient.class);
@@ -276,6 +361,56 @@ public class RadixJsonRpcClientTest {
 		observer.assertValueCount(0);
 	}
 
+	@Test
+	public void notificationsRoutedToTheirSubscriber() {
+		WebSocketClient wsClient = mock(WebSocketClient.class);
+		when(wsClient.getStatus()).thenReturn(Observable.just(RadixClientStatus.OPEN));
+
+		ReplaySubject<String> messages = ReplaySubject.create();
+		when(wsClient.getMessages()).thenReturn(messages);
+		when(wsClient.connect()).thenReturn(Completable.complete());
+
+		JsonParser parser = new JsonParser();
+		Gson gson = RadixJson.getGson();
+		List<String> subscriberIds = new ArrayList<>();
+
+		doAnswer(invocation -> {
+			String msg = (String) invocation.getArguments()[0];
+			JsonObject jsonObject = parser.parse(msg).getAsJsonObject();
+			if (jsonObject.get("method").getAsString().equals("Atoms.subscribe")) {
+				subscriberIds.add(jsonObject.get("params").getAsJsonObject().get("subscriberId").getAsString());
+				JsonObject response = new JsonObject();
+				response.addProperty("id", jsonObject.get("id").getAsString());
+				response.add("result", new JsonObject());
+				messages.onNext(gson.toJson(response));
+			}
+			return true;
+		}).when(wsClient).send(any());
+		RadixJsonRpcClient jsonRpcClient = new RadixJsonRpcClient(wsClient);
+
+		TestObserver<ApplicationPayloadAtom> first = new TestObserver<>();
+		TestObserver<ApplicationPayloadAtom> second = new TestObserver<>();
+		jsonRpcClient.getAtoms(new AtomQuery<>(new EUID(BigInteger.ONE), ApplicationPayloadAtom.class)).subscribe(first);
+		jsonRpcClient.getAtoms(new AtomQuery<>(new EUID(BigInteger.TEN), ApplicationPayloadAtom.class)).subscribe(second);
+		assertThat(jsonRpcClient.getSubscriptionCount()).isEqualTo(2);
+
+		JsonObject notification = new JsonObject();
+		notification.addProperty("method", "Atoms.subscribeUpdate");
+		JsonObject params = new JsonObject();
+		params.addProperty("subscriberId", subscriberIds.get(1));
+		JsonArray atoms = new JsonArray();
+		atoms.add(gson.toJsonTree(new ApplicationPayloadAtom("Test", null, null, null, null, 1), Atom.class));
+		params.add("atoms", atoms);
+		notification.add("params", params);
+		messages.onNext(gson.toJson(notification));
+
+		first.assertNoValues();
+		second.assertValueCount(1);
+
+		first.dispose();
+		assertThat(jsonRpcClient.getSubscriptionCount()).isEqualTo(1);
+	}
+
 	@Test
 	public void submitAtomTest() {
 		WebSocketClient wsClient = mock(WebSocketClient.class);
@@ -327,4 +462,70 @@ public class RadixJsonRpcClientTest {
 		observer.assertValueAt(observer.valueCount() - 1, update -> update.getState().equals(AtomSubmissionState.STORED));
 		observer.assertComplete();
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void pendingCallFailsWhenConnectionDrops() {
+		WebSocketClient wsClient = mock(WebSocketClient.class);
+		BehaviorSubject<RadixClientStatus> status = BehaviorSubject.createDefault(RadixClientStatus.OPEN);
+		when(wsClient.getStatus()).thenReturn(status);
+		when(wsClient.getMessages()).thenReturn(PublishSubject.create());
+		when(wsClient.connect()).thenReturn(Completable.complete());
+		when(wsClient.send(any())).thenReturn(true);
+
+		RadixJsonRpcClient jsonRpcClient = new RadixJsonRpcClient(wsClient);
+		TestObserver<NodeRunnerData> observer = jsonRpcClient.getSelf().test();
+		observer.assertNotTerminated();
+
+		status.onNext(RadixClientStatus.RECONNECTING);
+
+		observer.assertError(ConnectionLostException.class);
+	}
+
+	@Test
+	public void callTimesOutWithoutResponse() {
+		WebSocketClient wsClient = mock(WebSocketClient.class);
+		when(wsClient.getStatus()).thenReturn(Observable.just(RadixClientStatus.OPEN));
+		when(wsClient.getMessages()).thenReturn(PublishSubject.create());
+		when(wsClient.connect()).thenReturn(Completable.complete());
+		when(wsClient.send(any())).thenReturn(true);
+
+		RadixJsonRpcClient jsonRpcClient = new RadixJsonRpcClient(wsClient, new AtomCache(wsClient.toString()), 10, TimeUnit.MILLISECONDS);
+
+		jsonRpcClient.getSelf().test()
+			.awaitDone(1, TimeUnit.SECONDS)
+			.assertError(TimeoutException.class);
+	}
+
+	@Test
+	public void submissionOutcomeUnknownWhenConnectionDropsAfterSubmitted() {
+		WebSocketClient wsClient = mock(WebSocketClient.class);
+		BehaviorSubject<RadixClientStatus> status = BehaviorSubject.createDefault(RadixClientStatus.OPEN);
+		when(wsClient.getStatus()).thenReturn(status);
+		ReplaySubject<String> messages = ReplaySubject.create();
+		when(wsClient.getMessages()).thenReturn(messages);
+		when(wsClient.connect()).thenReturn(Completable.complete());
+
+		JsonParser parser = new JsonParser();
+		doAnswer(invocation -> {
+			JsonObject jsonObject = parser.parse((String) invocation.getArguments()[0]).getAsJsonObject();
+			JsonObject response = new JsonObject();
+			response.add("id", jsonObject.get("id"));
+			response.add("result", new JsonObject());
+			messages.onNext(RadixJson.getGson().toJson(response));
+			return true;
+		}).when(wsClient).send(any());
+		RadixJsonRpcClient jsonRpcClient = new RadixJsonRpcClient(wsClient);
+
+		TestObserver<AtomSubmissionUpdate> observer = jsonRpcClient.submitAtom(
+			new ApplicationPayloadAtom("Test", null, null, null, null, 1)
+		).test();
+		observer.assertValueAt(observer.valueCount() - 1, update -> update.getState().equals(AtomSubmissionState.SUBMITTED));
+		observer.assertNotComplete();
+
+		status.onNext(RadixClientStatus.RECONNECTING);
+
+		// The atom may still get stored so it must not be reported as failed
+		observer.assertValueAt(observer.valueCount() - 1, update -> update.getState().equals(AtomSubmissionState.CONNECTION_LOST));
+		observer.assertComplete();
+	}
+}
@@ -2,6 +2,8 @@ package com.radixdlt.client.core.network;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.radixdlt.client.core.address.RadixUniverseConfig;
@@ -10,6 +12,7 @@ import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Single;
 import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.BehaviorSubject;
 import java.io.IOException;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.stream.IntStream;
@@ -73,6 +76,35 @@ public class RadixNetworkTest {
 	}
 
 
+	@Test
+	public void testIndexedPeersFollowStatus() {
+		RadixPeer inRange = mock(RadixPeer.class);
+		RadixPeer outOfRange = mock(RadixPeer.class);
+		RadixJsonRpcClient inRangeClient = mock(RadixJsonRpcClient.class);
+		RadixJsonRpcClient outOfRangeClient = mock(RadixJsonRpcClient.class);
+		BehaviorSubject<RadixClientStatus> status = BehaviorSubject.createDefault(RadixClientStatus.CLOSED);
+		when(inRange.getRadixClient()).thenReturn(inRangeClient);
+		when(inRange.getData()).thenReturn(Single.just(new NodeRunnerData("1", 0, 10)));
+		when(inRangeClient.getStatus()).thenReturn(status);
+		when(inRangeClient.checkAPIVersion()).thenReturn(Single.just(true));
+		when(outOfRange.getRadixClient()).thenReturn(outOfRangeClient);
+		when(outOfRange.getData()).thenReturn(Single.just(new NodeRunnerData("2", 11, 20)));
+		when(outOfRangeClient.getStatus()).thenReturn(Observable.just(RadixClientStatus.OPEN));
+		when(outOfRangeClient.checkAPIVersion()).thenReturn(Single.just(true));
+
+		RadixNetwork network = new RadixNetwork(() -> Observable.just(inRange, outOfRange));
+		network.connectAndGetStatusUpdates();
+
+		network.getRadixClients(5L).test().assertValue(inRangeClient);
+		verify(inRange, never()).servesShards(any());
+
+		status.onNext(RadixClientStatus.FAILURE);
+		when(inRange.servesShards(any())).thenReturn(Maybe.just(inRange));
+		when(outOfRange.servesShards(any())).thenReturn(Maybe.empty());
+		network.getRadixClients(5L).test().assertValue(inRangeClient);
+		verify(inRange).servesShards(any());
+	}
+
 	/**
 	 * RadixNetwork class should protect subscribers from network level exceptions
 	 */
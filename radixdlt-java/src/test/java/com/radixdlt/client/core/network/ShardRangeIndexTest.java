@@ -0,0 +1,54 @@
+package com.radixdlt.client.core.network;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.radixdlt.client.core.atoms.Shards;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class ShardRangeIndexTest {
+	@Test
+	public void overlappingRanges() {
+		ShardRangeIndex<String> index = new ShardRangeIndex<>();
+		index.put("a", Shards.range(0, 100));
+		index.put("b", Shards.range(50, 150));
+		index.put("c", Shards.range(200, 300));
+
+		assertThat(index.get(-1L)).isEmpty();
+		assertThat(index.get(0L)).containsExactly("a");
+		assertThat(index.get(49L)).containsExactly("a");
+		assertThat(index.get(50L)).containsExactly("a", "b");
+		assertThat(index.get(100L)).containsExactly("a", "b");
+		assertThat(index.get(101L)).containsExactly("b");
+		assertThat(index.get(175L)).isEmpty();
+		assertThat(index.get(300L)).containsExactly("c");
+		assertThat(index.get(301L)).isEmpty();
+		assertThat(index.get(Arrays.asList(10L, 60L, 250L))).containsExactly("a", "b", "c");
+	}
+
+	@Test
+	public void removeAndUpdate() {
+		ShardRangeIndex<String> index = new ShardRangeIndex<>();
+		index.put("a", Shards.range(0, 100));
+		index.put("b", Shards.range(50, 150));
+
+		index.remove("a");
+		assertThat(index.get(60L)).containsExactly("b");
+		assertThat(index.get(10L)).isEmpty();
+
+		index.put("b", Shards.range(0, 10));
+		assertThat(index.get(10L)).containsExactly("b");
+		assertThat(index.get(60L)).isEmpty();
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void fullRange() {
+		ShardRangeIndex<String> index = new ShardRangeIndex<>();
+		index.put("all", Shards.range(Long.MIN_VALUE, Long.MAX_VALUE));
+
+		assertThat(index.get(Long.MIN_VALUE)).containsExactly("all");
+		assertThat(index.get(0L)).containsExactly("all");
+		assertThat(index.get(Long.MAX_VALUE)).containsExactly("all");
+	}
+}
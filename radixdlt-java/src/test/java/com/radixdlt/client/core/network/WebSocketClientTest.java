@@ -1,11 +1,18 @@
 package com.radixdlt.client.core.network;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
+import com.radixdlt.client.core.RadixSchedulers;
+import com.radixdlt.client.core.network.WebSocketClient.RadixClientStatus;
 import io.reactivex.observers.TestObserver;
+import io.reactivex.schedulers.TestScheduler;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -73,6 +80,28 @@ public class WebSocketClientTest {
 		testObserver.assertValue("hello");
 	}
 
+	@Test
+	public void messagesPassedOnAsWorkOfTheLibrary() {
+		OkHttpClient okHttpClient = mock(OkHttpClient.class);
+		WebSocket webSocket = mock(WebSocket.class);
+		Request request = mock(Request.class);
+		Response response = mock(Response.class);
+
+		WebSocketClient client = new WebSocketClient(() -> okHttpClient, request);
+		doAnswer(invocation -> {
+			WebSocketListener listener = (WebSocketListener) invocation.getArguments()[1];
+			listener.onOpen(webSocket, response);
+			listener.onMessage(webSocket, "hello");
+			return webSocket;
+		}).when(okHttpClient).newWebSocket(any(), any());
+
+		TestObserver<Boolean> testObserver = client.getMessages().map(message -> RadixSchedulers.isNonBlocking()).test();
+		client.connect().subscribe();
+
+		testObserver.assertValue(true);
+		assertThat(RadixSchedulers.isNonBlocking()).isFalse();
+	}
+
 	@Test
 	public void testMessageThenError() {
 		OkHttpClient okHttpClient = mock(OkHttpClient.class);
@@ -95,4 +124,105 @@ public class WebSocketClientTest {
 
 		testObserver.assertFailure(IOException.class, "hello");
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testReconnectAfterFailureKeepsMessageStream() {
+		OkHttpClient okHttpClient = mock(OkHttpClient.class);
+		WebSocket webSocket = mock(WebSocket.class);
+		Request request = mock(Request.class);
+		Response response = mock(Response.class);
+		TestScheduler scheduler = new TestScheduler();
+		AtomicInteger connections = new AtomicInteger();
+
+		WebSocketClient client = new WebSocketClient(() -> okHttpClient, request, new ExponentialBackoff(100, 1000, 3), scheduler);
+		doAnswer(invocation -> {
+			WebSocketListener listener = (WebSocketListener) invocation.getArguments()[1];
+			listener.onOpen(webSocket, response);
+			if (connections.incrementAndGet() == 1) {
+				listener.onMessage(webSocket, "hello");
+				listener.onFailure(webSocket, new RuntimeException(), null);
+			} else {
+				listener.onMessage(webSocket, "again");
+			}
+			return webSocket;
+		}).when(okHttpClient).newWebSocket(any(), any());
+
+		TestObserver<String> testObserver = TestObserver.create();
+		client.getMessages().subscribe(testObserver);
+		client.connect().subscribe();
+
+		testObserver.assertNoErrors();
+		testObserver.assertValue("hello");
+		client.getStatus().test().assertValue(RadixClientStatus.RECONNECTING);
+
+		scheduler.advanceTimeBy(1, TimeUnit.SECONDS);
+
+		testObserver.assertNoErrors();
+		testObserver.assertValues("hello", "again");
+		client.getStatus().test().assertValue(RadixClientStatus.OPEN);
+		assertThat(client.getReconnectCount()).isEqualTo(1);
+		assertThat(client.getLastTimeToRecoverMillis()).isGreaterThanOrEqualTo(0);
+	}
+
+	@Test
+	public void testReconnectGivesUpAfterMaxAttempts() {
+		OkHttpClient okHttpClient = mock(OkHttpClient.class);
+		WebSocket webSocket = mock(WebSocket.class);
+		Request request = mock(Request.class);
+		Response response = mock(Response.class);
+		TestScheduler scheduler = new TestScheduler();
+		AtomicInteger connections = new AtomicInteger();
+
+		WebSocketClient client = new WebSocketClient(() -> okHttpClient, request, new ExponentialBackoff(100, 1000, 2), scheduler);
+		doAnswer(invocation -> {
+			WebSocketListener listener = (WebSocketListener) invocation.getArguments()[1];
+			if (connections.incrementAndGet() == 1) {
+				listener.onOpen(webSocket, response);
+			}
+			listener.onFailure(webSocket, new RuntimeException(), null);
+			return webSocket;
+		}).when(okHttpClient).newWebSocket(any(), any());
+
+		TestObserver<String> testObserver = TestObserver.create();
+		client.getMessages().subscribe(testObserver);
+		client.connect().subscribe(() -> { }, e -> { });
+
+		scheduler.advanceTimeBy(10, TimeUnit.SECONDS);
+
+		assertThat(connections.get()).isEqualTo(3);
+		testObserver.assertError(IOException.class);
+		client.getStatus().test().assertValue(RadixClientStatus.FAILURE);
+		assertThat(client.getReconnectCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void overflowFailsConnectionInsteadOfBlocking() {
+		OkHttpClient okHttpClient = mock(OkHttpClient.class);
+		WebSocket webSocket = mock(WebSocket.class);
+		Request request = mock(Request.class);
+		Response response = mock(Response.class);
+		TestScheduler scheduler = new TestScheduler();
+
+		WebSocketClient client = new WebSocketClient(() -> okHttpClient, request, null, scheduler, scheduler, 1);
+		doAnswer(invocation -> {
+			WebSocketListener listener = (WebSocketListener) invocation.getArguments()[1];
+			doAnswer(cancel -> {
+				listener.onFailure(webSocket, new IOException("Canceled"), null);
+				return null;
+			}).when(webSocket).cancel();
+			listener.onOpen(webSocket, response);
+			listener.onMessage(webSocket, "first");
+			listener.onMessage(webSocket, "second");
+			return webSocket;
+		}).when(okHttpClient).newWebSocket(any(), any());
+
+		TestObserver<String> testObserver = TestObserver.create();
+		client.getMessages().subscribe(testObserver);
+		client.connect().subscribe(() -> { }, e -> { });
+		scheduler.triggerActions();
+
+		verify(webSocket).cancel();
+		testObserver.assertFailure(IOException.class, "first");
+		client.getStatus().test().assertValue(RadixClientStatus.FAILURE);
+	}
+}
@@ -0,0 +1,45 @@
+package com.radixdlt.client.core.util;
+
+import io.reactivex.BackpressureOverflowStrategy;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subscribers.TestSubscriber;
+import org.junit.Test;
+
+public class BackpressureTest {
+	@Test
+	public void boundedDropsOldest() {
+		PublishSubject<Integer> source = PublishSubject.create();
+		TestSubscriber<Integer> subscriber = Backpressure.bounded(2, BackpressureOverflowStrategy.DROP_OLDEST).apply(source).test(0);
+
+		source.onNext(1);
+		source.onNext(2);
+		source.onNext(3);
+		subscriber.request(3);
+
+		subscriber.assertValues(2, 3).assertNoErrors();
+	}
+
+	@Test
+	public void latestKeepsLatest() {
+		PublishSubject<Integer> source = PublishSubject.create();
+		TestSubscriber<Integer> subscriber = Backpressure.latest().apply(source).test(0);
+
+		source.onNext(1);
+		source.onNext(2);
+		subscriber.request(2);
+
+		subscriber.assertValues(2);
+	}
+
+	@Test
+	public void errorFailsWhenNotReady() {
+		PublishSubject<Integer> source = PublishSubject.create();
+		TestSubscriber<Integer> subscriber = Backpressure.error().apply(source).test(1);
+
+		source.onNext(1);
+		source.onNext(2);
+
+		subscriber.assertValues(1).assertError(MissingBackpressureException.class);
+	}
+}
@@ -0,0 +1,90 @@
+package com.radixdlt.client.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.schedulers.TestScheduler;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class BoundedHandoffTest {
+	@Test
+	public void blocksProducerWhileFull() throws Exception {
+		TestScheduler scheduler = new TestScheduler();
+		List<Integer> consumed = new CopyOnWriteArrayList<>();
+		BoundedHandoff<Integer> handoff = new BoundedHandoff<>(scheduler, 2, consumed::add);
+
+		Thread producer = new Thread(() -> {
+			try {
+				for (int i = 0; i < 3; i++) {
+					handoff.put(i);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		producer.start();
+		producer.join(500);
+
+		assertThat(producer.isAlive()).isTrue();
+		assertThat(handoff.size()).isEqualTo(2);
+		assertThat(consumed).isEmpty();
+
+		scheduler.triggerActions();
+		producer.join(1000);
+		scheduler.triggerActions();
+
+		assertThat(producer.isAlive()).isFalse();
+		assertThat(consumed).containsExactly(0, 1, 2);
+	}
+
+	@Test
+	public void observesInOrderThenTerminates() {
+		Observable.range(0, 1000)
+			.concatWith(Observable.error(new IllegalStateException()))
+			.compose(BoundedHandoff.observeOn(Schedulers.single(), 8))
+			.test()
+			.awaitDone(5, TimeUnit.SECONDS)
+			.assertValueCount(1000)
+			.assertValueAt(999, 999)
+			.assertError(IllegalStateException.class);
+	}
+
+	@Test
+	public void disposeReleasesBlockedProducer() throws Exception {
+		BoundedHandoff<Integer> handoff = new BoundedHandoff<>(new TestScheduler(), 1, i -> { });
+		handoff.put(0);
+
+		Thread producer = new Thread(() -> {
+			try {
+				handoff.put(1);
+				handoff.put(2);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		producer.start();
+		handoff.dispose();
+		producer.join(1000);
+
+		assertThat(producer.isAlive()).isFalse();
+	}
+
+	@Test
+	public void offerRefusedWhileFull() {
+		TestScheduler scheduler = new TestScheduler();
+		List<Integer> consumed = new CopyOnWriteArrayList<>();
+		BoundedHandoff<Integer> handoff = new BoundedHandoff<>(scheduler, 1, consumed::add);
+
+		assertThat(handoff.offer(0)).isTrue();
+		assertThat(handoff.offer(1)).isFalse();
+
+		scheduler.triggerActions();
+		assertThat(handoff.offer(2)).isTrue();
+		scheduler.triggerActions();
+		assertThat(consumed).containsExactly(0, 2);
+	}
+}
@@ -0,0 +1,35 @@
+package com.radixdlt.client.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class LruCacheTest {
+	@Test
+	public void leastRecentlyUsedEvictedOverBudget() {
+		LruCache<String, String> cache = new LruCache<>(6, String::length);
+		cache.put("a", "aa");
+		cache.put("b", "bb");
+		cache.put("c", "cc");
+		cache.get("a");
+		cache.put("d", "dd");
+
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.get("a")).isEqualTo("aa");
+		assertThat(cache.size()).isEqualTo(3);
+		assertThat(cache.getWeight()).isEqualTo(6);
+	}
+
+	@Test
+	public void replacedValueReweighed() {
+		LruCache<String, String> cache = new LruCache<>(10, String::length);
+		cache.put("a", "aaaa");
+		cache.put("a", "a");
+		cache.remove("b");
+
+		assertThat(cache.getWeight()).isEqualTo(1);
+		cache.remove("a");
+		assertThat(cache.getWeight()).isEqualTo(0);
+		assertThat(cache.size()).isEqualTo(0);
+	}
+}